@@ -0,0 +1,105 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.lnu.eres.fuzzy.benchmarks.BenchmarkModels.TreeShape;
+import se.lnu.eres.fuzzy.functions.AlphaCutFuzzyNumber;
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.exceptions.FuzzyNumberConversionException;
+import se.lnu.eres.fuzzy.goals.Goal;
+import se.lnu.eres.fuzzy.goals.GoalType;
+import se.lnu.eres.fuzzy.goals.ReductionStrategy;
+import se.lnu.eres.fuzzy.goals.impl.AlphaCutGoalAssessor;
+
+/**
+ * Compares the assessment of a whole goal tree, leaves included, merging the
+ * functions of the satisfactions with the assessment on their alpha-cuts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AlphaCutBenchmark {
+
+	@Param({ "AND", "OR" })
+	public GoalType type;
+
+	@Param({ "8", "32" })
+	public int leaves;
+
+	@Param({ "17", "65" })
+	public int levels;
+
+	private Goal root;
+	private final List<Goal> goals = new ArrayList<Goal>();
+	private AlphaCutGoalAssessor assessor;
+
+	@Setup
+	public void setUp() throws FunctionOperationException {
+		List<Goal> intermediateGoals = new ArrayList<Goal>();
+		root = BenchmarkModels.CreateGoalTree(type, TreeShape.BALANCED, ReductionStrategy.FOLD, leaves,
+				new Random(leaves), intermediateGoals);
+		goals.addAll(intermediateGoals);
+		for (Goal goal : intermediateGoals) {
+			for (Goal child : goal.getChildren()) {
+				if (!intermediateGoals.contains(child)) {
+					goals.add(child);
+				}
+			}
+		}
+		assessor = new AlphaCutGoalAssessor(levels);
+	}
+
+	@Benchmark
+	public FuzzyBoolean mergeFunctions() throws FunctionOperationException {
+		for (Goal goal : goals) {
+			goal.invalidateSatisfaction();
+		}
+		return root.assessSatisfaction();
+	}
+
+	@Benchmark
+	public AlphaCutFuzzyNumber combineAlphaCuts() throws FunctionOperationException, FuzzyNumberConversionException {
+		return assessor.assessAlphaCuts(root);
+	}
+
+}
@@ -0,0 +1,274 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import se.lnu.eres.fuzzy.functions.FuzzyNumber;
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.impl.FuzzyNumberImpl;
+import se.lnu.eres.fuzzy.functions.impl.LinearPiecewiseFunctionImpl;
+import se.lnu.eres.fuzzy.goals.Goal;
+import se.lnu.eres.fuzzy.goals.GoalType;
+import se.lnu.eres.fuzzy.goals.LeafGoal;
+import se.lnu.eres.fuzzy.goals.LeafGoalType;
+import se.lnu.eres.fuzzy.goals.ReductionStrategy;
+import se.lnu.eres.fuzzy.goals.impl.GoalFactory;
+import se.lnu.eres.fuzzy.goals.impl.LeafGoalImpl;
+
+/**
+ * Functions and goal models used by the benchmarks. All of them are created
+ * from a seeded random, so every run measures the same inputs.
+ */
+public final class BenchmarkModels {
+
+	/**
+	 * Shape of the goal trees: FLAT is a single intermediate goal with all the
+	 * leaves as children, BALANCED a binary tree and CHAIN a binary tree where
+	 * every intermediate goal has a leaf and another intermediate goal as children.
+	 */
+	public enum TreeShape {
+		FLAT, BALANCED, CHAIN
+	}
+
+	private BenchmarkModels() {
+	}
+
+	/**
+	 * @return A function in [0,1] with the given number of breakpoints and random
+	 *         y values in [0,1]
+	 */
+	public static LinearPieceWiseFunction CreateRandomFunction(int breakpoints, Random random) {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		for (int i = 0; i < breakpoints; i++) {
+			function.addPoint(i / (double) (breakpoints - 1), random.nextDouble());
+		}
+		return function;
+	}
+
+	/**
+	 * @return A function with the given number of breakpoints where every second
+	 *         point lies on the line between its neighbors, so that simplifying it
+	 *         removes half of the points
+	 */
+	public static LinearPieceWiseFunction CreateFunctionWithCollinearPoints(int breakpoints, Random random) {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		double previousX = 0.0;
+		double previousY = random.nextDouble();
+		function.addPoint(previousX, previousY);
+		for (int i = 2; i < breakpoints; i += 2) {
+			double x = i / (double) (breakpoints - 1);
+			double y = random.nextDouble();
+			function.addPoint((previousX + x) / 2.0, (previousY + y) / 2.0);
+			function.addPoint(x, y);
+			previousX = x;
+			previousY = y;
+		}
+		return function;
+	}
+
+	/**
+	 * @return A fuzzy number in [0, Double.MAX_VALUE] with approximately the given
+	 *         number of breakpoints, increasing up to 1 and then decreasing, around
+	 *         a random position in [0.2,0.8]
+	 */
+	public static FuzzyNumber CreateRandomObservation(int breakpoints, Random random) {
+		double top = 0.2 + 0.6 * random.nextDouble();
+		double halfWidth = 0.05 + 0.1 * random.nextDouble();
+		int sidePoints = Math.max(1, (breakpoints - 3) / 2);
+
+		double[] leftXs = SortedRandoms(sidePoints, top - halfWidth, top, random);
+		double[] leftYs = SortedRandoms(sidePoints, 0.0, 1.0, random);
+		double[] rightXs = SortedRandoms(sidePoints, top, top + halfWidth, random);
+		double[] rightYs = SortedRandoms(sidePoints, 0.0, 1.0, random);
+
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		function.addPoint(0.0, 0.0);
+		function.addPoint(top - halfWidth, 0.0);
+		for (int i = 0; i < sidePoints; i++) {
+			function.addPoint(leftXs[i], leftYs[i]);
+		}
+		function.addPoint(top, 1.0);
+		for (int i = 0; i < sidePoints; i++) {
+			function.addPoint(rightXs[i], rightYs[sidePoints - 1 - i]);
+		}
+		function.addPoint(top + halfWidth, 0.0);
+		function.addPoint(Double.MAX_VALUE, 0.0);
+		return new FuzzyNumberImpl(function);
+	}
+
+	private static double[] SortedRandoms(int count, double from, double to, Random random) {
+		double[] values = new double[count];
+		for (int i = 0; i < count; i++) {
+			// Keep the values strictly inside the range
+			values[i] = from + (to - from) * (0.01 + 0.98 * random.nextDouble());
+		}
+		Arrays.sort(values);
+		return values;
+	}
+
+	/**
+	 * @return An upper bound leaf goal, fully satisfied at 0 and fully dissatisfied
+	 *         from 1, with a random observation
+	 */
+	public static LeafGoal CreateLeafGoal(String name, int observationBreakpoints, Random random) {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		function.addPoint(0.0, 1.0);
+		function.addPoint(1.0, 0.0);
+		function.addPoint(Double.MAX_VALUE, 0.0);
+		LeafGoal goal = new LeafGoalImpl(LeafGoalType.UB, new FuzzyNumberImpl(function), name);
+		goal.setObservation(CreateRandomObservation(observationBreakpoints, random));
+		return goal;
+	}
+
+	/**
+	 * @return An upper bound leaf goal whose truth value is a staircase with the
+	 *         given number of steps in [0,1], as for binned sensors, and a random
+	 *         observation. Every step adds a zero-length interval to the assessment
+	 */
+	public static LeafGoal CreateStepLeafGoal(String name, int steps, int observationBreakpoints, Random random) {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		for (int i = 0; i < steps; i++) {
+			double y = 1.0 - i / (double) steps;
+			function.addPoint(i / (double) steps, y);
+			function.addPoint((i + 0.8) / steps, y);
+		}
+		function.addPoint(1.0, 0.0);
+		function.addPoint(Double.MAX_VALUE, 0.0);
+		LeafGoal goal = new LeafGoalImpl(LeafGoalType.UB, new FuzzyNumberImpl(function), name);
+		goal.setObservation(CreateRandomObservation(observationBreakpoints, random));
+		return goal;
+	}
+
+	/**
+	 * Creates a goal tree of the given shape.
+	 * 
+	 * @param intermediateGoals Filled with the intermediate goals of the tree,
+	 *                          children before parents
+	 * @return The root goal
+	 */
+	public static Goal CreateGoalTree(GoalType type, TreeShape shape, ReductionStrategy reductionStrategy,
+			int leaves, Random random, List<Goal> intermediateGoals) throws FunctionOperationException {
+		List<Goal> level = new ArrayList<Goal>();
+		for (int i = 0; i < leaves; i++) {
+			level.add(CreateLeafGoal("leaf" + i, 8, random));
+		}
+		switch (shape) {
+		case FLAT:
+			return CreateIntermediateGoal(type, reductionStrategy, level, intermediateGoals);
+		case BALANCED:
+			while (level.size() > 1) {
+				List<Goal> nextLevel = new ArrayList<Goal>();
+				for (int i = 0; i + 1 < level.size(); i += 2) {
+					nextLevel.add(CreateIntermediateGoal(type, reductionStrategy, level.subList(i, i + 2),
+							intermediateGoals));
+				}
+				if (level.size() % 2 == 1) {
+					nextLevel.add(level.getLast());
+				}
+				level = nextLevel;
+			}
+			return level.getFirst();
+		case CHAIN:
+			Goal root = level.getFirst();
+			for (int i = 1; i < level.size(); i++) {
+				root = CreateIntermediateGoal(type, reductionStrategy, Arrays.asList(root, level.get(i)),
+						intermediateGoals);
+			}
+			return root;
+		default:
+			throw new FunctionOperationException("Unknown tree shape " + shape);
+		}
+	}
+
+	private static Goal CreateIntermediateGoal(GoalType type, ReductionStrategy reductionStrategy,
+			List<Goal> children, List<Goal> intermediateGoals) throws FunctionOperationException {
+		Goal goal = GoalFactory.CreateGoal(type, reductionStrategy);
+		for (Goal child : children) {
+			goal.addChild(child);
+		}
+		intermediateGoals.add(goal);
+		return goal;
+	}
+
+	/**
+	 * The route planning goal model of the paper (see
+	 * VehicleRideGoalModelAnalysis): root=AND(fuel consumption, OR(ride duration,
+	 * AND(longitudinal acceleration, lateral acceleration, bumping)))
+	 * 
+	 * @param leaves Filled with the leaf goals of the model
+	 * @return The root goal
+	 */
+	public static Goal CreateRoutePlanningModel(List<LeafGoal> leaves) throws FunctionOperationException {
+		LeafGoal longitudinalAcceleration = CreateLeafGoal("Longitudinal acceleration",
+				new double[][] { { 0.0, 1.0 }, { 0.56, 1.0 }, { 1.89, 0.0 }, { 2, 0.0 } },
+				new double[][] { { 0.0, 0.0 }, { 0.5, 0.0 }, { 0.7, 1.0 }, { 0.9, 0.0 }, { 2, 0.0 } });
+		LeafGoal lateralAcceleration = CreateLeafGoal("Lateral acceleration",
+				new double[][] { { 0.0, 1.0 }, { 1.0, 0 }, { 1.2, 0 } },
+				new double[][] { { 0.0, 0.0 }, { 0.1, 0.0 }, { 0.15, 1.0 }, { 0.2, 0.0 }, { 1.2, 0 } });
+		LeafGoal bumping = CreateLeafGoal("Bumping",
+				new double[][] { { 0.0, 1.0 }, { 0.05, 1.0 }, { 1.0, 0 }, { 1.2, 0 } },
+				new double[][] { { 0.0, 1.0 }, { 0.03, 0.0 }, { 1.2, 0 } });
+		LeafGoal rideDuration = CreateLeafGoal("Ride duration",
+				new double[][] { { 0.0, 1.0 }, { 15, 1 }, { 20, 0 }, { 22, 0 } },
+				new double[][] { { 0.0, 0.0 }, { 10, 0.0 }, { 13, 1.0 }, { 17, 1.0 }, { 19, 0.0 }, { 22, 0 } });
+		LeafGoal fuelConsumption = CreateLeafGoal("Fuel consumption",
+				new double[][] { { 0.0, 1.0 }, { 5.0, 0 }, { 6.0, 0 } },
+				new double[][] { { 0.0, 0.0 }, { 0.3, 0.0 }, { 0.4, 1 }, { 0.42, 1 }, { 0.45, 0.5 }, { 0.5, 0.5 },
+						{ 2.5, 0.0 }, { 6.0, 0 } });
+		leaves.addAll(Arrays.asList(longitudinalAcceleration, lateralAcceleration, bumping, rideDuration,
+				fuelConsumption));
+
+		Goal comfort = GoalFactory.CreateGoal(GoalType.AND);
+		comfort.addChild(longitudinalAcceleration);
+		comfort.addChild(lateralAcceleration);
+		comfort.addChild(bumping);
+
+		Goal rideSatisfaction = GoalFactory.CreateGoal(GoalType.OR);
+		rideSatisfaction.addChild(rideDuration);
+		rideSatisfaction.addChild(comfort);
+
+		Goal rootSystemSatisfaction = GoalFactory.CreateGoal(GoalType.AND);
+		rootSystemSatisfaction.addChild(fuelConsumption);
+		rootSystemSatisfaction.addChild(rideSatisfaction);
+		return rootSystemSatisfaction;
+	}
+
+	private static LeafGoal CreateLeafGoal(String name, double[][] truthValue, double[][] observation) {
+		LeafGoal goal = new LeafGoalImpl(LeafGoalType.UB, new FuzzyNumberImpl(CreateFunction(truthValue)), name);
+		goal.setObservation(new FuzzyNumberImpl(CreateFunction(observation)));
+		return goal;
+	}
+
+	private static LinearPieceWiseFunction CreateFunction(double[][] points) {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		for (double[] point : points) {
+			function.addPoint(point[0], point[1]);
+		}
+		return function;
+	}
+
+}
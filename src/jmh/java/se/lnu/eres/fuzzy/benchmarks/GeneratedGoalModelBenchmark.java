@@ -0,0 +1,104 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.FuzzyNumber;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.generators.RandomModelGenerator;
+import se.lnu.eres.fuzzy.goals.GoalModel;
+import se.lnu.eres.fuzzy.goals.LeafGoal;
+
+/**
+ * Generated goal models with fan-out 10 and up to 10k leaves: assessment from
+ * scratch and a single leaf update.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GeneratedGoalModelBenchmark {
+
+	private static final long SEED = 20240501L;
+	private static final int UPDATE_OBSERVATIONS = 16;
+
+	@Param({ "2", "3", "4" })
+	public int depth;
+
+	@Param({ "2", "16" })
+	public int slopeBreakpoints;
+
+	private GoalModel model;
+	private final List<LeafGoal> leaves = new ArrayList<LeafGoal>();
+	private final List<FuzzyNumber> updateObservations = new ArrayList<FuzzyNumber>();
+	private int nextUpdate = 0;
+
+	@Setup
+	public void setUp() throws FunctionOperationException {
+		RandomModelGenerator generator = new RandomModelGenerator(SEED);
+		generator.setDepth(depth);
+		generator.setFanOut(10);
+		generator.setSlopeBreakpoints(slopeBreakpoints);
+		generator.setDomainUpperBound(slopeBreakpoints + 1);
+		model = generator.createGoalModel();
+		leaves.addAll(model.getLeafGoals());
+		for (int i = 0; i < UPDATE_OBSERVATIONS; i++) {
+			updateObservations.add(generator.createFuzzyNumber());
+		}
+		model.assessSatisfaction();
+	}
+
+	@Benchmark
+	public FuzzyBoolean assessSatisfaction() throws FunctionOperationException {
+		for (LeafGoal leaf : leaves) {
+			leaf.invalidateSatisfaction();
+		}
+		return model.assessSatisfaction();
+	}
+
+	@Benchmark
+	public FuzzyBoolean updateObservation() throws FunctionOperationException {
+		LeafGoal leaf = leaves.get(nextUpdate % leaves.size());
+		FuzzyNumber observation = updateObservations.get(nextUpdate % UPDATE_OBSERVATIONS);
+		nextUpdate++;
+		return model.updateObservation(leaf.getName(), observation);
+	}
+
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.FuzzyNumber;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.goals.LeafGoal;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LeafGoalBenchmark {
+
+	/** Breakpoints of the observation */
+	@Param({ "8", "64", "512" })
+	public int breakpoints;
+
+	/** Breakpoints of a smooth truth value, or steps of a staircase truth value */
+	@Param({ "SMOOTH", "STEPS" })
+	public String truthValue;
+
+	private LeafGoal goal;
+	private FuzzyNumber observation;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(breakpoints);
+		if (truthValue.equals("STEPS")) {
+			goal = BenchmarkModels.CreateStepLeafGoal("leaf", breakpoints, breakpoints, random);
+		} else {
+			goal = BenchmarkModels.CreateLeafGoal("leaf", breakpoints, random);
+		}
+		observation = BenchmarkModels.CreateRandomObservation(breakpoints, random);
+	}
+
+	@Benchmark
+	public FuzzyBoolean assessSatisfactionFromObservation() throws FunctionOperationException {
+		return goal.assessSatisfactionFromObservation(observation);
+	}
+
+}
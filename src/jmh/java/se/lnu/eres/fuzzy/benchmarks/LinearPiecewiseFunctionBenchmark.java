@@ -0,0 +1,140 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.impl.FunctionApproximation;
+import se.lnu.eres.fuzzy.functions.impl.LinearPieceWiseFunctionDataPoints;
+import se.lnu.eres.fuzzy.functions.impl.LinearPiecewiseFunctionImpl;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LinearPiecewiseFunctionBenchmark {
+
+	private static final int QUERIES = 1024;
+	private static final double EPSILON = 0.01;
+
+	@Param({ "8", "64", "512" })
+	public int breakpoints;
+
+	private LinearPieceWiseFunction function;
+	private LinearPieceWiseFunction otherFunction;
+	private LinearPieceWiseFunction functionWithCollinearPoints;
+	private LinearPieceWiseFunction observation;
+	private double[] queries;
+	private double[] sortedQueries;
+	private final double[] values = new double[QUERIES];
+	private int nextQuery = 0;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(breakpoints);
+		function = BenchmarkModels.CreateRandomFunction(breakpoints, random);
+		otherFunction = BenchmarkModels.CreateRandomFunction(breakpoints, random);
+		functionWithCollinearPoints = BenchmarkModels.CreateFunctionWithCollinearPoints(breakpoints, random);
+		observation = BenchmarkModels.CreateRandomObservation(breakpoints, random).getFunction();
+		queries = new double[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			queries[i] = random.nextDouble();
+		}
+		sortedQueries = queries.clone();
+		Arrays.sort(sortedQueries);
+	}
+
+	@Benchmark
+	public Double getValueAt() throws FunctionOperationException {
+		nextQuery = (nextQuery + 1) & (QUERIES - 1);
+		return function.getValueAt(queries[nextQuery]);
+	}
+
+	/**
+	 * Evaluates all the queries one by one, to compare with {@link #getValuesAt()}
+	 */
+	@Benchmark
+	public double[] getValueAtEachQuery() throws FunctionOperationException {
+		for (int i = 0; i < QUERIES; i++) {
+			values[i] = function.getValueAt(sortedQueries[i]);
+		}
+		return values;
+	}
+
+	@Benchmark
+	public double[] getValuesAt() throws FunctionOperationException {
+		function.getValuesAt(sortedQueries, values);
+		return values;
+	}
+
+	@Benchmark
+	public double[] getValuesAtUnsorted() throws FunctionOperationException {
+		function.getValuesAt(queries, values);
+		return values;
+	}
+
+	@Benchmark
+	public List<Double> findIntersections() throws FunctionOperationException {
+		return function.findIntersections(otherFunction);
+	}
+
+	/**
+	 * Simplification modifies the function, so each invocation simplifies a copy.
+	 * The copy is included in the measurement.
+	 */
+	@Benchmark
+	public LinearPieceWiseFunction simplifyPiecewiseFunction() throws FunctionOperationException {
+		LinearPieceWiseFunction copy = new LinearPiecewiseFunctionImpl(
+				new LinearPieceWiseFunctionDataPoints(functionWithCollinearPoints.getDatapoints().getDatapoints()));
+		copy.simplifyPiecewiseFunction();
+		return copy;
+	}
+
+	/**
+	 * Simplification of an observation with error, which does not modify the
+	 * observation
+	 */
+	@Benchmark
+	public FunctionApproximation.Approximation simplifyWithinEpsilon() throws FunctionOperationException {
+		return FunctionApproximation.Simplify(observation, EPSILON);
+	}
+
+}
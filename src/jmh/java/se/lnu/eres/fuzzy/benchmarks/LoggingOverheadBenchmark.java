@@ -0,0 +1,108 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+
+/**
+ * Cost of the logging statements of the hot paths when their level is
+ * disabled, as it is with the shipped log4j2.xml. Run it with the GC profiler
+ * (BenchmarkRunner adds it): the guarded statements must not allocate
+ * (gc.alloc.rate.norm), while the unguarded baseline, which is how the hot paths
+ * used to log, boxes its arguments and builds the string of the function in
+ * every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LoggingOverheadBenchmark {
+
+	private static final Logger Logger = LogManager.getLogger(LoggingOverheadBenchmark.class.getSimpleName());
+
+	private LinearPieceWiseFunction function;
+	private Double x1;
+	private Double x2;
+	private ImmutablePair<Double, Double> fleft;
+	private ImmutablePair<Double, Double> fright;
+	private double y1;
+	private double y2;
+
+	@Setup
+	public void setUp() throws FunctionOperationException {
+		function = BenchmarkModels.CreateRandomFunction(64, new Random(64));
+		x1 = function.getDatapoints().getX(10);
+		x2 = function.getDatapoints().getX(11);
+		y1 = function.getDatapoints().getY(10);
+		y2 = function.getDatapoints().getY(11);
+		// A segment that crosses the function between x1 and x2
+		fleft = new ImmutablePair<Double, Double>(x1, y2);
+		fright = new ImmutablePair<Double, Double>(x2, y1);
+	}
+
+	@Benchmark
+	public Double getIntersectionPointX() throws FunctionOperationException {
+		return function.getIntersectionPointX(x1, x2, fleft, fright);
+	}
+
+	@Benchmark
+	public double getLargestValueBetween() throws FunctionOperationException {
+		return function.getLargestValueBetween(x1, x2, false);
+	}
+
+	@Benchmark
+	public double unguardedDisabledLogging() {
+		Logger.info("Calculating intersection of <x1,y1>=<{},{}> <x2,y2>=<{},{}> in function {}", x1, y1, x2, y2,
+				function.getDatapoints().toString());
+		return y1;
+	}
+
+	@Benchmark
+	public double guardedDisabledLogging() {
+		if (Logger.isTraceEnabled()) {
+			Logger.trace("Calculating intersection of <x1,y1>=<{},{}> <x2,y2>=<{},{}> in function {}", x1, y1, x2, y2,
+					function.getDatapoints());
+		}
+		return y1;
+	}
+
+}
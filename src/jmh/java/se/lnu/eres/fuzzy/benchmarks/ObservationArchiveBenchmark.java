@@ -0,0 +1,159 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.impl.LinearPieceWiseFunctionDataPoints;
+import se.lnu.eres.fuzzy.functions.impl.LinearPiecewiseFunctionImpl;
+import se.lnu.eres.fuzzy.generators.RandomModelGenerator;
+import se.lnu.eres.fuzzy.goals.GoalModel;
+import se.lnu.eres.fuzzy.goals.LeafGoal;
+import se.lnu.eres.fuzzy.goals.impl.GoalModelBatchEvaluator;
+import se.lnu.eres.fuzzy.goals.impl.ObservationArchive;
+import se.lnu.eres.fuzzy.goals.impl.ObservationBatch;
+import se.lnu.eres.fuzzy.serialization.exceptions.ModelFormatException;
+
+/**
+ * Replay of recorded scenarios of a goal model with 100 leaves, from the
+ * observations in memory and from a memory-mapped archive, and the cost of
+ * building the observations with addPoint compared to loading them from the
+ * archive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ObservationArchiveBenchmark {
+
+	private static final long SEED = 20240601L;
+
+	@Param({ "16", "64" })
+	public int scenarios;
+
+	@Param({ "2", "8" })
+	public int slopeBreakpoints;
+
+	private GoalModelBatchEvaluator evaluator;
+	private ObservationBatch batch;
+	private Path file;
+	private ObservationArchive archive;
+	private final LinearPieceWiseFunctionDataPoints points = new LinearPieceWiseFunctionDataPoints();
+
+	@Setup
+	public void setUp() throws FunctionOperationException, IOException, ModelFormatException {
+		RandomModelGenerator generator = new RandomModelGenerator(SEED);
+		generator.setDepth(2);
+		generator.setFanOut(10);
+		generator.setSlopeBreakpoints(slopeBreakpoints);
+		generator.setDomainUpperBound(slopeBreakpoints + 1);
+		GoalModel model = generator.createGoalModel();
+		evaluator = new GoalModelBatchEvaluator(model);
+
+		List<String> leafNames = new ArrayList<String>();
+		for (LeafGoal leaf : model.getLeafGoals()) {
+			leafNames.add(leaf.getName());
+		}
+		batch = new ObservationBatch(leafNames, scenarios);
+		long[] scenarioIds = new long[scenarios];
+		for (int s = 0; s < scenarios; s++) {
+			scenarioIds[s] = s;
+			for (String leaf : leafNames) {
+				batch.setObservation(leaf, s, generator.createFuzzyNumber());
+			}
+		}
+		file = Files.createTempFile("observations", ".fzoa");
+		ObservationArchive.Write(file, batch, scenarioIds);
+		archive = ObservationArchive.Open(file);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public List<FuzzyBoolean> assessFromBatch() throws FunctionOperationException {
+		return evaluator.assessSatisfaction(batch);
+	}
+
+	@Benchmark
+	public List<FuzzyBoolean> assessFromArchive() throws FunctionOperationException {
+		return evaluator.assessSatisfaction(archive);
+	}
+
+	/**
+	 * Builds every observation point by point, as when they are parsed
+	 */
+	@Benchmark
+	public int buildObservationsWithAddPoint() {
+		int datapoints = 0;
+		for (int leaf = 0; leaf < batch.getLeafNames().size(); leaf++) {
+			for (int s = 0; s < scenarios; s++) {
+				LinearPieceWiseFunctionDataPoints observation = batch.getObservation(leaf, s).getFunction()
+						.getDatapoints();
+				LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+				for (int i = 0; i < observation.size(); i++) {
+					function.addPoint(observation.getX(i), observation.getY(i));
+				}
+				datapoints += function.getDatapoints().size();
+			}
+		}
+		return datapoints;
+	}
+
+	@Benchmark
+	public int loadObservationsFromArchive() {
+		int datapoints = 0;
+		for (int leaf = 0; leaf < archive.getLeafNames().size(); leaf++) {
+			for (int s = 0; s < scenarios; s++) {
+				archive.loadObservation(leaf, s, points);
+				datapoints += points.size();
+			}
+		}
+		return datapoints;
+	}
+
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.lnu.eres.fuzzy.benchmarks.BenchmarkModels.TreeShape;
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.goals.Goal;
+import se.lnu.eres.fuzzy.goals.GoalType;
+import se.lnu.eres.fuzzy.goals.ReductionStrategy;
+
+/**
+ * Compares the FOLD and TREE reduction strategies on a single AND or OR goal
+ * with many leaf children. The leaves keep their cached satisfaction, so only
+ * the combination of the children is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReductionStrategyBenchmark {
+
+	@Param({ "AND", "OR" })
+	public GoalType type;
+
+	@Param({ "FOLD", "TREE" })
+	public ReductionStrategy reductionStrategy;
+
+	@Param({ "4", "16", "64", "256" })
+	public int children;
+
+	private Goal goal;
+
+	@Setup
+	public void setUp() throws FunctionOperationException {
+		// Same seed for both strategies, so that they combine the same leaves
+		goal = BenchmarkModels.CreateGoalTree(type, TreeShape.FLAT, reductionStrategy, children,
+				new Random(children), new ArrayList<Goal>());
+		goal.assessSatisfaction();
+	}
+
+	@Benchmark
+	public FuzzyBoolean combine() throws FunctionOperationException {
+		goal.invalidateSatisfaction();
+		return goal.assessSatisfaction();
+	}
+
+}
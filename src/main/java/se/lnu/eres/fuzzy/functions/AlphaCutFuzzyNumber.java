@@ -0,0 +1,104 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.functions;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+
+/**
+ * Fuzzy number represented by its alpha-cuts. For each level α the alpha-cut
+ * is the interval [lower bound, upper bound] of the x whose membership is at
+ * least α. The first level is 0, whose alpha-cut is the closure of the
+ * support, and the last one is 1, whose alpha-cut is the core. Between two
+ * levels the bounds change linearly.
+ * 
+ * The operations are calculated level by level with interval arithmetic, and
+ * they do not modify the operands.
+ */
+public interface AlphaCutFuzzyNumber {
+
+	int getLevelCount();
+
+	/**
+	 * @param i From 0 to {@link #getLevelCount()}-1, in increasing order of the
+	 *          levels
+	 */
+	double getLevel(int i);
+
+	double getLowerBound(int i);
+
+	double getUpperBound(int i);
+
+	/**
+	 * @param level Between 0 and 1
+	 * @return The alpha-cut at the level, interpolated between the levels of the
+	 *         representation
+	 */
+	ImmutablePair<Double, Double> getAlphaCut(double level);
+
+	/**
+	 * @return The x of the first and the last datapoints of the function
+	 *         represented, which may be out of the support
+	 */
+	ImmutablePair<Double, Double> getDomain();
+
+	AlphaCutFuzzyNumber add(AlphaCutFuzzyNumber other);
+
+	AlphaCutFuzzyNumber subtract(AlphaCutFuzzyNumber other);
+
+	/**
+	 * Extension principle of the minimum, sup{min(A(x),B(y))|min(x,y)=z}. It is
+	 * the AND of two fuzzy booleans.
+	 */
+	AlphaCutFuzzyNumber min(AlphaCutFuzzyNumber other);
+
+	/**
+	 * Extension principle of the maximum, sup{min(A(x),B(y))|max(x,y)=z}. It is
+	 * the OR of two fuzzy booleans.
+	 */
+	AlphaCutFuzzyNumber max(AlphaCutFuzzyNumber other);
+
+	/**
+	 * Extension principle B(y) = sup{A(x)|f(x)=y} for a monotone function f,
+	 * applying f to the bounds of each alpha-cut. The result is exact at the
+	 * levels of the representation.
+	 * 
+	 * @throws FunctionOperationException If f is not monotone or it is not
+	 *                                    defined in the alpha-cuts
+	 */
+	AlphaCutFuzzyNumber map(LinearPieceWiseFunction f) throws FunctionOperationException;
+
+	/**
+	 * @return The possibility that this number is not greater than the other,
+	 *         sup{α|lower bound of this at α ≤ upper bound of the other at α}, 0 if
+	 *         there is no such α
+	 */
+	double getPossibilityOfNotGreaterThan(AlphaCutFuzzyNumber other);
+
+	/**
+	 * @return The membership function, with a datapoint for each bound of each
+	 *         level and the datapoints of the limits of the domain
+	 */
+	LinearPieceWiseFunction toFunction();
+
+}
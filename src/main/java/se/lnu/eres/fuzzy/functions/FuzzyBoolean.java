@@ -34,6 +34,15 @@ public interface FuzzyBoolean extends FuzzyNumber{
 	 */
 	boolean isFuzzyBoolean() throws FuzzyOperationException, FunctionOperationException;
 
+	/**
+	 * @return Upper bound of the largest vertical distance between this fuzzy
+	 *         boolean and the one that would have been obtained without
+	 *         approximations. 0 if it is exact
+	 */
+	default double getApproximationError() {
+		return 0.0;
+	}
+
 
 
 
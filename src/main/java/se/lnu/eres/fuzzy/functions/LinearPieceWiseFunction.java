@@ -28,6 +28,7 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
 import se.lnu.eres.fuzzy.functions.exceptions.FuzzyNumberConversionException;
 import se.lnu.eres.fuzzy.functions.impl.LinearPieceWiseFunctionDataPoints;
+import se.lnu.eres.fuzzy.functions.impl.RangeMaximumIndex;
 
 public interface LinearPieceWiseFunction extends FuzzyNumberCheck {
 
@@ -60,6 +61,16 @@ public interface LinearPieceWiseFunction extends FuzzyNumberCheck {
 
 	Double getValueAt(double x) throws FunctionOperationException;
 
+	/**
+	 * Same as {@link #getValueAt(double)} for each x, without creating any
+	 * object. Sorted x are evaluated in a single walk over the datapoints.
+	 * 
+	 * @param xs
+	 * @param out Receives the value at xs[i] in out[i]
+	 * @throws FunctionOperationException
+	 */
+	void getValuesAt(double[] xs, double[] out) throws FunctionOperationException;
+
 	LinearPieceWiseFunction getInverse() throws UnsupportedOperationException;
 
 	List<Double> findIntersections(LinearPieceWiseFunction function) throws FunctionOperationException;
@@ -131,6 +142,14 @@ public interface LinearPieceWiseFunction extends FuzzyNumberCheck {
 	 */
 	double getLargestValueBetween(double left, double right, boolean extremesDiscarded) throws FunctionOperationException;
 
+	/**
+	 * The index used to answer the largest values of the function. It is built
+	 * the first time it is needed and built again after the datapoints change.
+	 * 
+	 * @return The range maximum index of the current datapoints
+	 */
+	RangeMaximumIndex getRangeMaximumIndex();
+
 
 
 }
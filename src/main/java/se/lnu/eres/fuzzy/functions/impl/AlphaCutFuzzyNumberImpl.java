@@ -0,0 +1,511 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.functions.impl;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import se.lnu.eres.fuzzy.functions.AlphaCutFuzzyNumber;
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.exceptions.FuzzyNumberConversionException;
+
+/**
+ * Immutable {@link AlphaCutFuzzyNumber} whose levels and bounds are kept in
+ * primitive arrays.
+ * 
+ * The operations between numbers with the same levels are plain loops over the
+ * arrays, which the JIT compiler can vectorize. Numbers with different levels
+ * are first resampled at the union of their levels. Sums, differences, minimums
+ * and maximums are exact, because the bounds change linearly between levels and
+ * the levels where the bounds of a minimum or a maximum cross are added to the
+ * result.
+ * 
+ * The conversion from a function with {@link #FromFunction(LinearPieceWiseFunction)}
+ * uses the y of the datapoints as levels and it is lossless.
+ * {@link #FromFunction(LinearPieceWiseFunction, int)} uses a fixed number of
+ * levels equally spaced, so that the cost of the operations does not depend on
+ * the size of the functions.
+ */
+public final class AlphaCutFuzzyNumberImpl implements AlphaCutFuzzyNumber {
+
+	private static final Logger Logger = LogManager.getLogger(AlphaCutFuzzyNumberImpl.class.getSimpleName());
+
+	private enum Operation {
+		ADD, SUBTRACT, MIN, MAX
+	}
+
+	private final double[] levels;
+	private final double[] lowerBounds;
+	private final double[] upperBounds;
+	private final double domainStart;
+	private final double domainEnd;
+
+	private AlphaCutFuzzyNumberImpl(double[] levels, double[] lowerBounds, double[] upperBounds, double domainStart,
+			double domainEnd) {
+		super();
+		this.levels = levels;
+		this.lowerBounds = lowerBounds;
+		this.upperBounds = upperBounds;
+		this.domainStart = domainStart;
+		this.domainEnd = domainEnd;
+	}
+
+	/**
+	 * Lossless conversion, using as levels the y of the datapoints of the function
+	 * 
+	 * @throws FuzzyNumberConversionException If the function is not a fuzzy number
+	 */
+	public static AlphaCutFuzzyNumberImpl FromFunction(LinearPieceWiseFunction function)
+			throws FuzzyNumberConversionException {
+		CheckFuzzyNumber(function);
+		LinearPieceWiseFunctionDataPoints points = function.getDatapoints();
+		double[] levels = new double[points.size()];
+		for (int i = 0; i < levels.length; i++) {
+			levels[i] = points.getY(i);
+		}
+		Arrays.sort(levels);
+		int count = 0;
+		for (int i = 0; i < levels.length; i++) {
+			if (count == 0 || Double.compare(levels[count - 1], levels[i]) != 0) {
+				levels[count++] = levels[i];
+			}
+		}
+		return FromDatapoints(points, Arrays.copyOf(levels, count));
+	}
+
+	/**
+	 * @param levelCount Number of levels, equally spaced between 0 and 1
+	 * @throws FuzzyNumberConversionException If the function is not a fuzzy number
+	 */
+	public static AlphaCutFuzzyNumberImpl FromFunction(LinearPieceWiseFunction function, int levelCount)
+			throws FuzzyNumberConversionException {
+		if (levelCount < 2) {
+			throw new IllegalArgumentException("At least the levels 0 and 1 are needed: " + levelCount);
+		}
+		CheckFuzzyNumber(function);
+		double[] levels = new double[levelCount];
+		for (int i = 0; i < levelCount; i++) {
+			levels[i] = (double) i / (levelCount - 1);
+		}
+		return FromDatapoints(function.getDatapoints(), levels);
+	}
+
+	private static void CheckFuzzyNumber(LinearPieceWiseFunction function) throws FuzzyNumberConversionException {
+		if (!FuzzyNumberImpl.IsFuzzyNumber(function)) {
+			throw new FuzzyNumberConversionException(
+					"Function does not correspond to fuzzy number" + function.getDatapoints().toString());
+		}
+	}
+
+	/**
+	 * The bounds of all the levels in a single pass over each side of the fuzzy
+	 * number
+	 */
+	private static AlphaCutFuzzyNumberImpl FromDatapoints(LinearPieceWiseFunctionDataPoints points, double[] levels) {
+		int size = points.size();
+		int coreStart = 0;
+		while (points.getY(coreStart) < 1.0) {
+			coreStart++;
+		}
+		int coreEnd = size - 1;
+		while (points.getY(coreEnd) < 1.0) {
+			coreEnd--;
+		}
+
+		double[] lowerBounds = new double[levels.length];
+		double[] upperBounds = new double[levels.length];
+		// Increasing side: first datapoint reaching each level
+		int i = 0;
+		for (int k = 0; k < levels.length; k++) {
+			if (levels[k] == 0.0) {
+				// Start of the support, the last 0 before increasing
+				int lastZero = coreStart;
+				while (lastZero > 0 && points.getY(lastZero) > 0.0) {
+					lastZero--;
+				}
+				lowerBounds[k] = points.getX(lastZero);
+				continue;
+			}
+			while (points.getY(i) < levels[k]) {
+				i++;
+			}
+			lowerBounds[k] = (i == 0 || points.getY(i) == levels[k]) ? points.getX(i)
+					: GetXInSegment(points, i - 1, levels[k]);
+		}
+		// Decreasing side: last datapoint reaching each level
+		int j = size - 1;
+		for (int k = 0; k < levels.length; k++) {
+			if (levels[k] == 0.0) {
+				// End of the support, the first 0 after decreasing
+				int firstZero = coreEnd;
+				while (firstZero < size - 1 && points.getY(firstZero) > 0.0) {
+					firstZero++;
+				}
+				upperBounds[k] = points.getX(firstZero);
+				continue;
+			}
+			while (points.getY(j) < levels[k]) {
+				j--;
+			}
+			upperBounds[k] = (j == size - 1 || points.getY(j) == levels[k]) ? points.getX(j)
+					: GetXInSegment(points, j, levels[k]);
+		}
+		return new AlphaCutFuzzyNumberImpl(levels, lowerBounds, upperBounds, points.getX(0), points.getX(size - 1));
+	}
+
+	/**
+	 * @return The x where the segment between the datapoints i and i+1, which are
+	 *         at different heights, reaches y
+	 */
+	private static double GetXInSegment(LinearPieceWiseFunctionDataPoints points, int i, double y) {
+		return points.getX(i) + (y - points.getY(i))
+				* ((points.getX(i + 1) - points.getX(i)) / (points.getY(i + 1) - points.getY(i)));
+	}
+
+	private static AlphaCutFuzzyNumberImpl Of(AlphaCutFuzzyNumber number) {
+		if (number instanceof AlphaCutFuzzyNumberImpl) {
+			return (AlphaCutFuzzyNumberImpl) number;
+		}
+		int n = number.getLevelCount();
+		double[] levels = new double[n];
+		double[] lowerBounds = new double[n];
+		double[] upperBounds = new double[n];
+		for (int i = 0; i < n; i++) {
+			levels[i] = number.getLevel(i);
+			lowerBounds[i] = number.getLowerBound(i);
+			upperBounds[i] = number.getUpperBound(i);
+		}
+		ImmutablePair<Double, Double> domain = number.getDomain();
+		return new AlphaCutFuzzyNumberImpl(levels, lowerBounds, upperBounds, domain.getLeft(), domain.getRight());
+	}
+
+	@Override
+	public int getLevelCount() {
+		return levels.length;
+	}
+
+	@Override
+	public double getLevel(int i) {
+		return levels[i];
+	}
+
+	@Override
+	public double getLowerBound(int i) {
+		return lowerBounds[i];
+	}
+
+	@Override
+	public double getUpperBound(int i) {
+		return upperBounds[i];
+	}
+
+	@Override
+	public ImmutablePair<Double, Double> getAlphaCut(double level) {
+		int i = Arrays.binarySearch(levels, level);
+		if (i >= 0) {
+			return new ImmutablePair<Double, Double>(lowerBounds[i], upperBounds[i]);
+		}
+		// Level below which the searched one is
+		int k = Math.max(0, Math.min(-i - 2, levels.length - 1));
+		return new ImmutablePair<Double, Double>(Interpolate(levels, lowerBounds, k, level),
+				Interpolate(levels, upperBounds, k, level));
+	}
+
+	@Override
+	public ImmutablePair<Double, Double> getDomain() {
+		return new ImmutablePair<Double, Double>(domainStart, domainEnd);
+	}
+
+	/**
+	 * @return The bound at the level, linear between the levels k and k+1
+	 */
+	private static double Interpolate(double[] levels, double[] bounds, int k, double level) {
+		if (level == levels[k] || k == levels.length - 1) {
+			return bounds[k];
+		}
+		return bounds[k] + (level - levels[k]) * ((bounds[k + 1] - bounds[k]) / (levels[k + 1] - levels[k]));
+	}
+
+	/**
+	 * @return The bounds at each of the sorted levels
+	 */
+	private double[] resample(double[] bounds, double[] newLevels) {
+		double[] resampled = new double[newLevels.length];
+		int k = 0;
+		for (int i = 0; i < newLevels.length; i++) {
+			while (k < levels.length - 1 && levels[k + 1] <= newLevels[i]) {
+				k++;
+			}
+			resampled[i] = Interpolate(levels, bounds, k, newLevels[i]);
+		}
+		return resampled;
+	}
+
+	private static double[] UnionOf(double[] levels1, double[] levels2) {
+		double[] union = new double[levels1.length + levels2.length];
+		int count = 0, i = 0, j = 0;
+		while (i < levels1.length || j < levels2.length) {
+			double level;
+			if (j == levels2.length || (i < levels1.length && levels1[i] <= levels2[j])) {
+				level = levels1[i++];
+			} else {
+				level = levels2[j++];
+			}
+			if (count == 0 || union[count - 1] != level) {
+				union[count++] = level;
+			}
+		}
+		return Arrays.copyOf(union, count);
+	}
+
+	@Override
+	public AlphaCutFuzzyNumber add(AlphaCutFuzzyNumber other) {
+		return combine(Of(other), Operation.ADD);
+	}
+
+	@Override
+	public AlphaCutFuzzyNumber subtract(AlphaCutFuzzyNumber other) {
+		return combine(Of(other), Operation.SUBTRACT);
+	}
+
+	@Override
+	public AlphaCutFuzzyNumber min(AlphaCutFuzzyNumber other) {
+		return combine(Of(other), Operation.MIN);
+	}
+
+	@Override
+	public AlphaCutFuzzyNumber max(AlphaCutFuzzyNumber other) {
+		return combine(Of(other), Operation.MAX);
+	}
+
+	private AlphaCutFuzzyNumberImpl combine(AlphaCutFuzzyNumberImpl other, Operation operation) {
+		double[] commonLevels;
+		double[] lowerA, upperA, lowerB, upperB;
+		if (Arrays.equals(levels, other.levels)) {
+			commonLevels = levels;
+			lowerA = lowerBounds;
+			upperA = upperBounds;
+			lowerB = other.lowerBounds;
+			upperB = other.upperBounds;
+		} else {
+			commonLevels = UnionOf(levels, other.levels);
+			lowerA = resample(lowerBounds, commonLevels);
+			upperA = resample(upperBounds, commonLevels);
+			lowerB = other.resample(other.lowerBounds, commonLevels);
+			upperB = other.resample(other.upperBounds, commonLevels);
+		}
+
+		int n = commonLevels.length;
+		double[] lower = new double[n];
+		double[] upper = new double[n];
+		// One loop per operation, without branches inside, so that they can be
+		// vectorized
+		switch (operation) {
+		case ADD:
+			for (int i = 0; i < n; i++) {
+				lower[i] = lowerA[i] + lowerB[i];
+				upper[i] = upperA[i] + upperB[i];
+			}
+			return new AlphaCutFuzzyNumberImpl(commonLevels, lower, upper, domainStart + other.domainStart,
+					domainEnd + other.domainEnd);
+		case SUBTRACT:
+			for (int i = 0; i < n; i++) {
+				lower[i] = lowerA[i] - upperB[i];
+				upper[i] = upperA[i] - lowerB[i];
+			}
+			return new AlphaCutFuzzyNumberImpl(commonLevels, lower, upper, domainStart - other.domainEnd,
+					domainEnd - other.domainStart);
+		case MIN:
+			for (int i = 0; i < n; i++) {
+				lower[i] = Math.min(lowerA[i], lowerB[i]);
+				upper[i] = Math.min(upperA[i], upperB[i]);
+			}
+			break;
+		case MAX:
+			for (int i = 0; i < n; i++) {
+				lower[i] = Math.max(lowerA[i], lowerB[i]);
+				upper[i] = Math.max(upperA[i], upperB[i]);
+			}
+			break;
+		}
+
+		boolean minimum = operation == Operation.MIN;
+		double start = minimum ? Math.min(domainStart, other.domainStart) : Math.max(domainStart, other.domainStart);
+		double end = minimum ? Math.min(domainEnd, other.domainEnd) : Math.max(domainEnd, other.domainEnd);
+		if (HasCrossings(lowerA, lowerB) || HasCrossings(upperA, upperB)) {
+			Logger.trace("Adding the levels where the bounds cross");
+			return WithCrossings(commonLevels, lowerA, upperA, lowerB, upperB, minimum, start, end);
+		}
+		return new AlphaCutFuzzyNumberImpl(commonLevels, lower, upper, start, end);
+	}
+
+	private static boolean HasCrossings(double[] a, double[] b) {
+		for (int i = 1; i < a.length; i++) {
+			if (CrossingLevel(a, b, i) >= 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return The fraction of the way from level i-1 to level i where the bounds a
+	 *         and b cross, or -1 if they do not cross
+	 */
+	private static double CrossingLevel(double[] a, double[] b, int i) {
+		double before = a[i - 1] - b[i - 1];
+		double after = a[i] - b[i];
+		if ((before < 0 && after > 0) || (before > 0 && after < 0)) {
+			return before / (before - after);
+		}
+		return -1;
+	}
+
+	/**
+	 * The minimum or maximum of the bounds a and b, with an additional level
+	 * wherever they cross
+	 */
+	private static AlphaCutFuzzyNumberImpl WithCrossings(double[] levels, double[] lowerA, double[] upperA,
+			double[] lowerB, double[] upperB, boolean minimum, double domainStart, double domainEnd) {
+		int n = levels.length;
+		// At most two crossings between two levels, one per bound
+		double[] newLevels = new double[3 * n];
+		double[] lower = new double[3 * n];
+		double[] upper = new double[3 * n];
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			if (i > 0) {
+				double first = CrossingLevel(lowerA, lowerB, i);
+				double second = CrossingLevel(upperA, upperB, i);
+				if (first < 0 || (second >= 0 && second < first)) {
+					double swap = first;
+					first = second;
+					second = swap;
+				}
+				for (int c = 0; c < 2; c++) {
+					double fraction = c == 0 ? first : second;
+					if (fraction < 0 || (c == 1 && fraction == first)) {
+						continue;
+					}
+					double aLower = lowerA[i - 1] + fraction * (lowerA[i] - lowerA[i - 1]);
+					double bLower = lowerB[i - 1] + fraction * (lowerB[i] - lowerB[i - 1]);
+					double aUpper = upperA[i - 1] + fraction * (upperA[i] - upperA[i - 1]);
+					double bUpper = upperB[i - 1] + fraction * (upperB[i] - upperB[i - 1]);
+					newLevels[count] = levels[i - 1] + fraction * (levels[i] - levels[i - 1]);
+					lower[count] = minimum ? Math.min(aLower, bLower) : Math.max(aLower, bLower);
+					upper[count] = minimum ? Math.min(aUpper, bUpper) : Math.max(aUpper, bUpper);
+					count++;
+				}
+			}
+			newLevels[count] = levels[i];
+			lower[count] = minimum ? Math.min(lowerA[i], lowerB[i]) : Math.max(lowerA[i], lowerB[i]);
+			upper[count] = minimum ? Math.min(upperA[i], upperB[i]) : Math.max(upperA[i], upperB[i]);
+			count++;
+		}
+		return new AlphaCutFuzzyNumberImpl(Arrays.copyOf(newLevels, count), Arrays.copyOf(lower, count),
+				Arrays.copyOf(upper, count), domainStart, domainEnd);
+	}
+
+	@Override
+	public AlphaCutFuzzyNumber map(LinearPieceWiseFunction f) throws FunctionOperationException {
+		boolean increasing = f.isMonotonicallyIncreasing();
+		if (!increasing && !f.isMonotonicallyDecreasing()) {
+			throw new FunctionOperationException(
+					"Alpha-cuts can only be mapped by monotone functions, but the function is " + f.getDatapoints());
+		}
+		int n = levels.length;
+		// The lower bounds are sorted, so they are evaluated in a single walk
+		double[] atLower = new double[n];
+		double[] atUpper = new double[n];
+		f.getValuesAt(lowerBounds, atLower);
+		f.getValuesAt(upperBounds, atUpper);
+		double[] lower = increasing ? atLower : atUpper;
+		double[] upper = increasing ? atUpper : atLower;
+		double atStart = f.getValueAt(domainStart);
+		double atEnd = f.getValueAt(domainEnd);
+		return new AlphaCutFuzzyNumberImpl(levels, lower, upper, Math.min(atStart, atEnd), Math.max(atStart, atEnd));
+	}
+
+	@Override
+	public double getPossibilityOfNotGreaterThan(AlphaCutFuzzyNumber other) {
+		AlphaCutFuzzyNumberImpl b = Of(other);
+		double[] commonLevels = Arrays.equals(levels, b.levels) ? levels : UnionOf(levels, b.levels);
+		double[] lowerA = commonLevels == levels ? lowerBounds : resample(lowerBounds, commonLevels);
+		double[] upperB = commonLevels == b.levels ? b.upperBounds : b.resample(b.upperBounds, commonLevels);
+		// lowerA - upperB does not decrease with the level
+		if (lowerA[0] > upperB[0]) {
+			return 0.0;
+		}
+		int i = 0;
+		while (i < commonLevels.length - 1 && lowerA[i + 1] <= upperB[i + 1]) {
+			i++;
+		}
+		if (i == commonLevels.length - 1) {
+			return commonLevels[i];
+		}
+		double before = upperB[i] - lowerA[i];
+		double after = upperB[i + 1] - lowerA[i + 1];
+		return commonLevels[i] + (commonLevels[i + 1] - commonLevels[i]) * (before / (before - after));
+	}
+
+	@Override
+	public LinearPieceWiseFunction toFunction() {
+		int n = levels.length;
+		LinearPieceWiseFunctionDataPoints points = new LinearPieceWiseFunctionDataPoints(2 * n + 2);
+		// The levels whose lower bound is the start of the domain are a single
+		// datapoint, the highest of them
+		int first = 0;
+		while (first < n - 1 && lowerBounds[first + 1] <= domainStart) {
+			first++;
+		}
+		if (lowerBounds[0] > domainStart) {
+			points.add(domainStart, 0.0);
+		}
+		for (int i = first; i < n; i++) {
+			points.add(lowerBounds[i], levels[i]);
+		}
+		// Same for the end of the domain
+		int last = n - 1;
+		while (last > 0 && upperBounds[last] < domainEnd) {
+			points.add(upperBounds[last], levels[last]);
+			last--;
+		}
+		points.add(upperBounds[last], levels[last]);
+		if (upperBounds[last] < domainEnd) {
+			points.add(domainEnd, 0.0);
+		}
+		points.removeDuplicatedNeighborPoints();
+		return ImmutableLinearPiecewiseFunction.CopyOfInOrder(points);
+	}
+
+	@Override
+	public String toString() {
+		return "AlphaCutFuzzyNumberImpl [levels=" + Arrays.toString(levels) + ", lowerBounds="
+				+ Arrays.toString(lowerBounds) + ", upperBounds=" + Arrays.toString(upperBounds) + ", domain=["
+				+ domainStart + ", " + domainEnd + "]]";
+	}
+
+}
@@ -0,0 +1,356 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.functions.impl;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.common.math.DoubleMath;
+
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+
+/**
+ * Approximations of a piecewise function with a bounded number of datapoints,
+ * together with the largest vertical distance between the function and its
+ * approximation.
+ * 
+ * The approximations keep the first and the last datapoints, so the domain of
+ * the function does not change. Both the function and its approximation are
+ * linear between datapoints, so their largest distance is at one of the
+ * datapoints of the function, where it is measured.
+ */
+public final class FunctionApproximation {
+
+	private static final Logger Logger = LogManager.getLogger(FunctionApproximation.class.getSimpleName());
+
+	/**
+	 * An approximated function and its error
+	 */
+	public static final class Approximation {
+
+		private final LinearPieceWiseFunction function;
+		private final double maximumError;
+		private final int removedBreakpoints;
+
+		Approximation(LinearPieceWiseFunction function, double maximumError, int removedBreakpoints) {
+			super();
+			this.function = function;
+			this.maximumError = maximumError;
+			this.removedBreakpoints = removedBreakpoints;
+		}
+
+		public LinearPieceWiseFunction getFunction() {
+			return function;
+		}
+
+		/**
+		 * @return The largest vertical distance between the original function and
+		 *         the approximation
+		 */
+		public double getMaximumError() {
+			return maximumError;
+		}
+
+		/**
+		 * @return The datapoints of the original function minus the datapoints of the
+		 *         approximation
+		 */
+		public int getRemovedBreakpoints() {
+			return removedBreakpoints;
+		}
+
+		@Override
+		public String toString() {
+			return "Approximation [maximumError=" + maximumError + ", removedBreakpoints=" + removedBreakpoints
+					+ ", function=" + function + "]";
+		}
+
+	}
+
+	private FunctionApproximation() {
+		super();
+	}
+
+	/**
+	 * Samples the function in a grid of equally spaced x, from the first to the
+	 * last datapoint. Functions with fewer datapoints than the grid are not
+	 * modified.
+	 * 
+	 * @param breakpoints Points of the grid, at least 2
+	 * @throws FunctionOperationException
+	 */
+	public static Approximation ResampleOnGrid(LinearPieceWiseFunction function, int breakpoints)
+			throws FunctionOperationException {
+		CheckBreakpoints(breakpoints);
+		LinearPieceWiseFunctionDataPoints points = LinearPiecewiseFunctionImpl.PointsOf(function);
+		int size = points.size();
+		if (size <= breakpoints) {
+			return new Approximation(function, 0.0, 0);
+		}
+
+		double start = points.getX(0);
+		double end = points.getX(size - 1);
+		double[] grid = new double[breakpoints];
+		for (int i = 0; i < breakpoints; i++) {
+			grid[i] = start + (end - start) * ((double) i / (breakpoints - 1));
+		}
+		// The last x exactly, to keep the domain
+		grid[breakpoints - 1] = end;
+		double[] values = new double[breakpoints];
+		function.getValuesAt(grid, values);
+		LinearPieceWiseFunctionDataPoints sampled = new LinearPieceWiseFunctionDataPoints(breakpoints);
+		for (int i = 0; i < breakpoints; i++) {
+			sampled.add(grid[i], values[i]);
+		}
+		ImmutableLinearPiecewiseFunction approximation = ImmutableLinearPiecewiseFunction.CopyOfInOrder(sampled);
+
+		// Distance at the datapoints of the function, including all the values of its
+		// discontinuities
+		double[] xs = new double[size];
+		for (int i = 0; i < size; i++) {
+			xs[i] = points.getX(i);
+		}
+		double[] approximatedValues = new double[size];
+		approximation.getValuesAt(xs, approximatedValues);
+		double maximumError = 0.0;
+		for (int i = 0; i < size; i++) {
+			maximumError = Math.max(maximumError, Math.abs(points.getY(i) - approximatedValues[i]));
+		}
+		return new Approximation(approximation, maximumError, size - breakpoints);
+	}
+
+	/**
+	 * Keeps the datapoints of the function that reduce the error the most, adding
+	 * one at a time the datapoint farthest from the current approximation until
+	 * there are maxBreakpoints or the rest are within the tolerance.
+	 * 
+	 * @param maxBreakpoints At least 2
+	 * @throws FunctionOperationException
+	 */
+	public static Approximation SimplifyToBreakpoints(LinearPieceWiseFunction function, int maxBreakpoints)
+			throws FunctionOperationException {
+		CheckBreakpoints(maxBreakpoints);
+		LinearPieceWiseFunctionDataPoints points = LinearPiecewiseFunctionImpl.PointsOf(function);
+		int size = points.size();
+		if (size <= 2) {
+			return new Approximation(function, 0.0, 0);
+		}
+
+		boolean[] kept = new boolean[size];
+		kept[0] = true;
+		kept[size - 1] = true;
+		int keptCount = 2;
+		// Next kept datapoint after each position
+		int[] nextKept = new int[size];
+		double maximumError;
+		while (true) {
+			int next = size - 1;
+			for (int k = size - 1; k >= 0; k--) {
+				nextKept[k] = next;
+				if (kept[k]) {
+					next = k;
+				}
+			}
+			int farthest = -1;
+			maximumError = 0.0;
+			int previousKept = 0;
+			for (int k = 1; k < size - 1; k++) {
+				if (kept[k]) {
+					previousKept = k;
+					continue;
+				}
+				double distance = VerticalDistance(points, previousKept, nextKept[k], k);
+				if (distance > maximumError) {
+					maximumError = distance;
+					farthest = k;
+				}
+			}
+			if (farthest < 0 || maximumError <= LinearPieceWiseFunction.TOLERANCE || keptCount == maxBreakpoints) {
+				break;
+			}
+			kept[farthest] = true;
+			keptCount++;
+		}
+
+		if (keptCount == size) {
+			return new Approximation(function, 0.0, 0);
+		}
+		LinearPieceWiseFunctionDataPoints simplified = new LinearPieceWiseFunctionDataPoints(keptCount);
+		for (int k = 0; k < size; k++) {
+			if (kept[k]) {
+				simplified.add(points.getX(k), points.getY(k));
+			}
+		}
+		return new Approximation(ImmutableLinearPiecewiseFunction.CopyOfInOrder(simplified), maximumError,
+				size - keptCount);
+	}
+
+	/**
+	 * Removes the datapoints that are within epsilon of the simplified function,
+	 * with the Douglas-Peucker algorithm on the vertical distance. The datapoints
+	 * where the function enters or leaves its maximum value or 0 are always kept,
+	 * so the core and the support of a fuzzy number or boolean do not move.
+	 * 
+	 * Between those datapoints, the farthest datapoint from the line between the
+	 * kept ones is kept while it is farther than epsilon. With epsilon 0 only the
+	 * collinear datapoints are removed. Between two kept datapoints both at 0 or
+	 * both at the maximum value, the farthest datapoint from that level is always
+	 * kept, e.g., a low peak between two parts of the support of a fuzzy boolean
+	 * with several peaks, so that the support and the core do not grow.
+	 * 
+	 * @param epsilon Largest vertical distance allowed, not negative
+	 * @throws FunctionOperationException
+	 */
+	public static Approximation Simplify(LinearPieceWiseFunction function, double epsilon)
+			throws FunctionOperationException {
+		if (!(epsilon >= 0.0)) {
+			throw new IllegalArgumentException("The error of a simplification cannot be negative: " + epsilon);
+		}
+		LinearPieceWiseFunctionDataPoints points = LinearPiecewiseFunctionImpl.PointsOf(function);
+		int size = points.size();
+		if (size <= 2) {
+			return new Approximation(function, 0.0, 0);
+		}
+
+		boolean[] kept = new boolean[size];
+		double top = MarkLevelBoundaries(points, kept);
+		double threshold = Math.max(epsilon, LinearPieceWiseFunction.TOLERANCE);
+		// Pending ranges between kept datapoints, as pairs of indexes
+		int[] ranges = new int[2 * size];
+		int pending = 0;
+		int previousKept = 0;
+		for (int k = 1; k < size; k++) {
+			if (kept[k]) {
+				if (k - previousKept > 1) {
+					ranges[pending++] = previousKept;
+					ranges[pending++] = k;
+				}
+				previousKept = k;
+			}
+		}
+		double maximumError = 0.0;
+		int keptCount = 0;
+		while (pending > 0) {
+			int right = ranges[--pending];
+			int left = ranges[--pending];
+			int farthest = -1;
+			double farthestDistance = 0.0;
+			for (int k = left + 1; k < right; k++) {
+				double distance = VerticalDistance(points, left, right, k);
+				if (distance > farthestDistance) {
+					farthestDistance = distance;
+					farthest = k;
+				}
+			}
+			// The line between two datapoints at the same level is that level
+			boolean levelRange = DoubleMath.fuzzyEquals(points.getY(left), points.getY(right),
+					LinearPieceWiseFunction.TOLERANCE)
+					&& (DoubleMath.fuzzyEquals(points.getY(left), 0.0, LinearPieceWiseFunction.TOLERANCE)
+							|| DoubleMath.fuzzyEquals(points.getY(left), top, LinearPieceWiseFunction.TOLERANCE));
+			if (farthest < 0 || farthestDistance <= (levelRange ? LinearPieceWiseFunction.TOLERANCE : threshold)) {
+				maximumError = Math.max(maximumError, farthestDistance);
+				continue;
+			}
+			kept[farthest] = true;
+			if (farthest - left > 1) {
+				ranges[pending++] = left;
+				ranges[pending++] = farthest;
+			}
+			if (right - farthest > 1) {
+				ranges[pending++] = farthest;
+				ranges[pending++] = right;
+			}
+		}
+
+		for (int k = 0; k < size; k++) {
+			if (kept[k]) {
+				keptCount++;
+			}
+		}
+		if (keptCount == size) {
+			return new Approximation(function, 0.0, 0);
+		}
+		LinearPieceWiseFunctionDataPoints simplified = new LinearPieceWiseFunctionDataPoints(keptCount);
+		for (int k = 0; k < size; k++) {
+			if (kept[k]) {
+				simplified.add(points.getX(k), points.getY(k));
+			}
+		}
+		if (Logger.isDebugEnabled()) {
+			Logger.debug("Function of {} datapoints simplified with epsilon {} to {} datapoints with maximum error {}",
+					size, epsilon, keptCount, maximumError);
+		}
+		return new Approximation(ImmutableLinearPiecewiseFunction.CopyOfInOrder(simplified), maximumError,
+				size - keptCount);
+	}
+
+	/**
+	 * Marks the first and the last datapoints and those where the function enters
+	 * or leaves 0 or its maximum value, which delimit the support and the core
+	 * 
+	 * @return The maximum value
+	 */
+	private static double MarkLevelBoundaries(LinearPieceWiseFunctionDataPoints points, boolean[] kept) {
+		int size = points.size();
+		double top = -Double.MAX_VALUE;
+		for (int k = 0; k < size; k++) {
+			top = Math.max(top, points.getY(k));
+		}
+		kept[0] = true;
+		kept[size - 1] = true;
+		for (int k = 1; k < size - 1; k++) {
+			kept[k] = IsLevelBoundary(points, k, 0.0) || IsLevelBoundary(points, k, top);
+		}
+		return top;
+	}
+
+	private static boolean IsLevelBoundary(LinearPieceWiseFunctionDataPoints points, int k, double level) {
+		return DoubleMath.fuzzyEquals(points.getY(k), level, LinearPieceWiseFunction.TOLERANCE)
+				&& (!DoubleMath.fuzzyEquals(points.getY(k - 1), level, LinearPieceWiseFunction.TOLERANCE)
+						|| !DoubleMath.fuzzyEquals(points.getY(k + 1), level, LinearPieceWiseFunction.TOLERANCE));
+	}
+
+	/**
+	 * @return The vertical distance from the datapoint k to the segment between
+	 *         the datapoints i and j, with i < k < j. If the segment is vertical, the
+	 *         distance to the nearest of its y values
+	 */
+	static double VerticalDistance(LinearPieceWiseFunctionDataPoints points, int i, int j, int k) {
+		double y = points.getY(k);
+		double leftX = points.getX(i), leftY = points.getY(i), rightX = points.getX(j), rightY = points.getY(j);
+		if (Double.compare(leftX, rightX) == 0) {
+			double low = Math.min(leftY, rightY);
+			double high = Math.max(leftY, rightY);
+			return y < low ? low - y : (y > high ? y - high : 0.0);
+		}
+		double x = Math.min(Math.max(points.getX(k), leftX), rightX);
+		return Math.abs(y - (leftY + (x - leftX) * ((rightY - leftY) / (rightX - leftX))));
+	}
+
+	private static void CheckBreakpoints(int breakpoints) {
+		if (breakpoints < 2) {
+			throw new IllegalArgumentException("An approximation needs at least 2 breakpoints: " + breakpoints);
+		}
+	}
+
+}
@@ -30,10 +30,20 @@ import se.lnu.eres.fuzzy.functions.exceptions.FuzzyOperationException;
 
 public class FuzzyBooleanImpl extends FuzzyNumberImpl implements FuzzyBoolean {
 
+	private double approximationError = 0.0;
+
 	public FuzzyBooleanImpl(LinearPieceWiseFunction function) {
 		super(function);
 	}
 
+	/**
+	 * @param approximationError See {@link #getApproximationError()}
+	 */
+	public FuzzyBooleanImpl(LinearPieceWiseFunction function, double approximationError) {
+		super(function);
+		this.approximationError = approximationError;
+	}
+
 	public FuzzyBooleanImpl() {
 		super();
 	}
@@ -57,6 +67,11 @@ public class FuzzyBooleanImpl extends FuzzyNumberImpl implements FuzzyBoolean {
 
 	}
 
+	@Override
+	public double getApproximationError() {
+		return approximationError;
+	}
+
 	@Override
 	public String toString() {
 		return "AbstractFuzzyBoolean [function=" + function + "]";
@@ -135,7 +135,7 @@ public class FuzzyNumberImpl extends AbstractFuzzyNumber implements FuzzyNumber
 			return new ImmutablePair<Double, Double>(coreLeft, coreRight);
 		}
 
-		Logger.warn("There was not found a Core for the following fuzzy number {}", points.toString());
+		Logger.warn("There was not found a Core for the following fuzzy number {}", points);
 		throw new FuzzyOperationException("There was not found Core for the fuzzy number " + points.toString());
 	}
 
@@ -0,0 +1,154 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.functions.impl;
+
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+
+/**
+ * A piecewise function whose points cannot change after it is built. The
+ * points are sorted and validated once by the {@link Builder}, and the index of
+ * maximum values is built with them, so the function can be shared by several
+ * goals, goal models and threads without copying it.
+ * 
+ * The methods that would modify the function throw
+ * UnsupportedOperationException, and {@link #getDatapoints()} returns a copy of
+ * the points.
+ */
+public final class ImmutableLinearPiecewiseFunction extends LinearPiecewiseFunctionImpl {
+
+	private final RangeMaximumIndex maximumIndex;
+
+	private ImmutableLinearPiecewiseFunction(LinearPieceWiseFunctionDataPoints points) {
+		super(points);
+		this.maximumIndex = new RangeMaximumIndex(points);
+	}
+
+	/**
+	 * @return An immutable function with the points of the given function, or the
+	 *         same function if it was already immutable
+	 * @throws FunctionOperationException if the function has invalid points
+	 */
+	public static ImmutableLinearPiecewiseFunction CopyOf(LinearPieceWiseFunction function)
+			throws FunctionOperationException {
+		if (function instanceof ImmutableLinearPiecewiseFunction) {
+			return (ImmutableLinearPiecewiseFunction) function;
+		}
+		return CopyOf(function.getDatapoints());
+	}
+
+	/**
+	 * @return An immutable function with a copy of the given points, in arrays of
+	 *         their exact size. The points can be in any order and modifying them
+	 *         afterwards does not modify the function
+	 * @throws FunctionOperationException if some point is NaN
+	 */
+	public static ImmutableLinearPiecewiseFunction CopyOf(LinearPieceWiseFunctionDataPoints points)
+			throws FunctionOperationException {
+		LinearPieceWiseFunctionDataPoints sortedPoints = new LinearPieceWiseFunctionDataPoints(points);
+		for (int i = 0; i < sortedPoints.size(); i++) {
+			if (Double.isNaN(sortedPoints.getX(i)) || Double.isNaN(sortedPoints.getY(i))) {
+				throw new FunctionOperationException(
+						"Point " + sortedPoints.get(i) + " is not valid for a piecewise function");
+			}
+		}
+		sortedPoints.sortByX();
+		return new ImmutableLinearPiecewiseFunction(sortedPoints);
+	}
+
+	/**
+	 * @return An immutable function with a copy of the given points in their
+	 *         current order, in arrays of their exact size. It is meant for the
+	 *         results of operations, whose points are already in order within the
+	 *         tolerance and must not be reordered
+	 */
+	public static ImmutableLinearPiecewiseFunction CopyOfInOrder(LinearPieceWiseFunctionDataPoints points) {
+		return new ImmutableLinearPiecewiseFunction(new LinearPieceWiseFunctionDataPoints(points));
+	}
+
+	@Override
+	public void addPoint(double x, double y) {
+		throw new UnsupportedOperationException("Points cannot be added to an immutable function");
+	}
+
+	@Override
+	public void simplifyPiecewiseFunction() throws FunctionOperationException {
+		throw new UnsupportedOperationException(
+				"An immutable function cannot be simplified. Use simplified() to create a simplified copy");
+	}
+
+	/**
+	 * @return A new immutable function without the intermediate points that lie on
+	 *         the line between their neighbors (see
+	 *         {@link #simplifyPiecewiseFunction()})
+	 */
+	public ImmutableLinearPiecewiseFunction simplified() throws FunctionOperationException {
+		LinearPieceWiseFunctionDataPoints copy = new LinearPieceWiseFunctionDataPoints(points);
+		copy.removeIntermediatePoitnsForLinearFunctions();
+		return new ImmutableLinearPiecewiseFunction(copy);
+	}
+
+	/**
+	 * @return A copy of the points of the function. Modifying it does not modify
+	 *         the function
+	 */
+	@Override
+	public LinearPieceWiseFunctionDataPoints getDatapoints() {
+		return new LinearPieceWiseFunctionDataPoints(points);
+	}
+
+	@Override
+	public RangeMaximumIndex getRangeMaximumIndex() {
+		return maximumIndex;
+	}
+
+	@Override
+	public String toString() {
+		return "ImmutableLinearPiecewiseFunction [points=" + points.toString() + "]";
+	}
+
+	/**
+	 * Collects the points of an immutable function. The points can be added in any
+	 * order; points with the same x (discontinuities) keep the order in which they
+	 * were added, as in {@link LinearPiecewiseFunctionImpl#addPoint(double, double)}.
+	 */
+	public static class Builder {
+
+		private final LinearPieceWiseFunctionDataPoints points = new LinearPieceWiseFunctionDataPoints();
+
+		public Builder addPoint(double x, double y) {
+			points.add(x, y);
+			return this;
+		}
+
+		/**
+		 * @return A new immutable function with the points added so far. The builder
+		 *         can still be used to build other functions
+		 * @throws FunctionOperationException if some point is NaN
+		 */
+		public ImmutableLinearPiecewiseFunction build() throws FunctionOperationException {
+			return CopyOf(points);
+		}
+
+	}
+
+}
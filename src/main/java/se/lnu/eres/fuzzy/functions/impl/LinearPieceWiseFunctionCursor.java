@@ -0,0 +1,165 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.functions.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.math.DoubleMath;
+
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+
+/**
+ * Answers the queries of {@link LinearPiecewiseFunctionImpl} (values at x and
+ * largest values before or after x) for a sequence of non-decreasing x values,
+ * as the ones produced when walking the collated breakpoints of two functions.
+ * 
+ * Instead of traversing the whole function in each query, the cursor keeps the
+ * positions of the last x in the sorted datapoints and only moves them forward,
+ * and it answers the largest values with the prefix and suffix maximums of a
+ * {@link RangeMaximumIndex}. A
+ * walk over n points of interest therefore costs O(n + size of the function).
+ * If a query goes back to a lower x, the cursor starts again from the
+ * beginning, so the results are always correct.
+ * 
+ * The cursor assumes that the datapoints are sorted by x and that they are not
+ * modified while it is used.
+ */
+public class LinearPieceWiseFunctionCursor {
+
+	private final LinearPieceWiseFunctionDataPoints points;
+	private final int size;
+	private final RangeMaximumIndex maximumIndex;
+
+	private double currentX = Double.NEGATIVE_INFINITY;
+	// First position whose x is, within the tolerance, equal or larger than the
+	// current x
+	private int firstNotLower = 0;
+	// First position whose x is, within the tolerance, larger than the current x
+	private int firstLarger = 0;
+	// First position whose x is exactly equal or larger than the current x
+	private int firstExactNotLower = 0;
+	// First position whose x is exactly larger than the current x
+	private int firstExactLarger = 0;
+
+	public LinearPieceWiseFunctionCursor(LinearPieceWiseFunction function) {
+		this(LinearPiecewiseFunctionImpl.PointsOf(function), function.getRangeMaximumIndex());
+	}
+
+	public LinearPieceWiseFunctionCursor(LinearPieceWiseFunctionDataPoints points) {
+		this(points, new RangeMaximumIndex(points));
+	}
+
+	private LinearPieceWiseFunctionCursor(LinearPieceWiseFunctionDataPoints points, RangeMaximumIndex maximumIndex) {
+		super();
+		this.points = points;
+		this.size = points.size();
+		this.maximumIndex = maximumIndex;
+	}
+
+	/**
+	 * Same as {@link LinearPieceWiseFunction#getValueAt(double)}
+	 */
+	public double getValueAt(double x) throws FunctionOperationException {
+		moveTo(x);
+		if (DoubleMath.fuzzyEquals(x, points.getX(0), LinearPieceWiseFunction.TOLERANCE)) {
+			return points.getY(0);
+		}
+		int right = Math.max(firstNotLower, 1);
+		if (right >= size
+				|| DoubleMath.fuzzyCompare(points.getX(right - 1), x, LinearPieceWiseFunction.TOLERANCE) > 0) {
+			// Not found. Let the datapoints report the error
+			points.getIntervalIndexContaining(x);
+		}
+		return points.getYInInterval(right - 1, x);
+	}
+
+	/**
+	 * Same as {@link LinearPieceWiseFunction#getValuesAt(double)}
+	 */
+	public List<Double> getValuesAt(double x) throws FunctionOperationException {
+		moveTo(x);
+		if (firstLarger - firstNotLower > 1) {
+			// Discontinuity point
+			List<Double> result = new ArrayList<Double>(firstLarger - firstNotLower);
+			for (int i = firstNotLower; i < firstLarger; i++) {
+				result.add(points.getY(i));
+			}
+			return result;
+		}
+		return Arrays.asList(getValueAt(x));
+	}
+
+	/**
+	 * Same as {@link LinearPieceWiseFunction#getLargestValueAfterX(double, boolean)}
+	 */
+	public double getLargestValueAfterX(double x, boolean approachFromLeft) throws FunctionOperationException {
+		if (approachFromLeft) {
+			double valueAtX = getValueAt(x);
+			return RangeMaximumIndex.Largest(valueAtX, maximumIndex.getSuffixMax(firstExactNotLower));
+		}
+		moveTo(x);
+		// If x is a discontinuity point, only the rightmost value is eligible
+		double max = (firstLarger > firstNotLower) ? points.getY(firstLarger - 1) : -Double.MAX_VALUE;
+		return RangeMaximumIndex.Largest(max, maximumIndex.getSuffixMax(firstLarger));
+	}
+
+	/**
+	 * Same as {@link LinearPieceWiseFunction#getLargestValueBeforeX(double, boolean)}
+	 */
+	public double getLargestValueBeforeX(double x, boolean approachFromLeft) throws FunctionOperationException {
+		double valueAtX = getValueAt(x);
+		if (approachFromLeft) {
+			return RangeMaximumIndex.Largest(valueAtX, maximumIndex.getPrefixMax(firstExactNotLower));
+		}
+		return RangeMaximumIndex.Largest(valueAtX, maximumIndex.getPrefixMax(firstExactLarger));
+	}
+
+	private void moveTo(double x) {
+		if (x < currentX) {
+			firstNotLower = 0;
+			firstLarger = 0;
+			firstExactNotLower = 0;
+			firstExactLarger = 0;
+		}
+		currentX = x;
+		while (firstNotLower < size
+				&& DoubleMath.fuzzyCompare(points.getX(firstNotLower), x, LinearPieceWiseFunction.TOLERANCE) < 0) {
+			firstNotLower++;
+		}
+		firstLarger = Math.max(firstLarger, firstNotLower);
+		while (firstLarger < size
+				&& DoubleMath.fuzzyCompare(points.getX(firstLarger), x, LinearPieceWiseFunction.TOLERANCE) <= 0) {
+			firstLarger++;
+		}
+		while (firstExactNotLower < size && points.getX(firstExactNotLower) < x) {
+			firstExactNotLower++;
+		}
+		firstExactLarger = Math.max(firstExactLarger, firstExactNotLower);
+		while (firstExactLarger < size && points.getX(firstExactLarger) <= x) {
+			firstExactLarger++;
+		}
+	}
+
+}
@@ -21,12 +21,13 @@
  */
 package se.lnu.eres.fuzzy.functions.impl;
 
+import java.nio.DoubleBuffer;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Objects;
+import java.util.NoSuchElementException;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.logging.log4j.LogManager;
@@ -37,73 +38,194 @@ import com.google.common.math.DoubleMath;
 import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
 import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
 
+/**
+ * Sorted datapoints <x,y> of a linear piecewise function.
+ * 
+ * The points are stored in two parallel primitive arrays (xs and ys) and a size
+ * counter, so no object is created per point. The methods that work with
+ * {@link ImmutablePair} are kept as an adapter for the callers that still
+ * iterate over pairs; new code should use {@link #getX(int)},
+ * {@link #getY(int)} and {@link #add(double, double)} instead.
+ */
 public class LinearPieceWiseFunctionDataPoints implements Iterable<ImmutablePair<Double, Double>> {
 
 	private static final Logger Logger = LogManager.getLogger(LinearPieceWiseFunctionDataPoints.class.getSimpleName());
 
-	private List<ImmutablePair<Double, Double>> datapoints;
+	private static final int DEFAULT_CAPACITY = 8;
+
+	private double[] xs;
+	private double[] ys;
+	private int size;
+	// Incremented in every modification, so that indexes built over the
+	// datapoints know when they are outdated
+	private int modificationCount;
 
+	/**
+	 * @return A read-only view of the datapoints as pairs <x,y>. Each access to an
+	 *         element of the view creates a new pair.
+	 */
 	public List<ImmutablePair<Double, Double>> getDatapoints() {
-		return datapoints;
+		return new AbstractList<ImmutablePair<Double, Double>>() {
+
+			@Override
+			public ImmutablePair<Double, Double> get(int index) {
+				return LinearPieceWiseFunctionDataPoints.this.get(index);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
 	}
 
 	public LinearPieceWiseFunctionDataPoints() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public LinearPieceWiseFunctionDataPoints(int initialCapacity) {
 		super();
-		datapoints = new ArrayList<ImmutablePair<Double, Double>>();
+		xs = new double[Math.max(initialCapacity, 1)];
+		ys = new double[Math.max(initialCapacity, 1)];
+		size = 0;
 	}
 
-	public LinearPieceWiseFunctionDataPoints(List<ImmutablePair<Double, Double>> datapoints) {
+	/**
+	 * Copy of the given datapoints
+	 */
+	public LinearPieceWiseFunctionDataPoints(LinearPieceWiseFunctionDataPoints other) {
 		super();
-		this.datapoints = datapoints;
+		xs = Arrays.copyOf(other.xs, Math.max(other.size, 1));
+		ys = Arrays.copyOf(other.ys, Math.max(other.size, 1));
+		size = other.size;
+	}
+
+	public LinearPieceWiseFunctionDataPoints(List<ImmutablePair<Double, Double>> datapoints) {
+		this(datapoints.size());
+		for (ImmutablePair<Double, Double> point : datapoints) {
+			add(point);
+		}
 	}
 
 	public LinearPieceWiseFunctionDataPoints(ImmutablePair<Double, Double>... points) {
-		this();
+		this(points.length);
 		for (ImmutablePair<Double, Double> point : points) {
-			datapoints.add(point);
+			add(point);
 		}
 	}
 
 	public void add(ImmutablePair<Double, Double> point) {
-		datapoints.add(point);
+		add(point.getLeft(), point.getRight());
+
+	}
 
+	public void add(double x, double y) {
+		ensureCapacity(size + 1);
+		xs[size] = x;
+		ys[size] = y;
+		size++;
+		modificationCount++;
 	}
 
 	public int size() {
-		return datapoints.size();
+		return size;
 	}
 
-	public ImmutablePair<Double, Double> get(int i) {
+	/**
+	 * Removes all the datapoints, keeping the arrays to add new ones
+	 */
+	public void clear() {
+		size = 0;
+		modificationCount++;
+	}
+
+	/**
+	 * @return A counter that changes every time the datapoints are modified
+	 */
+	public int getModificationCount() {
+		return modificationCount;
+	}
+
+	public double getX(int i) {
+		checkIndex(i);
+		return xs[i];
+	}
 
-		return datapoints.get(i);
+	public double getY(int i) {
+		checkIndex(i);
+		return ys[i];
+	}
+
+	public ImmutablePair<Double, Double> get(int i) {
+		checkIndex(i);
+		return new ImmutablePair<Double, Double>(xs[i], ys[i]);
 	}
 
 	public ImmutablePair<Double, Double> remove(int i) {
-		return datapoints.remove(i);
+		ImmutablePair<Double, Double> removed = get(i);
+		System.arraycopy(xs, i + 1, xs, i, size - i - 1);
+		System.arraycopy(ys, i + 1, ys, i, size - i - 1);
+		size--;
+		modificationCount++;
+		return removed;
 	}
 
 	public void add(int i, ImmutablePair<Double, Double> point) {
-		datapoints.add(i, point);
+		add(i, point.getLeft(), point.getRight());
+
+	}
 
+	public void add(int i, double x, double y) {
+		if (i < 0 || i > size) {
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+		}
+		ensureCapacity(size + 1);
+		System.arraycopy(xs, i, xs, i + 1, size - i);
+		System.arraycopy(ys, i, ys, i + 1, size - i);
+		xs[i] = x;
+		ys[i] = y;
+		size++;
+		modificationCount++;
 	}
 
 	@Override
 	public Iterator<ImmutablePair<Double, Double>> iterator() {
-		return datapoints.iterator();
+		return new Iterator<ImmutablePair<Double, Double>>() {
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			@Override
+			public ImmutablePair<Double, Double> next() {
+				if (next >= size) {
+					throw new NoSuchElementException();
+				}
+				return get(next++);
+			}
+		};
 	}
 
 	public ImmutablePair<Double, Double> getFirst() {
-		return datapoints.getFirst();
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return get(0);
 	}
 
 	public ImmutablePair<Double, Double> getLast() {
-		return datapoints.getLast();
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return get(size - 1);
 	}
 
 	public List<Double> getXpoints() {
-		List<Double> xPoints = new ArrayList<Double>();
-		for (ImmutablePair<Double, Double> p : datapoints) {
-			xPoints.add(p.getLeft());
+		List<Double> xPoints = new ArrayList<Double>(size);
+		for (int i = 0; i < size; i++) {
+			xPoints.add(xs[i]);
 		}
 		return xPoints;
 	}
@@ -116,61 +238,273 @@ public class LinearPieceWiseFunctionDataPoints implements Iterable<ImmutablePair
 	 * @throws FunctionOperationException
 	 */
 	public LinearPieceWiseFunctionDataPoints getIntervalContaining(double point) throws FunctionOperationException {
+		return getInterval(getIntervalIndexContaining(point));
+	}
 
-		ImmutablePair<Double, Double> left = null;
-		boolean isLeftSet = false;
+	public LinearPieceWiseFunctionDataPoints getIntervalApproachingFromRightContaining(double point)
+			throws FunctionOperationException {
+		return getInterval(getIntervalIndexApproachingFromRightContaining(point));
+	}
 
-		for (ImmutablePair<Double, Double> right : datapoints) {
-			if (!isLeftSet) {
-				left = right;
-				isLeftSet = true;
-			} else {
-				if (DoubleMath.fuzzyCompare(left.getLeft(), point, LinearPieceWiseFunction.TOLERANCE) <= 0
-						&& DoubleMath.fuzzyCompare(right.getLeft(), point, LinearPieceWiseFunction.TOLERANCE) >= 0) {
+	/**
+	 * Binary search version of {@link #getIntervalContaining(double)} that does
+	 * not create the interval. It assumes that the datapoints are sorted by x.
+	 * 
+	 * @param point
+	 * @return The index i of the first interval [datapoint_i, datapoint_i+1] that
+	 *         contains the x value of the point
+	 * @throws FunctionOperationException
+	 */
+	public int getIntervalIndexContaining(double point) throws FunctionOperationException {
+		// The first interval is the one that finishes in the first datapoint (from
+		// the second one) whose x is not lower than the point
+		int right = findFirstXNotLowerThan(point, 1);
+		if (right < size
+				&& DoubleMath.fuzzyCompare(xs[right - 1], point, LinearPieceWiseFunction.TOLERANCE) <= 0) {
+			return right - 1;
+		}
+		throw new FunctionOperationException(
+				"Interval for point " + point + " was not found in dataset=" + getDatapoints().toString());
+	}
 
-					return new LinearPieceWiseFunctionDataPoints(left, right);
+	/**
+	 * Binary search version of
+	 * {@link #getIntervalApproachingFromRightContaining(double)} that does not
+	 * create the interval. It assumes that the datapoints are sorted by x.
+	 * 
+	 * @param point
+	 * @return The index i of the last interval [datapoint_i, datapoint_i+1] that
+	 *         contains the x value of the point
+	 * @throws FunctionOperationException
+	 */
+	public int getIntervalIndexApproachingFromRightContaining(double point) throws FunctionOperationException {
+		if (size < 2) {
+			throw new FunctionOperationException("Size of datapoints is not large enough to create an interval");
+		}
+		// The last interval is the one that starts in the last datapoint (up to the
+		// one before the last) whose x is not larger than the point
+		int left = findFirstXLargerThan(point, 0, size - 1) - 1;
+		if (left >= 0 && DoubleMath.fuzzyCompare(xs[left + 1], point, LinearPieceWiseFunction.TOLERANCE) >= 0) {
+			return left;
+		}
+		throw new FunctionOperationException(
+				"Interval for point " + point + " was not found in dataset=" + getDatapoints().toString());
+	}
 
+	/**
+	 * @return The first index in [from,size) whose x is, within the tolerance,
+	 *         equal or larger than the point; size if there is none
+	 */
+	int findFirstXNotLowerThan(double point, int from) {
+		int low = from, high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (DoubleMath.fuzzyCompare(xs[middle], point, LinearPieceWiseFunction.TOLERANCE) >= 0) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
 
-				}
+	/**
+	 * @return The first index in [from,to) whose x is, within the tolerance,
+	 *         larger than the point; to if there is none
+	 */
+	int findFirstXLargerThan(double point, int from, int to) {
+		int low = from, high = to;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (DoubleMath.fuzzyCompare(xs[middle], point, LinearPieceWiseFunction.TOLERANCE) > 0) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
 
-				left = right;
+	/**
+	 * @return The first index whose x is exactly equal or larger than the point;
+	 *         size if there is none
+	 */
+	int findFirstXExactlyNotLowerThan(double point) {
+		int low = 0, high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (xs[middle] >= point) {
+				high = middle;
+			} else {
+				low = middle + 1;
 			}
 		}
+		return low;
+	}
 
-		throw new FunctionOperationException(
-				"Interval for point " + point + " was not found in dataset=" + datapoints.toString());
+	/**
+	 * @return The first index whose x is exactly larger than the point; size if
+	 *         there is none
+	 */
+	int findFirstXExactlyLargerThan(double point) {
+		int low = 0, high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (xs[middle] > point) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
 
+	/**
+	 * The y value at x in the interval [datapoint_i, datapoint_i+1]. If the
+	 * interval has 0 length (a discontinuity), it returns the y of the right
+	 * datapoint, which is the one that continues the function for larger x values.
+	 * 
+	 * The intervals are looked up with tolerance, so x can be slightly outside of
+	 * the interval. In that case, the y of the closest datapoint is returned
+	 * instead of extrapolating the line, which in steep intervals would give values
+	 * out of the range of the function.
+	 * 
+	 * @param i The index of the left datapoint of the interval
+	 * @param x
+	 * @return
+	 */
+	public double getYInInterval(int i, double x) {
+		checkIndex(i + 1);
+		return GetY(xs[i], ys[i], xs[i + 1], ys[i + 1], Math.min(Math.max(x, xs[i]), xs[i + 1]));
 	}
 
-	public LinearPieceWiseFunctionDataPoints getIntervalApproachingFromRightContaining(double point)
-			throws FunctionOperationException {
-		if (datapoints.size() < 2) {
-			throw new FunctionOperationException("Size of datapoints is not large enough to create an interval");
+	/**
+	 * The value of the function at each of the x, the same as
+	 * {@link LinearPiecewiseFunctionImpl#getValueAt(double)}. It assumes that the
+	 * datapoints are sorted by x.
+	 * 
+	 * The intervals are located first and then the values are interpolated in a
+	 * separate loop without calls, which the JIT compiler can unroll and
+	 * vectorize. If the x are sorted, the intervals are located in a single walk
+	 * over the datapoints, otherwise each one with a binary search.
+	 * 
+	 * @param x   The points to evaluate
+	 * @param out Receives the value at x[i] in out[i]. It can be x itself
+	 * @throws FunctionOperationException If an x is out of the datapoints
+	 */
+	public void getYsAt(double[] x, double[] out) throws FunctionOperationException {
+		int count = x.length;
+		if (out.length < count) {
+			throw new FunctionOperationException(
+					"The output has space for " + out.length + " values but there are " + count + " points");
+		}
+		if (count == 0) {
+			return;
+		}
+		if (size == 0) {
+			throw new FunctionOperationException("There are no datapoints to evaluate the function");
+		}
+		if (size == 1) {
+			for (int i = 0; i < count; i++) {
+				if (!DoubleMath.fuzzyEquals(x[i], xs[0], LinearPieceWiseFunction.TOLERANCE)) {
+					getIntervalIndexContaining(x[i]);
+				}
+				out[i] = ys[0];
+			}
+			return;
 		}
-		ImmutablePair<Double, Double> right = null;
-		ImmutablePair<Double, Double> left = datapoints.get(datapoints.size()-1);
-		for (int i=datapoints.size()-2; i>=0; i--) {
-			right = left;
-			left= datapoints.get(i);
-			if (DoubleMath.fuzzyCompare(left.getLeft(), point, LinearPieceWiseFunction.TOLERANCE) <= 0
-					&& DoubleMath.fuzzyCompare(right.getLeft(), point, LinearPieceWiseFunction.TOLERANCE) >= 0) {
-				
-			//Found interval
-				return new LinearPieceWiseFunctionDataPoints(left, right);
+		// The left datapoint of the interval of each x, -1 for the first datapoint
+		int[] intervals = ScratchBuffers.ForCurrentThread().intervals(count);
+		boolean sorted = true;
+		for (int i = 1; i < count && sorted; i++) {
+			sorted = x[i - 1] <= x[i];
+		}
+		int right = 1;
+		for (int i = 0; i < count; i++) {
+			double point = x[i];
+			if (DoubleMath.fuzzyEquals(point, xs[0], LinearPieceWiseFunction.TOLERANCE)) {
+				intervals[i] = -1;
+				continue;
+			}
+			if (sorted) {
+				// Same as findFirstXNotLowerThan(point, 1), moving forward from the
+				// previous x
+				while (right < size && DoubleMath.fuzzyCompare(xs[right], point, LinearPieceWiseFunction.TOLERANCE) < 0) {
+					right++;
+				}
+			} else {
+				right = findFirstXNotLowerThan(point, 1);
+			}
+			if (right < size && DoubleMath.fuzzyCompare(xs[right - 1], point, LinearPieceWiseFunction.TOLERANCE) <= 0) {
+				intervals[i] = right - 1;
+			} else {
+				// Report the error as the single evaluation
+				intervals[i] = getIntervalIndexContaining(point);
 			}
 		}
-		throw new FunctionOperationException(
-				"Interval for point " + point + " was not found in dataset=" + datapoints.toString());
+
+		// Same arithmetic as getYInInterval
+		for (int i = 0; i < count; i++) {
+			int left = Math.max(intervals[i], 0);
+			double leftX = xs[left], leftY = ys[left], rightX = xs[left + 1], rightY = ys[left + 1];
+			double clamped = Math.min(Math.max(x[i], leftX), rightX);
+			double y = Double.compare(leftX, rightX) == 0 ? rightY : leftY + (clamped - leftX) * ((rightY - leftY) / (rightX - leftX));
+			out[i] = intervals[i] < 0 ? ys[0] : y;
+		}
+	}
+
+	static double GetY(double leftX, double leftY, double rightX, double rightY, double x) {
+		if (Double.compare(leftX, rightX) == 0) {
+			return rightY;
+		}
+		return leftY + (x - leftX) * ((rightY - leftY) / (rightX - leftX));
+	}
+
+	private LinearPieceWiseFunctionDataPoints getInterval(int left) {
+		LinearPieceWiseFunctionDataPoints interval = new LinearPieceWiseFunctionDataPoints(2);
+		interval.add(xs[left], ys[left]);
+		interval.add(xs[left + 1], ys[left + 1]);
+		return interval;
 	}
 
 	public void addAll(LinearPieceWiseFunctionDataPoints additionalData) {
-		datapoints.addAll(additionalData.datapoints);
+		ensureCapacity(size + additionalData.size);
+		System.arraycopy(additionalData.xs, 0, xs, size, additionalData.size);
+		System.arraycopy(additionalData.ys, 0, ys, size, additionalData.size);
+		size += additionalData.size;
+		modificationCount++;
+
+	}
 
+	/**
+	 * Replaces the datapoints with the count x values from the absolute index of
+	 * the buffer followed by the count y values. The values are copied in bulk into
+	 * the arrays, which are reused if they are large enough, and the position of
+	 * the buffer is not modified, so several threads can load from it.
+	 * 
+	 * @param buffer E.g., a view of a memory-mapped file
+	 */
+	public void load(DoubleBuffer buffer, int index, int count) {
+		ensureCapacity(count);
+		buffer.get(index, xs, 0, count);
+		buffer.get(index + count, ys, 0, count);
+		size = count;
+		modificationCount++;
 	}
 
 	@Override
 	public String toString() {
-		return "LinearPieceWiseFunctionDataPoints [datapoints=" + datapoints.toString() + "]";
+		return "LinearPieceWiseFunctionDataPoints [datapoints=" + getDatapoints().toString() + "]";
+	}
+
+	@Override
+	public int hashCode() {
+		int result = 1;
+		for (int i = 0; i < size; i++) {
+			result = 31 * result + Double.hashCode(xs[i]);
+			result = 31 * result + Double.hashCode(ys[i]);
+		}
+		return result;
 	}
 
 	@Override
@@ -182,105 +516,88 @@ public class LinearPieceWiseFunctionDataPoints implements Iterable<ImmutablePair
 		if (getClass() != obj.getClass())
 			return false;
 		LinearPieceWiseFunctionDataPoints other = (LinearPieceWiseFunctionDataPoints) obj;
-		return Objects.equals(datapoints, other.datapoints);
+		if (size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			// Same comparison as Double.equals
+			if (Double.compare(xs[i], other.xs[i]) != 0 || Double.compare(ys[i], other.ys[i]) != 0) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	public void sortByX() {
-		Collections.sort(datapoints, new XPointsComparator());
+		if (isSortedByX()) {
+			return;
+		}
+		ScratchBuffers buffers = ScratchBuffers.ForCurrentThread();
+		applyOrder(StableSortOrder(xs, size, buffers.order(size), buffers.mergeBuffer(size)), size, 1);
+
+	}
 
+	private boolean isSortedByX() {
+		for (int i = 1; i < size; i++) {
+			if (xs[i] < xs[i - 1]) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
 	 * This function assumes that the datapoints represent intervals in couples such
 	 * as: interval1= [datapoint0, datapoint1], interval2= [datapoint2,datapoint3]
 	 * ...
+	 * 
+	 * The intervals are sorted by the x of their first datapoint, keeping their
+	 * current order when they begin at the same x.
 	 */
 	public void sortByXRespectingIntervalCouples() {
-		// TODO Auto-generated method stub
-
-		List<ImmutablePair<Double, Double>> newdatapoints = new ArrayList<ImmutablePair<Double, Double>>();
-
-		while (datapoints.size() > 0) {
-			newdatapoints.addAll(removeLowestXStartingIntervalFromDatapoints());
-		}
-		datapoints = newdatapoints;
-	}
-
-	private List<ImmutablePair<Double, Double>> removeLowestXStartingIntervalFromDatapoints() {
-		int indexSmallestBeginningOfInterval = 0;
-		double smallestX = Double.MAX_VALUE;
-		for (int i = 0; i < datapoints.size(); i++) {
-			if ((i % 2) == 0) {// Beggining of interval
-				if (datapoints.get(i).getLeft() < smallestX) {
-					smallestX = datapoints.get(i).getLeft();
-					indexSmallestBeginningOfInterval = i;
-				}
-			}
+		int couples = size / 2;
+		ScratchBuffers buffers = ScratchBuffers.ForCurrentThread();
+		double[] startXs = buffers.keys(couples);
+		for (int i = 0; i < couples; i++) {
+			startXs[i] = xs[2 * i];
 		}
-		List<ImmutablePair<Double, Double>> result = new ArrayList<ImmutablePair<Double, Double>>();
-		result.addLast(remove(indexSmallestBeginningOfInterval + 1));
-		result.addFirst(remove(indexSmallestBeginningOfInterval));
-		return result;
-
-	}
-
-	class XPointsComparator implements Comparator<ImmutablePair<Double, Double>> {
-
-		@Override
-		public int compare(ImmutablePair<Double, Double> o1, ImmutablePair<Double, Double> o2) {
-			// Compares its two arguments for order. Returns a negative integer, zero, or a
-			// positive integer as the first argument is less than, equal to, or greater
-			// than the second.
-			if (o1.getLeft() < o2.getLeft()) {
-				return -1;
-			}
-			if (o1.getLeft().equals(o2.getLeft())) {
-				return 0;
-			} else
-				return 1;
-		}
-
+		// A datapoint without couple stays the last one
+		applyOrder(StableSortOrder(startXs, couples, buffers.order(couples), buffers.mergeBuffer(couples)), couples,
+				2);
 	}
 
 	public void retainLargestYforReplicatedX() {
 		// It asumes that the elements are sorted by X
-		List<ImmutablePair<Double, Double>> newDatapoints = new ArrayList<ImmutablePair<Double, Double>>();
-
-		int datapointsLength = datapoints.size();
-
-		while (datapointsLength > 0) {
-			double currentProcessingX = datapoints.getLast().getLeft();
-			double maxY = getMaximumYforCurrentX(currentProcessingX);
-
-			// Not good in terms of time complexity, to use addFist when the type is an
-			// ArrayList.
-			newDatapoints.addFirst(new ImmutablePair<Double, Double>(currentProcessingX, maxY));
-			removeXvaluesFromLast(currentProcessingX);
+		// Points are processed from the last, and the retained ones are written from
+		// the end of the arrays, in positions that have already been processed
+		int first = size;
+		int i = size - 1;
+		while (i >= 0) {
+			double currentProcessingX = xs[i];
+			double maxY = getMaximumYforCurrentX(currentProcessingX, i);
+			while (i >= 0 && DoubleMath.fuzzyEquals(xs[i], currentProcessingX, LinearPieceWiseFunction.TOLERANCE)) {
+				i--;
+			}
 
-			datapointsLength = datapoints.size();
+			first--;
+			xs[first] = currentProcessingX;
+			ys[first] = maxY;
 		}
 
-		datapoints = newDatapoints;
-
-	}
-
-	private void removeXvaluesFromLast(double currentProcessingX) {
-		// Removing from the last because it gives less room to make mess with the
-		// indices when iterating.
-		while (datapoints.size() > 0 && DoubleMath.fuzzyEquals(datapoints.getLast().getLeft(), currentProcessingX,
-				LinearPieceWiseFunction.TOLERANCE)) {
-			datapoints.removeLast();
-		}
+		size = size - first;
+		System.arraycopy(xs, first, xs, 0, size);
+		System.arraycopy(ys, first, ys, 0, size);
+		modificationCount++;
 
 	}
 
-	private double getMaximumYforCurrentX(double currentProcessingX) {
+	private double getMaximumYforCurrentX(double currentProcessingX, int last) {
 		double maxY = -Double.MAX_VALUE;
 
-		for (int i = datapoints.size() - 1; i >= 0; i--) {
-			if (datapoints.get(i).getLeft().equals(currentProcessingX)) {
-				if (datapoints.get(i).getRight() > maxY) {
-					maxY = datapoints.get(i).getRight();
+		for (int i = last; i >= 0; i--) {
+			if (Double.compare(xs[i], currentProcessingX) == 0) {
+				if (ys[i] > maxY) {
+					maxY = ys[i];
 				}
 			} else {
 				return maxY;
@@ -290,51 +607,92 @@ public class LinearPieceWiseFunctionDataPoints implements Iterable<ImmutablePair
 		return maxY;
 	}
 
+	/**
+	 * Removes the points that are on the line between their neighbours, with
+	 * tolerance. It assumes that the datapoints are sorted. The points are
+	 * compacted in place and the line is evaluated without creating any function.
+	 * 
+	 * @throws FunctionOperationException If the datapoints are not sorted
+	 */
 	public void removeIntermediatePoitnsForLinearFunctions() throws FunctionOperationException {
-		// This function assumes that the datapoints are sorted
-		if (datapoints.size() < 3) {
+		if (size < 3) {
 			return;
 		}
-		ImmutablePair<Double, Double> left, middle, right;
-
-		left = datapoints.get(0);
-		middle = datapoints.get(1);
 
-		int i = 2;
-		while (i < datapoints.size()) {
-			right = datapoints.get(i);
-			double yFromFunction = (new LinearPiecewiseFunctionImpl(new LinearPieceWiseFunctionDataPoints(left, right)))
-					.getValueAt(middle.getLeft());
-			Logger.info("Trying to remove intermediate point {} between values {} and {}. ", middle, left, right);
-
-			if (DoubleMath.fuzzyEquals(yFromFunction, middle.getRight(), LinearPieceWiseFunction.TOLERANCE)) {
-				Logger.info("Removing point because the Y at point {} is {} , which is equal to {}", middle.getLeft(),
-						yFromFunction, middle.getRight());
-				datapoints.remove(i - 1);
-				middle = right;
+		boolean trace = Logger.isTraceEnabled();
+		// The kept points are in [0, kept) and the left of the line is the last of
+		// them
+		int kept = 1;
+		int middle = 1;
+		for (int right = 2; right < size; right++) {
+			int left = kept - 1;
+			double yFromLine = YOnSegment(xs[left], ys[left], xs[right], ys[right], xs[middle]);
+			if (DoubleMath.fuzzyEquals(yFromLine, ys[middle], LinearPieceWiseFunction.TOLERANCE)) {
+				if (trace) {
+					Logger.trace("Removing point because the Y at point {} is {} , which is equal to {}", xs[middle],
+							yFromLine, ys[middle]);
+				}
 			} else {
-				Logger.info("Leaving point because the Y at point {} is {} , which is NOT equal to {}",
-						middle.getLeft(), yFromFunction, middle.getRight());
-				left = middle;
-				middle = right;
-				i++;
+				if (trace) {
+					Logger.trace("Leaving point because the Y at point {} is {} , which is NOT equal to {}",
+							xs[middle], yFromLine, ys[middle]);
+				}
+				xs[kept] = xs[middle];
+				ys[kept] = ys[middle];
+				kept++;
 			}
+			middle = right;
 		}
+		xs[kept] = xs[middle];
+		ys[kept] = ys[middle];
+		truncate(kept + 1);
 
 	}
 
+	/**
+	 * The value at x of the function with only the datapoints <leftX,leftY> and
+	 * <rightX,rightY>, the same as {@link LinearPiecewiseFunctionImpl#getValueAt(double)}
+	 * 
+	 * @throws FunctionOperationException If x is out of [leftX, rightX]
+	 */
+	static double YOnSegment(double leftX, double leftY, double rightX, double rightY, double x)
+			throws FunctionOperationException {
+		if (DoubleMath.fuzzyEquals(x, leftX, LinearPieceWiseFunction.TOLERANCE)) {
+			return leftY;
+		}
+		if (DoubleMath.fuzzyCompare(leftX, x, LinearPieceWiseFunction.TOLERANCE) > 0
+				|| DoubleMath.fuzzyCompare(rightX, x, LinearPieceWiseFunction.TOLERANCE) < 0) {
+			throw new FunctionOperationException(
+					"Point " + x + " is out of the interval [" + leftX + ", " + rightX + "]");
+		}
+		return GetY(leftX, leftY, rightX, rightY, Math.min(Math.max(x, leftX), rightX));
+	}
+
+	/**
+	 * Removes the points that are equal, with tolerance, to a previous point. If
+	 * the datapoints are sorted by x, a point only needs to be compared with the
+	 * previous points whose x is equal to its x. Otherwise, it is compared with all
+	 * the previous points.
+	 */
 	public void removeDuplicatedPoints() {
-		int size = datapoints.size();
+		boolean sorted = isSortedByX();
+		int kept = 0;
 		for (int i = 0; i < size; i++) {
-			for (int j = size - 1; j > i; j--) {
-				// Use the relaxed comparator with some tolerance
-				if (myEqualDatapoints(datapoints.get(i), datapoints.get(j))) {
-					remove(j);
-					size--;
+			boolean duplicated = false;
+			for (int k = kept - 1; k >= 0 && !duplicated; k--) {
+				if (sorted && !DoubleMath.fuzzyEquals(xs[k], xs[i], LinearPieceWiseFunction.TOLERANCE)) {
+					// The rest of previous points have smaller x
+					break;
 				}
+				duplicated = myEqualDatapoints(xs[k], ys[k], xs[i], ys[i]);
+			}
+			if (!duplicated) {
+				xs[kept] = xs[i];
+				ys[kept] = ys[i];
+				kept++;
 			}
-
 		}
+		truncate(kept);
 
 	}
 
@@ -342,22 +700,33 @@ public class LinearPieceWiseFunctionDataPoints implements Iterable<ImmutablePair
 	 * Removes point in position i only if the i-1 has the same <x,y> value
 	 */
 	public void removeDuplicatedNeighborPoints() {
-		int size = datapoints.size();
-		for (int i = size - 1; i > 0; i--) {
+		if (size == 0) {
+			return;
+		}
+		int kept = 1;
+		double previousX = xs[0];
+		double previousY = ys[0];
+		for (int i = 1; i < size; i++) {
 			// Use the relaxed comparator with some tolerance
-			if (myEqualDatapoints(datapoints.get(i), datapoints.get(i - 1))) {
-				remove(i);
+			boolean duplicated = myEqualDatapoints(xs[i], ys[i], previousX, previousY);
+			previousX = xs[i];
+			previousY = ys[i];
+			if (!duplicated) {
+				xs[kept] = xs[i];
+				ys[kept] = ys[i];
+				kept++;
 			}
 		}
+		truncate(kept);
 
 	}
 
-	private boolean myEqualDatapoints(ImmutablePair<Double, Double> p1, ImmutablePair<Double, Double> p2) {
+	private static boolean myEqualDatapoints(double x1, double y1, double x2, double y2) {
 
-		if (!DoubleMath.fuzzyEquals(p1.getLeft(), p2.getLeft(), LinearPieceWiseFunction.TOLERANCE)) {
+		if (!DoubleMath.fuzzyEquals(x1, x2, LinearPieceWiseFunction.TOLERANCE)) {
 			return false;
 		}
-		return DoubleMath.fuzzyEquals(p1.getRight(), p2.getRight(), LinearPieceWiseFunction.TOLERANCE);
+		return DoubleMath.fuzzyEquals(y1, y2, LinearPieceWiseFunction.TOLERANCE);
 	}
 
 	/**
@@ -374,87 +743,239 @@ public class LinearPieceWiseFunctionDataPoints implements Iterable<ImmutablePair
 	 * @param the DatPoints to merge
 	 */
 	public void addAllSortedInEvenPositions(LinearPieceWiseFunctionDataPoints points2) {
-		for (ImmutablePair<Double, Double> p : points2.getDatapoints().reversed()) { // From largest to smalles
-			// from the end of the datapoints to keep parity in the next positions to treat
-			boolean added = false;
-			for (int i = datapoints.size() - 1; (i >= 0) && (!added); i--) {
-				if (datapoints.get(i).getLeft() <= p.getLeft()) {
-					// Position found: add on the righ if n is odd and on the left (same position i
-					// because the rest are moved to the right) if n is even.
-					if ((i % 2) == 1) {
-						datapoints.add(i + 1, p);
-					} else {
-						datapoints.add(i, p);
-					}
-
-					added = true;
-				}
+		// Both datapoints are sorted by x, so they are merged in a single pass. Before
+		// the interval [datapoint_i, datapoint_i+1], for even i, go the points of
+		// points2 that are lower than the end of the interval: those after the
+		// previous interval and those that would break this interval.
+		ScratchBuffers buffers = ScratchBuffers.ForCurrentThread();
+		double[] newxs = buffers.xs(size + points2.size);
+		double[] newys = buffers.ys(size + points2.size);
+		int newsize = 0;
+		int p = 0;
+		// The points lower than all the datapoints have no position to go and are not
+		// added
+		while (p < points2.size && (size == 0 || points2.xs[p] < xs[0])) {
+			p++;
+		}
+		for (int i = 0; i < size; i += 2) {
+			while (p < points2.size && (i + 1 == size || points2.xs[p] < xs[i + 1])) {
+				newxs[newsize] = points2.xs[p];
+				newys[newsize++] = points2.ys[p++];
+			}
+			newxs[newsize] = xs[i];
+			newys[newsize++] = ys[i];
+			if (i + 1 < size) {
+				newxs[newsize] = xs[i + 1];
+				newys[newsize++] = ys[i + 1];
 			}
 		}
+		// After the last interval
+		while (p < points2.size) {
+			newxs[newsize] = points2.xs[p];
+			newys[newsize++] = points2.ys[p++];
+		}
+		ensureCapacity(newsize);
+		System.arraycopy(newxs, 0, xs, 0, newsize);
+		System.arraycopy(newys, 0, ys, 0, newsize);
+		size = newsize;
+		modificationCount++;
 	}
 
 	/**
 	 * This method removes the point <x,y> if it finds in the dataset a points
 	 * <x,y_y> and all y_y are larger than y
 	 * 
+	 * The points of d2 are visited in x order with a cursor that only moves forward
+	 * while the x of the points in this dataset increase, so it is linear when
+	 * both datasets are sorted.
+	 * 
 	 * @param d2 The second datapoints
 	 */
 	public void removePointsWhoseYValueisTheSmallest(LinearPieceWiseFunctionDataPoints d2) {
-		int size = datapoints.size();
-		for (int i = size - 1; i >= 0; i--) {
-			if (d2.valueXisAnIntervalExtreme(datapoints.get(i).getLeft())) {
-				ImmutablePair<Double, Double> smallest = d2.findLowestIntervalExtremeForX(datapoints.get(i).getLeft());
-				if (smallest.getRight() > datapoints.get(i).getRight()) {// the point in this function was the smallest
-					remove(i);
-				}
-
+		int[] order = d2.sortedOrderByX();
+		int kept = 0;
+		int first = 0;
+		double previousX = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < size; i++) {
+			first = d2.findFirstInOrderNotLowerThan(order, xs[i], xs[i] >= previousX ? first : 0);
+			previousX = xs[i];
+			boolean valueXisAnIntervalExtreme = false;
+			double smallestY = Double.MAX_VALUE;
+			for (int k = first; k < d2.size
+					&& DoubleMath.fuzzyEquals(d2.xs[order[k]], xs[i], LinearPieceWiseFunction.TOLERANCE); k++) {
+				valueXisAnIntervalExtreme = true;
+				smallestY = Math.min(smallestY, d2.ys[order[k]]);
+			}
+			// the point in this function was the smallest
+			boolean smallest = valueXisAnIntervalExtreme && smallestY > ys[i];
+			if (!smallest) {
+				xs[kept] = xs[i];
+				ys[kept] = ys[i];
+				kept++;
 			}
 		}
+		truncate(kept);
 
 	}
-	
 
 	/**
 	 * This method removes the point <x,y> in this object if it finds that it already exist in the d2
+	 * 
+	 * As {@link #removePointsWhoseYValueisTheSmallest(LinearPieceWiseFunctionDataPoints)},
+	 * it is linear when both datasets are sorted.
 	 * @param resultInterval
 	 */
 	public void removeElementsExistingInDataset(LinearPieceWiseFunctionDataPoints d2) {
-		int size = datapoints.size();
-		for (int i = size - 1; i >= 0; i--) {
-			boolean matched=false;
-			for(ImmutablePair<Double, Double> d : d2) {
-				if(!matched) {
-				if(DoubleMath.fuzzyEquals(datapoints.get(i).getLeft(), d.getLeft(), LinearPieceWiseFunction.TOLERANCE) &&
-						DoubleMath.fuzzyEquals(datapoints.get(i).getRight(), d.getRight(), LinearPieceWiseFunction.TOLERANCE)) {
-					Logger.debug("Removing element in position {} in dataset with value {}", i, datapoints.get(i));
-					remove(i);
-					matched=true;
-				}
+		int[] order = d2.sortedOrderByX();
+		int kept = 0;
+		int first = 0;
+		double previousX = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < size; i++) {
+			first = d2.findFirstInOrderNotLowerThan(order, xs[i], xs[i] >= previousX ? first : 0);
+			previousX = xs[i];
+			boolean existing = false;
+			for (int k = first; k < d2.size && !existing
+					&& DoubleMath.fuzzyEquals(d2.xs[order[k]], xs[i], LinearPieceWiseFunction.TOLERANCE); k++) {
+				existing = DoubleMath.fuzzyEquals(d2.ys[order[k]], ys[i], LinearPieceWiseFunction.TOLERANCE);
 			}
+			if (existing) {
+				if (Logger.isTraceEnabled()) {
+					Logger.trace("Removing element in position {} in dataset with value {}", i, get(i));
+				}
+			} else {
+				xs[kept] = xs[i];
+				ys[kept] = ys[i];
+				kept++;
 			}
 		}
-		
+		truncate(kept);
+
 	}
 
-	private boolean valueXisAnIntervalExtreme(double x) {
-		for (ImmutablePair<Double, Double> point : getDatapoints()) {
-			if (DoubleMath.fuzzyEquals(point.getLeft(), x, LinearPieceWiseFunction.TOLERANCE)) {
-				return true;
-			}
+	/**
+	 * @return The positions of the datapoints in increasing x order, in the first
+	 *         size positions of a scratch array of the current thread
+	 */
+	private int[] sortedOrderByX() {
+		ScratchBuffers buffers = ScratchBuffers.ForCurrentThread();
+		if (!isSortedByX()) {
+			return StableSortOrder(xs, size, buffers.order(size), buffers.mergeBuffer(size));
 		}
-		return false;
+		int[] order = buffers.order(size);
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		return order;
 	}
 
-	private ImmutablePair<Double, Double> findLowestIntervalExtremeForX(Double left) {
-		ImmutablePair<Double, Double> smallestY = new ImmutablePair<Double, Double>(left, Double.MAX_VALUE);
-		for (ImmutablePair<Double, Double> point : getDatapoints()) {
-			if (DoubleMath.fuzzyEquals(left, point.getLeft(), LinearPieceWiseFunction.TOLERANCE)
-					&& point.getRight() < smallestY.getRight()) {
-				smallestY = point;
+	/**
+	 * @return The first position k, not lower than start, in the order such that
+	 *         the x of the datapoint order[k] is not lower than x (with tolerance)
+	 */
+	private int findFirstInOrderNotLowerThan(int[] order, double x, int start) {
+		int k = start;
+		while (k < size && DoubleMath.fuzzyCompare(xs[order[k]], x, LinearPieceWiseFunction.TOLERANCE) < 0) {
+			k++;
+		}
+		return k;
+	}
+
+	/**
+	 * Keeps only the first datapoints, after the removed ones have been compacted
+	 * at the beginning of the arrays
+	 */
+	private void truncate(int newSize) {
+		if (newSize < size) {
+			size = newSize;
+			modificationCount++;
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > xs.length) {
+			int newCapacity = Math.max(capacity, xs.length * 2);
+			xs = Arrays.copyOf(xs, newCapacity);
+			ys = Arrays.copyOf(ys, newCapacity);
+		}
+	}
+
+	private void checkIndex(int i) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+		}
+	}
+
+	/**
+	 * Moves the datapoints in place, in blocks of width (1 or 2) datapoints, so
+	 * that the block k is the block that was in position order[k]. The datapoints
+	 * after the last block are not moved.
+	 * 
+	 * The permutation is applied following its cycles, and the visited positions
+	 * are marked in the order, so the order cannot be used afterwards.
+	 */
+	private void applyOrder(int[] order, int count, int width) {
+		for (int start = 0; start < count; start++) {
+			if (order[start] < 0) {
+				// Already moved in a previous cycle
+				continue;
 			}
+			int first = start * width, last = first + width - 1;
+			double savedFirstX = xs[first], savedFirstY = ys[first];
+			double savedLastX = xs[last], savedLastY = ys[last];
+			int current = start;
+			int next = order[current];
+			while (next != start) {
+				order[current] = ~next;
+				System.arraycopy(xs, next * width, xs, current * width, width);
+				System.arraycopy(ys, next * width, ys, current * width, width);
+				current = next;
+				next = order[current];
+			}
+			order[current] = ~next;
+			xs[current * width] = savedFirstX;
+			ys[current * width] = savedFirstY;
+			xs[current * width + width - 1] = savedLastX;
+			ys[current * width + width - 1] = savedLastY;
 		}
-		return smallestY;
+		modificationCount++;
 	}
 
+	/**
+	 * Stable merge sort of the positions [0,count) by their key.
+	 * 
+	 * @param order  Array where the result is written, of at least count
+	 *               positions
+	 * @param buffer Temporary array of at least count positions
+	 * @return The order, with the positions in the order that sorts the keys,
+	 *         keeping the original order for equal keys
+	 */
+	static int[] StableSortOrder(double[] keys, int count, int[] order, int[] buffer) {
+		for (int i = 0; i < count; i++) {
+			order[i] = i;
+		}
+		for (int width = 1; width < count; width *= 2) {
+			for (int start = 0; start < count - width; start += 2 * width) {
+				int middle = start + width;
+				int end = Math.min(start + 2 * width, count);
+				int left = start, right = middle, k = start;
+				while (left < middle && right < end) {
+					// Only a strictly smaller key on the right goes first
+					if (keys[order[right]] < keys[order[left]]) {
+						buffer[k++] = order[right++];
+					} else {
+						buffer[k++] = order[left++];
+					}
+				}
+				while (left < middle) {
+					buffer[k++] = order[left++];
+				}
+				while (right < end) {
+					buffer[k++] = order[right++];
+				}
+				System.arraycopy(buffer, start, order, start, end - start);
+			}
+		}
+		return order;
+	}
 
 }
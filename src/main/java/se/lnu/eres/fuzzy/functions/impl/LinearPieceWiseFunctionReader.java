@@ -0,0 +1,87 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.functions.impl;
+
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+
+/**
+ * Read-only access to the datapoints of a function, read in place instead of
+ * through {@link LinearPieceWiseFunction#getDatapoints()}, which gives a copy
+ * of the datapoints of an {@link ImmutableLinearPiecewiseFunction}.
+ * 
+ * A reader is moved to other functions with {@link #read(LinearPieceWiseFunction)},
+ * so that reading many functions does not create objects. The datapoints must
+ * not be modified while they are read.
+ */
+public class LinearPieceWiseFunctionReader {
+
+	private LinearPieceWiseFunctionDataPoints points = new LinearPieceWiseFunctionDataPoints();
+
+	/**
+	 * @return This reader, reading the datapoints of the function
+	 */
+	public LinearPieceWiseFunctionReader read(LinearPieceWiseFunction function) {
+		points = LinearPiecewiseFunctionImpl.PointsOf(function);
+		return this;
+	}
+
+	/**
+	 * @return This reader, reading the datapoints
+	 */
+	public LinearPieceWiseFunctionReader read(LinearPieceWiseFunctionDataPoints points) {
+		this.points = points;
+		return this;
+	}
+
+	public int size() {
+		return points.size();
+	}
+
+	public double getX(int i) {
+		return points.getX(i);
+	}
+
+	public double getY(int i) {
+		return points.getY(i);
+	}
+
+	/**
+	 * Same as {@link LinearPieceWiseFunctionDataPoints#getIntervalIndexContaining(double)}
+	 */
+	public int getIntervalIndexContaining(double x) throws FunctionOperationException {
+		return points.getIntervalIndexContaining(x);
+	}
+
+	/**
+	 * Same as {@link LinearPieceWiseFunctionDataPoints#getYInInterval(int, double)}
+	 */
+	public double getYInInterval(int i, double x) {
+		return points.getYInInterval(i, x);
+	}
+
+	@Override
+	public String toString() {
+		return points.toString();
+	}
+
+}
@@ -25,7 +25,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -42,6 +41,8 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 	private static final Logger Logger = LogManager.getLogger(LinearPiecewiseFunctionImpl.class.getSimpleName());
 
 	protected LinearPieceWiseFunctionDataPoints points;
+	// Built lazily and only used while it is valid for the current points
+	private RangeMaximumIndex maximumIndex;
 
 	public LinearPiecewiseFunctionImpl() {
 		points = new LinearPieceWiseFunctionDataPoints();
@@ -54,17 +55,19 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 
 	@Override
 	public void addPoint(double x, double y) {
-		points.add(new ImmutablePair<Double, Double>(x, y));
+		points.add(x, y);
 		sortLastPoint();
 	}
 
 	private void sortLastPoint() {
 		// Only last point can be out of order
 		if (points.size() > 1) {
-			if (points.get(points.size() - 1).getLeft() < points.get(points.size() - 2).getLeft()) {
+			if (points.getX(points.size() - 1) < points.getX(points.size() - 2)) {
 				// it is out of order. It needs to sort
-				ImmutablePair<Double, Double> lastElement = points.remove(points.size() - 1);
-				points.add(findSortedIndexInPoints(lastElement.getLeft(), 0, points.size() - 1), lastElement);
+				double lastX = points.getX(points.size() - 1);
+				double lastY = points.getY(points.size() - 1);
+				points.remove(points.size() - 1);
+				points.add(findSortedIndexInPoints(lastX, 0, points.size() - 1), lastX, lastY);
 			}
 		}
 
@@ -76,7 +79,7 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 			return start;
 		}
 		// Binary search a in the sorted array
-		if (points.get((start + end) / 2).getLeft() > value) {// it is on the left side
+		if (points.getX((start + end) / 2) > value) {// it is on the left side
 			return findSortedIndexInPoints(value, start, ((start + end) / 2));
 		} else { // it is on the right side
 			return findSortedIndexInPoints(value, ((start + end) / 2) + 1, end);
@@ -90,7 +93,7 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 		}
 		Logger.debug(
 				"Trying to converte a PieceWise function to a Fuzzy number, but the function does not satisfy the Fuzzy Number characteristics {}",
-				points.toString());
+				points);
 		throw new FuzzyNumberConversionException("Function does not correspond to fuzzy number" + points.toString());
 	}
 
@@ -104,29 +107,26 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 		if (points.size() < 2) {
 			return true;
 		}
-		ImmutablePair<Double, Double> previousp = null;
+		double previousY = points.getY(0);
 		boolean topReached = false;
-		for (ImmutablePair<Double, Double> p : points) {
-			if (previousp == null) {
-				previousp = p;
-			} else {
+		for (int i = 1; i < points.size(); i++) {
+			double y = points.getY(i);
 
-				if (!topReached) {
-					if (previousp.getRight() >= 1.0) {
-						topReached = true;
-					} else {
-						previousp = p;
-					}
-				} else {// top was already reached
-					if (previousp.getRight() < p.getRight()) {
-						// not decreasing!
-						return false;
-					} else {
-						previousp = p;
-					}
+			if (!topReached) {
+				if (previousY >= 1.0) {
+					topReached = true;
+				} else {
+					previousY = y;
+				}
+			} else {// top was already reached
+				if (previousY < y) {
+					// not decreasing!
+					return false;
+				} else {
+					previousY = y;
 				}
-
 			}
+
 		}
 		return true;
 
@@ -137,20 +137,16 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 		if (points.size() < 2) {
 			return true;
 		}
-		ImmutablePair<Double, Double> previousp = null;
-		for (ImmutablePair<Double, Double> p : points) {
-			if (previousp == null) {
-				previousp = p;
-			} else {
-				if (p.getRight() < 1.0) {// still increasing
-					if (previousp.getRight() > p.getRight()) {
-						return false;
-					}
-					previousp = p;
-				} else {
-					return true;
+		double previousY = points.getY(0);
+		for (int i = 1; i < points.size(); i++) {
+			double y = points.getY(i);
+			if (y < 1.0) {// still increasing
+				if (previousY > y) {
+					return false;
 				}
-
+				previousY = y;
+			} else {
+				return true;
 			}
 
 		}
@@ -158,7 +154,7 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 		// It should not reach here because there should exist a position with value 1!
 		Logger.warn(
 				"The execution should not have reached this point. A Funtion has been traversed and it has not reached any position x such that f(x)>=1. The function is {}",
-				points.toString());
+				points);
 		return true;
 	}
 
@@ -166,9 +162,9 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 	public double maximumValueInPoints() {
 		// the maximum must correspond to one of the piece extremes of the function.
 		double currentMax = 0.0;
-		for (ImmutablePair<Double, Double> p : points) {
-			if (p.getRight() > currentMax) {
-				currentMax = p.getRight();
+		for (int i = 0; i < points.size(); i++) {
+			if (points.getY(i) > currentMax) {
+				currentMax = points.getY(i);
 			}
 		}
 		return currentMax;
@@ -178,9 +174,9 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 	public double minimumValueInPoints() {
 		// the minimum must correspond to one of the piece extremes of the function.
 		double currentMin = 1.0;
-		for (ImmutablePair<Double, Double> p : points) {
-			if (p.getRight() < currentMin) {
-				currentMin = p.getRight();
+		for (int i = 0; i < points.size(); i++) {
+			if (points.getY(i) < currentMin) {
+				currentMin = points.getY(i);
 			}
 		}
 		return currentMin;
@@ -191,14 +187,10 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 		if (points.size() < 2) {
 			return true;
 		}
-		ImmutablePair<Double, Double> previousp = null;
-		for (ImmutablePair<Double, Double> p : points) {
-			if (previousp == null) {
-				previousp = p;
-			} else {
-				if (previousp.getRight() > p.getRight()) {
-					return false;
-				}
+		double firstY = points.getY(0);
+		for (int i = 1; i < points.size(); i++) {
+			if (firstY > points.getY(i)) {
+				return false;
 			}
 		}
 		return true;
@@ -209,19 +201,25 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 		if (points.size() < 2) {
 			return true;
 		}
-		ImmutablePair<Double, Double> previousp = null;
-		for (ImmutablePair<Double, Double> p : points) {
-			if (previousp == null) {
-				previousp = p;
-			} else {
-				if (previousp.getRight() < p.getRight()) {
-					return false;
-				}
+		double firstY = points.getY(0);
+		for (int i = 1; i < points.size(); i++) {
+			if (firstY < points.getY(i)) {
+				return false;
 			}
 		}
 		return true;
 	}
 
+	/**
+	 * @return The datapoints of the function. The ones of the functions of this
+	 *         package are read directly, because immutable functions only give
+	 *         copies of them. They must not be modified
+	 */
+	static LinearPieceWiseFunctionDataPoints PointsOf(LinearPieceWiseFunction function) {
+		return function instanceof LinearPiecewiseFunctionImpl ? ((LinearPiecewiseFunctionImpl) function).points
+				: function.getDatapoints();
+	}
+
 	@Override
 	public LinearPieceWiseFunctionDataPoints getDatapoints() {
 		return points;
@@ -234,67 +232,52 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 
 	@Override
 	public Double getValueAt(double leftXpoint) throws FunctionOperationException {
-		Logger.debug("Looking for value at {} in function {}", leftXpoint, points);
+		return valueAt(leftXpoint);
+	}
+
+	@Override
+	public void getValuesAt(double[] xs, double[] out) throws FunctionOperationException {
+		points.getYsAt(xs, out);
+	}
+
+	/**
+	 * Primitive version of {@link #getValueAt(double)}. It finds the interval with
+	 * a binary search in the sorted points and interpolates without creating any
+	 * object.
+	 */
+	private double valueAt(double leftXpoint) throws FunctionOperationException {
 		// If it is the first value in the points, return it directly (special case, in
 		// the rest of cases it is the second value when it is a discontinuity point)
-		if (DoubleMath.fuzzyEquals(leftXpoint, points.get(0).getLeft(), TOLERANCE)) {
-			return points.get(0).getRight();
+		if (DoubleMath.fuzzyEquals(leftXpoint, points.getX(0), TOLERANCE)) {
+			return points.getY(0);
 		}
 		// Not the value where the function begins
-		LinearPieceWiseFunctionDataPoints interval = points.getIntervalContaining(leftXpoint);
-		Logger.debug("The interval of interest is {}", interval);
-		return GetY(interval, leftXpoint);
+		return points.getYInInterval(points.getIntervalIndexContaining(leftXpoint), leftXpoint);
 
 	}
 
-	private Double getValueApproachingFromRightAt(double leftXpoint) throws FunctionOperationException {
-		Logger.debug("Looking for value at {}, approaching from the right, in function {}", leftXpoint, points);
-		LinearPieceWiseFunctionDataPoints interval = points.getIntervalApproachingFromRightContaining(leftXpoint);
-		Logger.debug("The interval of interest is {}", interval);
-		return GetY(interval, leftXpoint);
+	private double getValueApproachingFromRightAt(double leftXpoint) throws FunctionOperationException {
+		return points.getYInInterval(points.getIntervalIndexApproachingFromRightContaining(leftXpoint), leftXpoint);
 	}
 
-	private Double getValueApproachingFromLeftAt(double leftXpoint) throws FunctionOperationException {
-		return getValueAt(leftXpoint);
+	private double getValueApproachingFromLeftAt(double leftXpoint) throws FunctionOperationException {
+		return valueAt(leftXpoint);
 	}
 
 	@Override
 	public List<Double> getValuesAt(double xpoint) throws FunctionOperationException {
-		Logger.debug("Looking for values at {} in function {}", xpoint, points);
+		if (Logger.isTraceEnabled()) {
+			Logger.trace("Looking for values at {} in function {}", xpoint, points);
+		}
 		if (isDiscontinuousAtX(xpoint)) {
 			return getDiscontinuousYs(xpoint);
 		} else {
-			Logger.debug("It is not a discontinuity point");
+			Logger.trace("It is not a discontinuity point");
 			return Arrays.asList(getValueAt(xpoint));
 		}
 
 	}
 
-	private static Double GetY(LinearPieceWiseFunctionDataPoints interval, double leftXpoint) {
-
-		Logger.debug("getY: finding f({}) in interval {}. The x values x1 and x2 are: <{},{}>", leftXpoint, interval,
-				interval.getFirst().getLeft(), interval.getLast().getLeft());
-		/*
-		 * Handle the special case that is the discontinuity. The derivative would give
-		 * infinite. In tat case, it is assumed that the Y value on the right (the one
-		 * that will continue the function for) larger X values, is used.
-		 */
-		if (interval.getFirst().getLeft().equals(interval.getLast().getLeft())) {
-			Logger.debug("getY: the f({}) in interval {} is {} (interval had 0 lenght)", leftXpoint, interval,
-					interval.getLast().getRight());
-			return interval.getLast().getRight();
-		}
-
-		// Now the normal case
-		double leftX = interval.getFirst().getLeft();
-		double leftY = interval.getFirst().getRight();
-		double rightX = interval.getLast().getLeft();
-		double rightY = interval.getLast().getRight();
-		double result = leftY + (leftXpoint - leftX) * ((rightY - leftY) / (rightX - leftX));
-		Logger.debug("getY: the f({}) in interval {} is {}", leftXpoint, interval, result);
-		return result;
-	}
-
 	/**
 	 * The list of Y in case that it is a discontinuity point. It cannot be in the
 	 * middle of an interval, it must be in the extremes.
@@ -304,12 +287,14 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 	 */
 	private List<Double> getDiscontinuousYs(double xpoint) {
 		List<Double> result = new ArrayList<Double>();
-		for (ImmutablePair<Double, Double> point : points) {
-			if (DoubleMath.fuzzyEquals(point.getLeft(), xpoint, TOLERANCE)) {
-				result.add(point.getRight());
+		for (int i = 0; i < points.size(); i++) {
+			if (DoubleMath.fuzzyEquals(points.getX(i), xpoint, TOLERANCE)) {
+				result.add(points.getY(i));
 			}
 		}
-		Logger.debug("Values of Y for point {} are: {}", xpoint, result.toString());
+		if (Logger.isTraceEnabled()) {
+			Logger.trace("Values of Y for point {} are: {}", xpoint, result);
+		}
 		return result;
 
 	}
@@ -340,78 +325,135 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 		return "LinearPiecewiseFunctionImpl [points=" + points.toString() + "]";
 	}
 
+	/**
+	 * Walks the intervals of this function and the collated x points of both
+	 * functions with two indexes, reading the datapoints from their arrays, so each
+	 * call costs O(n + m) for functions of n and m datapoints.
+	 */
 	@Override
 	public List<Double> findIntersections(LinearPieceWiseFunction f2) throws FunctionOperationException {
 
-		ImmutablePair<Double, Double> f1left, f1right;
-		Double leftXforf2, rightXforf2;
 		List<Double> result = new ArrayList<Double>();
-		if (points.size() == 0 || f2.getDatapoints().size() == 0 || points.size() + f2.getDatapoints().size() < 3) {
+		LinearPieceWiseFunctionDataPoints f2Points = PointsOf(f2);
+		int size = points.size();
+		if (size == 0 || f2Points.size() == 0 || size + f2Points.size() < 3) {
 			// No points of intersection possible
 			return result;
 		}
 		// special case that this function has only one point and it is on the line of
 		// the other function
-		if (points.size() == 1) {
-			if (f2.getValueAt(points.getFirst().getLeft()) == points.getFirst().getRight()) {
-				result.add(points.getFirst().getLeft());
+		if (size == 1) {
+			if (f2.getValueAt(points.getX(0)) == points.getY(0)) {
+				result.add(points.getX(0));
 			}
 			return result;
 		}
+		// The intervals of f2 are evaluated with the primitive methods of the
+		// implementation, which any function can be read as
+		LinearPiecewiseFunctionImpl other = (f2 instanceof LinearPiecewiseFunctionImpl)
+				? (LinearPiecewiseFunctionImpl) f2
+				: new LinearPiecewiseFunctionImpl(f2Points);
 
 		// At this point the current function has at least two points
 		// Get x-points of interest from the points of interest of the two fuzzy
 		// booleans
-		List<Double> xPointsOfInterest = CollectionUtils.collate(getLimitXpoints(), f2.getLimitXpoints(), false);
-		Logger.info("The xPointsOfInterest merged are: {}", xPointsOfInterest.toString());
-		f1left = points.getFirst();
-		leftXforf2 = xPointsOfInterest.removeFirst();
-		rightXforf2 = xPointsOfInterest.removeFirst();
+		double[] xPointsOfInterest = new double[size + f2Points.size()];
+		int pointsOfInterestCount = CollateWithoutDuplicates(points, f2Points, xPointsOfInterest);
+		if (Logger.isDebugEnabled()) {
+			Logger.debug("The xPointsOfInterest merged are: {}",
+					Arrays.toString(Arrays.copyOf(xPointsOfInterest, pointsOfInterestCount)));
+		}
+		// Checked once, the loop below runs for every interval of both functions
+		boolean trace = Logger.isTraceEnabled();
+		double leftXforf2 = xPointsOfInterest[0];
+		double rightXforf2 = xPointsOfInterest[1];
+		int nextPointOfInterest = 2;
 		int i = 1;
-		while (i < points.size() && xPointsOfInterest.size() >= 0) {
-			f1right = points.get(i);
-
-
-			Logger.info(
-					"finding intersection betwen <x1,y1>={}, <x2,y2>={}, leftXforIntervalInF2={} and rightXforIntervalInF2={}",
-					f1left, f1right, leftXforf2, rightXforf2);
-			if (f2.existsIntersectionBetween(leftXforf2, rightXforf2, f1left, f1right)) {
-				Logger.info("Yes, they intersect, now calculating the intersection point");
+		while (i < size) {
+			double f1leftX = points.getX(i - 1), f1leftY = points.getY(i - 1);
+			double f1rightX = points.getX(i), f1rightY = points.getY(i);
+
+			if (trace) {
+				Logger.trace(
+						"finding intersection betwen <x1,y1>=<{},{}>, <x2,y2>=<{},{}>, leftXforIntervalInF2={} and rightXforIntervalInF2={}",
+						f1leftX, f1leftY, f1rightX, f1rightY, leftXforf2, rightXforf2);
+			}
+			if (other.existsIntersectionBetween(leftXforf2, rightXforf2, f1leftX, f1leftY, f1rightX, f1rightY)) {
+				Logger.trace("Yes, they intersect, now calculating the intersection point");
 				// Possibly adding a duplicate if the intersection point corresponds with one
 				// of the picewise function points because it will be added when exploring the
 				// intervals before and after the point.
-				result.add(f2.getIntersectionPointX(leftXforf2, rightXforf2, f1left, f1right));
-				Logger.info("  And the intersection point was {}", result.getLast());
+				result.add(other.getIntersectionPointX(leftXforf2, rightXforf2, f1leftX, f1leftY, f1rightX, f1rightY));
+				if (trace) {
+					Logger.trace("  And the intersection point was {}", result.get(result.size() - 1));
+				}
 
 			} else {
-				Logger.info("No, they did not intersect");
+				Logger.trace("No, they did not intersect");
 			}
 
-			if (rightXforf2 >= f1right.getLeft()) { // if we reach that the rightXforf2 is out of our f1 interval,
-													// advance the
-				// interval in f1
-				Logger.info(
-						"It is moment to advance to the next interval in f1 because rightXforf2={} and f1right.getLeft()={}",
-						rightXforf2, f1right.getLeft());
-				f1left = f1right;
+			if (rightXforf2 >= f1rightX) { // if we reach that the rightXforf2 is out of our f1 interval,
+											// advance the interval in f1
+				if (trace) {
+					Logger.trace(
+							"It is moment to advance to the next interval in f1 because rightXforf2={} and f1right.getLeft()={}",
+							rightXforf2, f1rightX);
+				}
 				i++;
 			} else {// advance interval in f2
 					// This is to avoid that the interval in f2 is advanced always because a new
 					// interval in f1 may match the current interval in f2
-				Logger.info(
-						"It is moment to advance to the next interval in f2 because rightXforf2={} and f1right.getLeft()={}",
-						rightXforf2, f1right.getLeft());
+				if (trace) {
+					Logger.trace(
+							"It is moment to advance to the next interval in f2 because rightXforf2={} and f1right.getLeft()={}",
+							rightXforf2, f1rightX);
+				}
 				leftXforf2 = rightXforf2;
-				rightXforf2 = xPointsOfInterest.removeFirst();
+				rightXforf2 = xPointsOfInterest[nextPointOfInterest++];
 			}
 
 		}
 		return result;
 	}
 
+	/**
+	 * Merges the sorted x of both datapoints into merged, keeping a single copy of
+	 * the equal values
+	 * 
+	 * @return The number of x values in merged
+	 */
+	private static int CollateWithoutDuplicates(LinearPieceWiseFunctionDataPoints points1,
+			LinearPieceWiseFunctionDataPoints points2, double[] merged) {
+		int size1 = points1.size(), size2 = points2.size();
+		int i = 0, j = 0, count = 0;
+		while (i < size1 || j < size2) {
+			double x;
+			if (j == size2 || (i < size1 && Double.compare(points1.getX(i), points2.getX(j)) <= 0)) {
+				x = points1.getX(i++);
+			} else {
+				x = points2.getX(j++);
+			}
+			if (count == 0 || Double.compare(merged[count - 1], x) != 0) {
+				merged[count++] = x;
+			}
+		}
+		return count;
+	}
+
 	@Override
 	public boolean existsIntersectionBetween(Double left, Double right, ImmutablePair<Double, Double> f2left,
 			ImmutablePair<Double, Double> f2right) throws FunctionOperationException {
+		return existsIntersectionBetween(left, right, f2left.getLeft(), f2left.getRight(), f2right.getLeft(),
+				f2right.getRight());
+	}
+
+	/**
+	 * Primitive version of
+	 * {@link #existsIntersectionBetween(Double, Double, ImmutablePair, ImmutablePair)}
+	 * with the interval [&lt;f2leftX,f2leftY&gt;, &lt;f2rightX,f2rightY&gt;]
+	 */
+	boolean existsIntersectionBetween(double left, double right, double f2leftX, double f2leftY, double f2rightX,
+			double f2rightY) throws FunctionOperationException {
 
 		/*
 		 * First, check if the method invocation does not make sense, if left==right. In
@@ -425,14 +467,14 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 
 		// Next, handle the special case that the interval passed in the argumens is a
 		// single point
-		if (f2left.getLeft().equals(f2right.getLeft())) {
-			return handleIntervalExistenceInSinglePointIntervalInArgument(left, right, f2left, f2right);
+		if (Double.compare(f2leftX, f2rightX) == 0) {
+			return handleIntervalExistenceInSinglePointIntervalInArgument(left, right, f2leftY, f2rightY);
 		}
 
 		// Calculate whether it exists an effective interval for intersection. The
 		// maximum of lefts and miinimum of rights X
-		double effectiveXleft = Math.max(left, f2left.getLeft());
-		double effectiveXright = Math.min(right, f2right.getLeft());
+		double effectiveXleft = Math.max(left, f2leftX);
+		double effectiveXright = Math.min(right, f2rightX);
 
 		// If the intervals are disjoint, there is no intersection
 		if (effectiveXright < effectiveXleft) {
@@ -444,13 +486,14 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 		// interval in the argument points. Or it could be also the only intersection
 		// point.
 		if (effectiveXright == effectiveXleft) {
-			if (left.equals(right) || (f2left.getLeft().equals(f2right.getLeft()))) {
-				return handleIntervalExistenceInSinglePointInterval(effectiveXleft, f2left, f2right);
+			if (Double.compare(left, right) == 0 || Double.compare(f2leftX, f2rightX) == 0) {
+				return handleIntervalExistenceInSinglePointInterval(effectiveXleft, f2leftX, f2leftY, f2rightX,
+						f2rightY);
 			} else {
 				// legit intersection in a single point, no discontinuity of one of the
 				// functions
-				LinearPieceWiseFunctionDataPoints f2 = new LinearPieceWiseFunctionDataPoints(f2left, f2right);
-				return DoubleMath.fuzzyEquals(getValueAt(effectiveXright), GetY(f2, effectiveXright),
+				return DoubleMath.fuzzyEquals(valueAt(effectiveXright),
+						LinearPieceWiseFunctionDataPoints.GetY(f2leftX, f2leftY, f2rightX, f2rightY, effectiveXright),
 						LinearPieceWiseFunction.TOLERANCE);
 			}
 		}
@@ -460,26 +503,28 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 		// the effectiveRightY
 		// is larger or the leftY of this is larger and the rightY is lower than the
 		// interval formed by the points passed.
-		LinearPieceWiseFunctionDataPoints f2 = new LinearPieceWiseFunctionDataPoints(f2left, f2right);
+		double f2YatEffectiveXleft = LinearPieceWiseFunctionDataPoints.GetY(f2leftX, f2leftY, f2rightX, f2rightY,
+				effectiveXleft);
+		double f2YatEffectiveXright = LinearPieceWiseFunctionDataPoints.GetY(f2leftX, f2leftY, f2rightX, f2rightY,
+				effectiveXright);
 
 		// If the left is larger and the right lower
-		if (getValueApproachingFromRightAt(effectiveXleft) >= GetY(f2, effectiveXleft)
-				&& getValueApproachingFromLeftAt(effectiveXright) <= GetY(f2, effectiveXright)) {
+		if (getValueApproachingFromRightAt(effectiveXleft) >= f2YatEffectiveXleft
+				&& getValueApproachingFromLeftAt(effectiveXright) <= f2YatEffectiveXright) {
 			return true;
 		}
 
 		// If the left is lower and the right larger
-		if (getValueApproachingFromRightAt(effectiveXleft) <= GetY(f2, effectiveXleft)
-				&& getValueApproachingFromLeftAt(effectiveXright) >= GetY(f2, effectiveXright)) {
+		if (getValueApproachingFromRightAt(effectiveXleft) <= f2YatEffectiveXleft
+				&& getValueApproachingFromLeftAt(effectiveXright) >= f2YatEffectiveXright) {
 			return true;
 		}
 
 		return false;
 	}
 
-	private boolean handleIntervalExistenceInSinglePointInterval(double effectiveX,
-			ImmutablePair<Double, Double> f2left, ImmutablePair<Double, Double> f2right)
-			throws FunctionOperationException {
+	private boolean handleIntervalExistenceInSinglePointInterval(double effectiveX, double f2leftX, double f2leftY,
+			double f2rightX, double f2rightY) throws FunctionOperationException {
 		if (isDiscontinuousAtX(
 				effectiveX)) { /*
 								 * This part may have problems if it is discontinuous in both. Hopefully, the
@@ -488,28 +533,28 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 								 */
 			double minYDiscontinuous = getMinYinDiscontinuityAtX(effectiveX);
 			double maxYDiscontinuous = getMaxYinDiscontinuityAtX(effectiveX);
-			double f2YatEffectiveX = GetY(new LinearPieceWiseFunctionDataPoints(f2left, f2right), effectiveX);
+			double f2YatEffectiveX = LinearPieceWiseFunctionDataPoints.GetY(f2leftX, f2leftY, f2rightX, f2rightY,
+					effectiveX);
 			// true if the f2YatTheEffectiveX is between the minimum and maximum
 			return f2YatEffectiveX >= minYDiscontinuous && f2YatEffectiveX <= maxYDiscontinuous;
 		} else {// the discontinuous is the f2left f2right
-			double minYDiscontinuous = Math.min(f2left.getRight(), f2right.getRight());
-			double maxYDiscontinuous = Math.max(f2left.getRight(), f2right.getRight());
-			double yAtEffectiveX = getValueAt(effectiveX);
+			double minYDiscontinuous = Math.min(f2leftY, f2rightY);
+			double maxYDiscontinuous = Math.max(f2leftY, f2rightY);
+			double yAtEffectiveX = valueAt(effectiveX);
 			return yAtEffectiveX >= minYDiscontinuous && yAtEffectiveX <= maxYDiscontinuous;
 
 		}
 	}
 
-	private boolean handleIntervalExistenceInSinglePointIntervalInArgument(Double left, Double right,
-			ImmutablePair<Double, Double> f2left, ImmutablePair<Double, Double> f2right)
-			throws FunctionOperationException {
+	private boolean handleIntervalExistenceInSinglePointIntervalInArgument(double left, double right, double f2leftY,
+			double f2rightY) throws FunctionOperationException {
 		/*
 		 * Assumes that f2left and f2right are a single point interval
 		 */
-		double minYDiscontinuous = Math.min(f2left.getRight(), f2right.getRight());
-		double maxYDiscontinuous = Math.max(f2left.getRight(), f2right.getRight());
-		double lefty = getValueAt(left);
-		double righty = getValueAt(right);
+		double minYDiscontinuous = Math.min(f2leftY, f2rightY);
+		double maxYDiscontinuous = Math.max(f2leftY, f2rightY);
+		double lefty = valueAt(left);
+		double righty = valueAt(right);
 		return !((lefty > maxYDiscontinuous && righty > maxYDiscontinuous) // both above the interval
 				|| (lefty < minYDiscontinuous && righty < minYDiscontinuous)); // both below the interval
 
@@ -517,9 +562,9 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 
 	private double getMaxYinDiscontinuityAtX(double xvalue) {
 		double maxYforX = -Double.MAX_VALUE;
-		for (ImmutablePair<Double, Double> point : points) {
-			if (point.getLeft() == xvalue && point.getRight() > maxYforX) {
-				maxYforX = point.getRight();
+		for (int i = 0; i < points.size(); i++) {
+			if (points.getX(i) == xvalue && points.getY(i) > maxYforX) {
+				maxYforX = points.getY(i);
 			}
 		}
 		return maxYforX;
@@ -527,9 +572,9 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 
 	private double getMinYinDiscontinuityAtX(double xvalue) {
 		double minYforX = Double.MAX_VALUE;
-		for (ImmutablePair<Double, Double> point : points) {
-			if (point.getLeft() == xvalue && point.getRight() < minYforX) {
-				minYforX = point.getRight();
+		for (int i = 0; i < points.size(); i++) {
+			if (points.getX(i) == xvalue && points.getY(i) < minYforX) {
+				minYforX = points.getY(i);
 			}
 		}
 		return minYforX;
@@ -538,8 +583,8 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 
 	private boolean isDiscontinuousAtX(double xvalue) {
 		boolean firstAlreadyFound = false;
-		for (ImmutablePair<Double, Double> point : points) {
-			if (DoubleMath.fuzzyEquals(point.getLeft(), xvalue, TOLERANCE)) {
+		for (int i = 0; i < points.size(); i++) {
+			if (DoubleMath.fuzzyEquals(points.getX(i), xvalue, TOLERANCE)) {
 				if (firstAlreadyFound) {
 					return true;
 				}
@@ -553,39 +598,41 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 	@Override
 	public Double getIntersectionPointX(Double x1, Double x2, ImmutablePair<Double, Double> fleft,
 			ImmutablePair<Double, Double> fright) throws FunctionOperationException {
+		return getIntersectionPointX(x1, x2, fleft.getLeft(), fleft.getRight(), fright.getLeft(), fright.getRight());
+	}
+
+	/**
+	 * Primitive version of
+	 * {@link #getIntersectionPointX(Double, Double, ImmutablePair, ImmutablePair)}
+	 * with the interval [&lt;xl,yl&gt;, &lt;xr,yr&gt;]
+	 */
+	double getIntersectionPointX(double x1, double x2, double xl, double yl, double xr, double yr)
+			throws FunctionOperationException {
 
 		/*
 		 * Follow the formula that, the function in y=Ax+b is ((y2-y1)/(x2-x1))*x +
 		 * y1/(x1(y2-y1)/(x2-x1))
 		 */
-		Double y1, y2, xr, xl, yr, yl;
-		y1 = getValueAt(x1);
-		y2 = getValueAt(x2);
-		xl = fleft.getLeft();
-		yl = fleft.getRight();
-		xr = fright.getLeft();
-		yr = fright.getRight();
+		double y1 = valueAt(x1);
+		double y2 = valueAt(x2);
 
 		/*
 		 * First, handle the case where fleft and fright refer to the same x (sigle
 		 * point interval)
 		 */
-		if (xl.equals(xr)) {
+		if (Double.compare(xl, xr) == 0) {
 			// The intersection must be in the only possible X point of the second interval
-			Logger.info(
-					"Calculating intersection of <x1,y1>=<{},{}> <x2,y2>=<{},{}>, <xl,yl>=<{},{}> ,<xr,yr>=<{},{}>. Returning {} because the xl==yr",
-					x1, y1, x2, y2, xl, yl, xr, yr, xl);
+			if (Logger.isTraceEnabled()) {
+				Logger.trace(
+						"Calculating intersection of <x1,y1>=<{},{}> <x2,y2>=<{},{}>, <xl,yl>=<{},{}> ,<xr,yr>=<{},{}>. Returning {} because the xl==yr",
+						x1, y1, x2, y2, xl, yl, xr, yr, xl);
+			}
 			return xl;
 		}
 
-		Logger.info("Calculating intersection of <x1,y1>=<{},{}> <x2,y2>=<{},{}>, <xl,yl>=<{},{}> ,<xr,yr>=<{},{}>", x1,
-				y1, x2, y2, xl, yl, xr, yr);
-
 		double slope1 = (y2 - y1) / (x2 - x1);
 		double slope2 = (yr - yl) / (xr - xl);
 
-		Logger.info("The slope of functions is: Slope1={} and Slope2={}", slope1, slope2);
-
 		// This works if x1 and xl are different from 0. Otherwise the "b" in y1=Ax1+b
 		// is directly equal to the "y1"
 		double b1, b2 = 0;
@@ -606,23 +653,44 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 		// This can be 0 if both lines are exactly one over the other. Not impossible.
 		double denominator = slope2 - slope1;
 		// If the lines are exactly one over the other, return the rightmost x
-		Logger.info("The calculated b are b1={} b2={}, numerator={}, and denominator={} ", b1, b2, numerator,
-				denominator);
+		if (Logger.isTraceEnabled()) {
+			Logger.trace(
+					"Calculating intersection of <x1,y1>=<{},{}> <x2,y2>=<{},{}>, <xl,yl>=<{},{}> ,<xr,yr>=<{},{}>: slope1={} slope2={} b1={} b2={}",
+					x1, y1, x2, y2, xl, yl, xr, yr, slope1, slope2, b1, b2);
+		}
 		if (denominator != 0.0) {
-			return (numerator / denominator);
+			// With almost parallel lines, the rounding errors can place the intersection
+			// far from the intervals. Keep it inside both of them.
+			double lowest = Math.max(x1, xl);
+			double largest = Math.min(x2, xr);
+			return Math.min(Math.max(numerator / denominator, lowest), largest);
 		} else {
 			return x2;
 		}
 	}
 
+	@Override
+	public RangeMaximumIndex getRangeMaximumIndex() {
+		RangeMaximumIndex index = maximumIndex;
+		if (index == null || !index.isValidFor(points)) {
+			index = new RangeMaximumIndex(points);
+			maximumIndex = index;
+		}
+		return index;
+	}
+
 	@Override
 	public double getLargestValueAfterX(double p) throws FunctionOperationException {
-		double max = getValueAt(p); // This returns the maximum if p is a discontinuity point.
-		for (ImmutablePair<Double, Double> point : points) {
-			if (point.getLeft() >= p) {
+		double max = valueAt(p); // This returns the maximum if p is a discontinuity point.
+		RangeMaximumIndex index = getRangeMaximumIndex();
+		if (index.isSorted()) {
+			return RangeMaximumIndex.Largest(max, index.getSuffixMax(points.findFirstXExactlyNotLowerThan(p)));
+		}
+		for (int i = 0; i < points.size(); i++) {
+			if (points.getX(i) >= p) {
 				// The x value is eligible
-				if (point.getRight() > max) {
-					max = point.getRight();
+				if (points.getY(i) > max) {
+					max = points.getY(i);
 				}
 			}
 		}
@@ -636,17 +704,29 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 			return getLargestValueAfterX(p);
 		} else {
 			double max = -Double.MAX_VALUE;
+			RangeMaximumIndex index = getRangeMaximumIndex();
+			if (index.isSorted()) {
+				int firstEqual = points.findFirstXNotLowerThan(p, 0);
+				int firstLarger = points.findFirstXLargerThan(p, firstEqual, points.size());
+				if (firstLarger > firstEqual) {
+					// if p is a discontinuity point, the rightmost value in the list is the
+					// eligible
+					max = points.getY(firstLarger - 1);
+				}
+				return RangeMaximumIndex.Largest(max, index.getSuffixMax(firstLarger));
+			}
 			for (int i = 0; i < points.size(); i++) {
-				ImmutablePair<Double, Double> point = points.get(i);
-				if (DoubleMath.fuzzyEquals(point.getLeft(), p, TOLERANCE)) {
+				double x = points.getX(i);
+				double y = points.getY(i);
+				if (DoubleMath.fuzzyEquals(x, p, TOLERANCE)) {
 					// if p is a discontinuity point, the rightmost value in the list is the
 					// eligible
-					max = point.getRight();
+					max = y;
 				} else {
-					if (point.getLeft() > p) {
+					if (x > p) {
 						// The x value is eligible
-						if (point.getRight() > max) {
-							max = point.getRight();
+						if (y > max) {
+							max = y;
 						}
 					}
 				}
@@ -664,13 +744,19 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 
 	@Override
 	public double getLargestValueBeforeX(double p) throws FunctionOperationException {
-		double max = getValueAt(p);
-		Logger.debug("     getLargestValueBeforeX() - for p={}, initial maximum found is value is:{}", p, max);
-		for (ImmutablePair<Double, Double> point : points) {
-			if (point.getLeft() < p) {
+		double max = valueAt(p);
+		if (Logger.isTraceEnabled()) {
+			Logger.trace("     getLargestValueBeforeX() - for p={}, initial maximum found is value is:{}", p, max);
+		}
+		RangeMaximumIndex index = getRangeMaximumIndex();
+		if (index.isSorted()) {
+			return RangeMaximumIndex.Largest(max, index.getPrefixMax(points.findFirstXExactlyNotLowerThan(p)));
+		}
+		for (int i = 0; i < points.size(); i++) {
+			if (points.getX(i) < p) {
 				// The x value is eligible
-				if (point.getRight() > max) {
-					max = point.getRight();
+				if (points.getY(i) > max) {
+					max = points.getY(i);
 				}
 			} else {
 				// Assuming that the function has the points sorted,
@@ -686,15 +772,21 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 		if (approachFromLeft) {
 			return getLargestValueBeforeX(p);
 		}
-		double max = getValueAt(p);
-		Logger.debug(
-				"     getLargestValueBeforeX() approaching from the right, so all values for f(p) are considered - for p={}, initial maximum found is value is:{}",
-				p, max);
-		for (ImmutablePair<Double, Double> point : points) {
-			if (point.getLeft() <= p) {
+		double max = valueAt(p);
+		if (Logger.isTraceEnabled()) {
+			Logger.trace(
+					"     getLargestValueBeforeX() approaching from the right, so all values for f(p) are considered - for p={}, initial maximum found is value is:{}",
+					p, max);
+		}
+		RangeMaximumIndex index = getRangeMaximumIndex();
+		if (index.isSorted()) {
+			return RangeMaximumIndex.Largest(max, index.getPrefixMax(points.findFirstXExactlyLargerThan(p)));
+		}
+		for (int i = 0; i < points.size(); i++) {
+			if (points.getX(i) <= p) {
 				// The x value is eligible
-				if (point.getRight() > max) {
-					max = point.getRight();
+				if (points.getY(i) > max) {
+					max = points.getY(i);
 				}
 			} else {
 				// Assuming that the function has the points sorted,
@@ -718,18 +810,30 @@ public class LinearPiecewiseFunctionImpl implements LinearPieceWiseFunction {
 	}
 
 	private double getLargestValueBetween(double left, double right) throws FunctionOperationException {
-		double max = Math.max(getValueAt(left), getValueAt(right));
-
-		for (ImmutablePair<Double, Double> point : points) {
-			if (DoubleMath.fuzzyCompare(point.getLeft(), left, TOLERANCE) >= 0
-					&& DoubleMath.fuzzyCompare(point.getLeft(), right, TOLERANCE) <= 0) {
+		double max = Math.max(valueAt(left), valueAt(right));
+
+		RangeMaximumIndex index = getRangeMaximumIndex();
+		if (index.isSorted()) {
+			int from = points.findFirstXNotLowerThan(left, 0);
+			int to = points.findFirstXLargerThan(right, from, points.size());
+			max = RangeMaximumIndex.Largest(max, index.getMax(from, to));
+			if (Logger.isTraceEnabled()) {
+				Logger.trace("checking values between {}--{} in function {} and found {}", left, right, points, max);
+			}
+			return max;
+		}
+		for (int i = 0; i < points.size(); i++) {
+			if (DoubleMath.fuzzyCompare(points.getX(i), left, TOLERANCE) >= 0
+					&& DoubleMath.fuzzyCompare(points.getX(i), right, TOLERANCE) <= 0) {
 				// The x value is eligible
-				if (point.getRight() > max) {
-					max = point.getRight();
+				if (points.getY(i) > max) {
+					max = points.getY(i);
 				}
 			}
 		}
-		Logger.info("checking values between {}--{} in function {} and found {}", left, right, points.toString(), max);
+		if (Logger.isTraceEnabled()) {
+			Logger.trace("checking values between {}--{} in function {} and found {}", left, right, points, max);
+		}
 		return max;
 	}
 
@@ -0,0 +1,157 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.functions.impl;
+
+/**
+ * Index over the y values of some datapoints that answers the largest y in a
+ * range of positions. Prefix and suffix maximums are answered in O(1) and
+ * arbitrary ranges in O(1) with a sparse table that is built the first time it
+ * is needed, in O(n log n).
+ * 
+ * The index is a snapshot of the datapoints when it was built. Use
+ * {@link #isValidFor(LinearPieceWiseFunctionDataPoints)} to know whether the
+ * datapoints have been modified afterwards.
+ */
+public class RangeMaximumIndex {
+
+	private final LinearPieceWiseFunctionDataPoints points;
+	private final int modificationCount;
+	private final int size;
+	private final boolean sorted;
+	private final double[] ys;
+
+	// prefixMax[i] is the largest y among positions [0,i) and suffixMax[i] among
+	// positions [i,size)
+	private final double[] prefixMax;
+	private final double[] suffixMax;
+	// sparseTable[k][i] is the largest y among positions [i, i+2^k)
+	private volatile double[][] sparseTable;
+
+	public RangeMaximumIndex(LinearPieceWiseFunctionDataPoints points) {
+		super();
+		this.points = points;
+		this.modificationCount = points.getModificationCount();
+		this.size = points.size();
+
+		ys = new double[size];
+		boolean sortedByX = true;
+		prefixMax = new double[size + 1];
+		prefixMax[0] = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < size; i++) {
+			ys[i] = points.getY(i);
+			// In case of ties, the first point is kept
+			prefixMax[i + 1] = Largest(prefixMax[i], ys[i]);
+			if (i > 0 && points.getX(i) < points.getX(i - 1)) {
+				sortedByX = false;
+			}
+		}
+		sorted = sortedByX;
+
+		suffixMax = new double[size + 1];
+		suffixMax[size] = Double.NEGATIVE_INFINITY;
+		for (int i = size - 1; i >= 0; i--) {
+			// In case of ties, the first point is kept
+			suffixMax[i] = (ys[i] >= suffixMax[i + 1]) ? ys[i] : suffixMax[i + 1];
+		}
+	}
+
+	/**
+	 * @return true if the index was built from these datapoints and they have not
+	 *         been modified since then
+	 */
+	public boolean isValidFor(LinearPieceWiseFunctionDataPoints datapoints) {
+		return points == datapoints && modificationCount == datapoints.getModificationCount();
+	}
+
+	/**
+	 * @return true if the datapoints were sorted by x when the index was built.
+	 *         Otherwise, the ranges of positions do not correspond to ranges of x.
+	 */
+	public boolean isSorted() {
+		return sorted;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return The largest y among positions [0,to), or negative infinity if the
+	 *         range is empty
+	 */
+	public double getPrefixMax(int to) {
+		return prefixMax[to];
+	}
+
+	/**
+	 * @return The largest y among positions [from,size), or negative infinity if
+	 *         the range is empty
+	 */
+	public double getSuffixMax(int from) {
+		return suffixMax[from];
+	}
+
+	/**
+	 * @return The largest y among positions [from,to), or negative infinity if the
+	 *         range is empty
+	 */
+	public double getMax(int from, int to) {
+		if (from >= to) {
+			return Double.NEGATIVE_INFINITY;
+		}
+		if (from == 0) {
+			return prefixMax[to];
+		}
+		if (to == size) {
+			return suffixMax[from];
+		}
+		double[][] table = getSparseTable();
+		int level = 31 - Integer.numberOfLeadingZeros(to - from);
+		return Largest(table[level][from], table[level][to - (1 << level)]);
+	}
+
+	private double[][] getSparseTable() {
+		if (sparseTable == null) {
+			int levels = (size == 0) ? 1 : 32 - Integer.numberOfLeadingZeros(size);
+			double[][] table = new double[levels][];
+			table[0] = ys;
+			for (int k = 1; k < levels; k++) {
+				int half = 1 << (k - 1);
+				table[k] = new double[size - (1 << k) + 1];
+				for (int i = 0; i < table[k].length; i++) {
+					table[k][i] = Largest(table[k - 1][i], table[k - 1][i + half]);
+				}
+			}
+			sparseTable = table;
+		}
+		return sparseTable;
+	}
+
+	/**
+	 * @return The candidate only if it is strictly larger than the current maximum,
+	 *         the same decision taken by the linear scans over the datapoints
+	 */
+	static double Largest(double currentMax, double candidate) {
+		return (candidate > currentMax) ? candidate : currentMax;
+	}
+
+}
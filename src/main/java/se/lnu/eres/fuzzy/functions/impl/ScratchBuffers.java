@@ -0,0 +1,100 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.functions.impl;
+
+/**
+ * Primitive arrays that {@link LinearPieceWiseFunctionDataPoints} reuses as
+ * temporary storage when it sorts, merges and evaluates points, so that these operations
+ * do not create new arrays every time. There is one set of arrays per thread,
+ * and the arrays only grow, up to the size of the largest datapoints processed
+ * in the thread.
+ * 
+ * An array obtained from the buffers is only valid until the next request of
+ * the same array in the same thread, so a method must not call other methods
+ * that use the same array while it is using it.
+ */
+final class ScratchBuffers {
+
+	private static final ThreadLocal<ScratchBuffers> Buffers = ThreadLocal.withInitial(ScratchBuffers::new);
+
+	private int[] order = new int[0];
+	private int[] mergeBuffer = new int[0];
+	private double[] keys = new double[0];
+	private double[] xs = new double[0];
+	private double[] ys = new double[0];
+	private int[] intervals = new int[0];
+
+	private ScratchBuffers() {
+		super();
+	}
+
+	static ScratchBuffers ForCurrentThread() {
+		return Buffers.get();
+	}
+
+	int[] order(int capacity) {
+		if (order.length < capacity) {
+			order = new int[NewCapacity(order.length, capacity)];
+		}
+		return order;
+	}
+
+	int[] mergeBuffer(int capacity) {
+		if (mergeBuffer.length < capacity) {
+			mergeBuffer = new int[NewCapacity(mergeBuffer.length, capacity)];
+		}
+		return mergeBuffer;
+	}
+
+	double[] keys(int capacity) {
+		if (keys.length < capacity) {
+			keys = new double[NewCapacity(keys.length, capacity)];
+		}
+		return keys;
+	}
+
+	double[] xs(int capacity) {
+		if (xs.length < capacity) {
+			xs = new double[NewCapacity(xs.length, capacity)];
+		}
+		return xs;
+	}
+
+	double[] ys(int capacity) {
+		if (ys.length < capacity) {
+			ys = new double[NewCapacity(ys.length, capacity)];
+		}
+		return ys;
+	}
+
+	int[] intervals(int capacity) {
+		if (intervals.length < capacity) {
+			intervals = new int[NewCapacity(intervals.length, capacity)];
+		}
+		return intervals;
+	}
+
+	private static int NewCapacity(int current, int required) {
+		return Math.max(required, current * 2);
+	}
+
+}
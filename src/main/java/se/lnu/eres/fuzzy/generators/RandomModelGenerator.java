@@ -0,0 +1,353 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.generators;
+
+import java.util.Random;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.FuzzyNumber;
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.impl.FuzzyBooleanImpl;
+import se.lnu.eres.fuzzy.functions.impl.FuzzyNumberImpl;
+import se.lnu.eres.fuzzy.functions.impl.ImmutableLinearPiecewiseFunction;
+import se.lnu.eres.fuzzy.functions.impl.LinearPiecewiseFunctionImpl;
+import se.lnu.eres.fuzzy.goals.Goal;
+import se.lnu.eres.fuzzy.goals.GoalModel;
+import se.lnu.eres.fuzzy.goals.GoalType;
+import se.lnu.eres.fuzzy.goals.LeafGoal;
+import se.lnu.eres.fuzzy.goals.LeafGoalType;
+import se.lnu.eres.fuzzy.goals.ReductionStrategy;
+import se.lnu.eres.fuzzy.goals.impl.GoalFactory;
+import se.lnu.eres.fuzzy.goals.impl.LeafGoalImpl;
+
+/**
+ * Seeded generator of random fuzzy numbers, fuzzy booleans, leaf goal truth
+ * values and goal trees, to test and benchmark the engine with models larger
+ * than the hand-written ones.
+ * 
+ * Two generators created with the same seed and configuration return the same
+ * sequence of functions and models, so a failure found with a generated model
+ * can be reproduced from its seed.
+ * 
+ * All the functions are defined in [0, domainUpperBound] (fuzzy booleans in
+ * [0,1]) and have slopeBreakpoints points strictly inside every increasing or
+ * decreasing slope.
+ */
+public class RandomModelGenerator {
+
+	private static final Logger Logger = LogManager.getLogger(RandomModelGenerator.class.getSimpleName());
+
+	private final long seed;
+	private final Random random;
+
+	private int depth = 3;
+	private int fanOut = 4;
+	private int slopeBreakpoints = 2;
+	private double domainUpperBound = 1.0;
+	private double andProbability = 0.5;
+	private ReductionStrategy reductionStrategy = ReductionStrategy.FOLD;
+
+	private int createdLeaves = 0;
+
+	public RandomModelGenerator(long seed) {
+		super();
+		this.seed = seed;
+		this.random = new Random(seed);
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * @param depth Number of levels of intermediate goals above the leaves. 0
+	 *              creates trees with a single leaf goal
+	 */
+	public void setDepth(int depth) {
+		if (depth < 0) {
+			throw new IllegalArgumentException("The depth of the goal tree cannot be negative: " + depth);
+		}
+		this.depth = depth;
+	}
+
+	public int getFanOut() {
+		return fanOut;
+	}
+
+	/**
+	 * @param fanOut Number of children of every intermediate goal
+	 */
+	public void setFanOut(int fanOut) {
+		if (fanOut < 1) {
+			throw new IllegalArgumentException("Intermediate goals need at least one child: " + fanOut);
+		}
+		this.fanOut = fanOut;
+	}
+
+	public int getSlopeBreakpoints() {
+		return slopeBreakpoints;
+	}
+
+	/**
+	 * @param slopeBreakpoints Number of points strictly inside each slope of the
+	 *                         generated functions
+	 */
+	public void setSlopeBreakpoints(int slopeBreakpoints) {
+		if (slopeBreakpoints < 0) {
+			throw new IllegalArgumentException("The number of breakpoints cannot be negative: " + slopeBreakpoints);
+		}
+		this.slopeBreakpoints = slopeBreakpoints;
+	}
+
+	public double getDomainUpperBound() {
+		return domainUpperBound;
+	}
+
+	/**
+	 * @param domainUpperBound Largest x of the generated fuzzy numbers and truth
+	 *                         values
+	 */
+	public void setDomainUpperBound(double domainUpperBound) {
+		if (domainUpperBound <= 0) {
+			throw new IllegalArgumentException("The upper bound of the domain must be positive: " + domainUpperBound);
+		}
+		this.domainUpperBound = domainUpperBound;
+	}
+
+	public double getAndProbability() {
+		return andProbability;
+	}
+
+	/**
+	 * @param andProbability Probability that an intermediate goal is an AND goal.
+	 *                       Otherwise, it is an OR goal
+	 */
+	public void setAndProbability(double andProbability) {
+		if (andProbability < 0 || andProbability > 1) {
+			throw new IllegalArgumentException("Not a probability: " + andProbability);
+		}
+		this.andProbability = andProbability;
+	}
+
+	public ReductionStrategy getReductionStrategy() {
+		return reductionStrategy;
+	}
+
+	public void setReductionStrategy(ReductionStrategy reductionStrategy) {
+		this.reductionStrategy = reductionStrategy;
+	}
+
+	/**
+	 * @return The number of leaves of the trees created with the current
+	 *         configuration
+	 */
+	public long getLeavesPerTree() {
+		long leaves = 1;
+		for (int i = 0; i < depth; i++) {
+			leaves *= fanOut;
+		}
+		return leaves;
+	}
+
+	/**
+	 * @return A fuzzy number in [0, domainUpperBound] that is 0 until its support,
+	 *         increases to 1, may stay at 1 for a while, and decreases to 0 again
+	 *         before domainUpperBound
+	 * @throws FunctionOperationException if the breakpoints are so dense for the
+	 *                                    domain that the result is not a fuzzy
+	 *                                    number
+	 */
+	public FuzzyNumber createFuzzyNumber() throws FunctionOperationException {
+		return new FuzzyNumberImpl(createFuzzyNumberFunction(domainUpperBound));
+	}
+
+	/**
+	 * @return A fuzzy boolean, i.e., a fuzzy number in [0,1]
+	 * @throws FunctionOperationException if the breakpoints are so dense that the
+	 *                                    result is not a fuzzy number
+	 */
+	public FuzzyBoolean createFuzzyBoolean() throws FunctionOperationException {
+		return new FuzzyBooleanImpl(createFuzzyNumberFunction(1.0));
+	}
+
+	private LinearPieceWiseFunction createFuzzyNumberFunction(double upperBound) throws FunctionOperationException {
+		double supportStart = upperBound * (0.05 + 0.3 * random.nextDouble());
+		double coreStart = supportStart + upperBound * (0.05 + 0.1 * random.nextDouble());
+		double coreEnd = coreStart + upperBound * 0.1 * random.nextDouble();
+		double supportEnd = coreEnd + upperBound * (0.05 + 0.1 * random.nextDouble());
+
+		double[] leftXs = increasingValues(slopeBreakpoints, supportStart, coreStart);
+		double[] leftYs = increasingValues(slopeBreakpoints, 0.0, 1.0);
+		double[] rightXs = increasingValues(slopeBreakpoints, coreEnd, supportEnd);
+		double[] rightYs = increasingValues(slopeBreakpoints, 0.0, 1.0);
+
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		function.addPoint(0.0, 0.0);
+		function.addPoint(supportStart, 0.0);
+		for (int i = 0; i < slopeBreakpoints; i++) {
+			function.addPoint(leftXs[i], leftYs[i]);
+		}
+		function.addPoint(coreStart, 1.0);
+		if (coreEnd > coreStart) {
+			function.addPoint(coreEnd, 1.0);
+		}
+		for (int i = 0; i < slopeBreakpoints; i++) {
+			function.addPoint(rightXs[i], rightYs[slopeBreakpoints - 1 - i]);
+		}
+		function.addPoint(supportEnd, 0.0);
+		function.addPoint(upperBound, 0.0);
+
+		if (!FuzzyNumberImpl.IsFuzzyNumber(function)) {
+			throw new FunctionOperationException("Generated function is not a fuzzy number (seed " + seed + "): "
+					+ function);
+		}
+		return function;
+	}
+
+	/**
+	 * @return A truth value in [0, domainUpperBound] for a leaf goal of the given
+	 *         type: increasing from 0 to 1 for LB goals and decreasing from 1 to 0
+	 *         for UB goals. The function is immutable, so it can be shared
+	 */
+	public FuzzyNumber createTruthValue(LeafGoalType type) throws FunctionOperationException {
+		double slopeStart = domainUpperBound * (0.05 + 0.3 * random.nextDouble());
+		double slopeEnd = slopeStart + domainUpperBound * (0.2 + 0.3 * random.nextDouble());
+		double[] xs = increasingValues(slopeBreakpoints, slopeStart, slopeEnd);
+		double[] ys = increasingValues(slopeBreakpoints, 0.0, 1.0);
+
+		ImmutableLinearPiecewiseFunction.Builder function = new ImmutableLinearPiecewiseFunction.Builder();
+		switch (type) {
+		case LB:
+		case MAX:
+			function.addPoint(0.0, 0.0);
+			function.addPoint(slopeStart, 0.0);
+			for (int i = 0; i < slopeBreakpoints; i++) {
+				function.addPoint(xs[i], ys[i]);
+			}
+			function.addPoint(slopeEnd, 1.0);
+			function.addPoint(domainUpperBound, 1.0);
+			break;
+		case UB:
+		case MIN:
+			function.addPoint(0.0, 1.0);
+			function.addPoint(slopeStart, 1.0);
+			for (int i = 0; i < slopeBreakpoints; i++) {
+				function.addPoint(xs[i], ys[slopeBreakpoints - 1 - i]);
+			}
+			function.addPoint(slopeEnd, 0.0);
+			function.addPoint(domainUpperBound, 0.0);
+			break;
+		case INT:
+			// Rising in the first half of the slope, falling after a plateau
+			double riseStart = slopeStart / 2;
+			double riseEnd = slopeEnd / 2;
+			double fallStart = riseEnd + (domainUpperBound - riseEnd) * (0.1 + 0.3 * random.nextDouble());
+			double fallEnd = fallStart + (domainUpperBound - fallStart) * (0.3 + 0.5 * random.nextDouble());
+			double[] fallXs = increasingValues(slopeBreakpoints, fallStart, fallEnd);
+			function.addPoint(0.0, 0.0);
+			function.addPoint(riseStart, 0.0);
+			for (int i = 0; i < slopeBreakpoints; i++) {
+				function.addPoint(xs[i] / 2, ys[i]);
+			}
+			function.addPoint(riseEnd, 1.0);
+			function.addPoint(fallStart, 1.0);
+			for (int i = 0; i < slopeBreakpoints; i++) {
+				function.addPoint(fallXs[i], ys[slopeBreakpoints - 1 - i]);
+			}
+			function.addPoint(fallEnd, 0.0);
+			function.addPoint(domainUpperBound, 0.0);
+			break;
+		default:
+			throw new UnsupportedOperationException("Truth values of " + type + " goals cannot be generated yet");
+		}
+		return new FuzzyNumberImpl(function.build());
+	}
+
+	/**
+	 * @return A LB or UB leaf goal with a random truth value and observation
+	 */
+	public LeafGoal createLeafGoal(String name) throws FunctionOperationException {
+		LeafGoalType type = random.nextBoolean() ? LeafGoalType.LB : LeafGoalType.UB;
+		LeafGoal goal = new LeafGoalImpl(type, createTruthValue(type), name);
+		goal.setObservation(createFuzzyNumber());
+		return goal;
+	}
+
+	/**
+	 * @return The root of a goal tree with the configured depth and fan-out, with
+	 *         AND and OR intermediate goals and observed leaf goals. Leaf names are
+	 *         unique among all the trees created by this generator
+	 */
+	public Goal createGoalTree() throws FunctionOperationException {
+		Logger.debug("Creating goal tree with depth {}, fan-out {} and {} breakpoints per slope", depth, fanOut,
+				slopeBreakpoints);
+		return createGoal(depth);
+	}
+
+	private Goal createGoal(int levelsBelow) throws FunctionOperationException {
+		if (levelsBelow == 0) {
+			return createLeafGoal("leaf" + createdLeaves++);
+		}
+		GoalType type = random.nextDouble() < andProbability ? GoalType.AND : GoalType.OR;
+		Goal goal = GoalFactory.CreateGoal(type, reductionStrategy);
+		for (int i = 0; i < fanOut; i++) {
+			goal.addChild(createGoal(levelsBelow - 1));
+		}
+		return goal;
+	}
+
+	/**
+	 * @return A goal model whose root is a new goal tree
+	 */
+	public GoalModel createGoalModel() throws FunctionOperationException {
+		return GoalFactory.CreateGoalModel(createGoalTree());
+	}
+
+	/**
+	 * @return count strictly increasing values strictly inside (from, to), none of
+	 *         them closer than (to-from)/(2*(count+1)) to its neighbors
+	 */
+	private double[] increasingValues(int count, double from, double to) {
+		double[] gaps = new double[count + 1];
+		double totalGap = 0.0;
+		for (int i = 0; i < gaps.length; i++) {
+			gaps[i] = 1.0 + random.nextDouble();
+			totalGap += gaps[i];
+		}
+		double[] values = new double[count];
+		double value = from;
+		for (int i = 0; i < count; i++) {
+			value += (to - from) * gaps[i] / totalGap;
+			values[i] = value;
+		}
+		return values;
+	}
+
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.goals;
+
+/**
+ * How an intermediate goal bounds the number of breakpoints of the
+ * satisfaction of its children combinations, which otherwise grows with the
+ * intersections added in each merge.
+ * 
+ * EXACT does not approximate. UNIFORM_GRID samples each combination in a grid
+ * of equally spaced points. ADAPTIVE keeps the breakpoints that reduce the
+ * error the most. The error of the approximations is accumulated in
+ * {@link se.lnu.eres.fuzzy.functions.FuzzyBoolean#getApproximationError()}.
+ */
+public enum ApproximationStrategy {
+	EXACT, UNIFORM_GRID, ADAPTIVE
+}
@@ -34,6 +34,34 @@ public interface Goal {
 	
 	void addChild(Goal child);
 	
+	/**
+	 * The result is cached and returned again by the next calls until the goal or
+	 * any goal beneath it changes. Callers must not modify the returned function.
+	 * 
+	 * @return The satisfaction of the goal
+	 * @throws FunctionOperationException
+	 */
 	FuzzyBoolean assessSatisfaction() throws FunctionOperationException;
+
+	/**
+	 * Registers a goal that has this goal as child, so that it is notified when the
+	 * satisfaction of this goal changes. Called by {@link #addChild(Goal)}.
+	 * 
+	 * @param parent
+	 */
+	void addParent(Goal parent);
+
+	List<Goal> getParents();
+
+	/**
+	 * @return true if the next {@link #assessSatisfaction()} returns the cached
+	 *         result without assessing the goal again
+	 */
+	boolean isSatisfactionCached();
+
+	/**
+	 * Discards the cached satisfaction of this goal and of all its ancestors.
+	 */
+	void invalidateSatisfaction();
 	
 }
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.goals;
+
+import java.util.Collection;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.FuzzyNumber;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+
+/**
+ * A goal model whose leaf goals are identified by their name, to which new
+ * observations are pushed one at a time. After each observation only the goals
+ * in the path from the leaf to the root are assessed again; the rest reuse
+ * their cached satisfaction.
+ */
+public interface GoalModel {
+
+	Goal getRoot();
+
+	LeafGoal getLeafGoal(String name) throws FunctionOperationException;
+
+	Collection<LeafGoal> getLeafGoals();
+
+	/**
+	 * Sets the observation of the leaf goal and assesses the model again.
+	 * 
+	 * @param leafName
+	 * @param observation
+	 * @return The updated satisfaction of the root goal
+	 * @throws FunctionOperationException
+	 */
+	FuzzyBoolean updateObservation(String leafName, FuzzyNumber observation) throws FunctionOperationException;
+
+	FuzzyBoolean assessSatisfaction() throws FunctionOperationException;
+
+	/**
+	 * @return Time spent in the last {@link #updateObservation(String, FuzzyNumber)}, in nanoseconds
+	 */
+	long getLastUpdateNanos();
+
+	/**
+	 * @return Number of goals, including the leaf, assessed in the last
+	 *         {@link #updateObservation(String, FuzzyNumber)}
+	 */
+	int getLastUpdateAssessedGoals();
+
+}
@@ -39,5 +39,7 @@ public interface LeafGoal extends Goal {
 	LinearPieceWiseFunction getObservation() throws FunctionOperationException;
 
 	LinearPieceWiseFunction getGoalTruthValue() throws FunctionOperationException;
+
+	String getName();
 	
 }
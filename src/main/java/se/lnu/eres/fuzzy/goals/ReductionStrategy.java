@@ -0,0 +1,34 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.goals;
+
+/**
+ * How an intermediate goal combines the satisfaction of its children.
+ * 
+ * FOLD combines them from left to right: ((c1 op c2) op c3) op ... . TREE
+ * combines them pairwise in a balanced tree: (c1 op c2) op (c3 op c4), so the
+ * most expensive merges are done only log(n) times in a row and the merges in
+ * the same level are independent.
+ */
+public enum ReductionStrategy {
+	FOLD, TREE
+}
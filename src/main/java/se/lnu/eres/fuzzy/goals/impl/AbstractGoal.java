@@ -31,10 +31,14 @@ import org.apache.logging.log4j.Logger;
 import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
 import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
 import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.impl.FunctionApproximation;
+import se.lnu.eres.fuzzy.functions.impl.LinearPieceWiseFunctionCursor;
 import se.lnu.eres.fuzzy.functions.impl.LinearPiecewiseFunctionImpl;
 import se.lnu.eres.fuzzy.functions.impl.FuzzyBooleanImpl;
+import se.lnu.eres.fuzzy.goals.ApproximationStrategy;
 import se.lnu.eres.fuzzy.goals.Goal;
 import se.lnu.eres.fuzzy.goals.GoalType;
+import se.lnu.eres.fuzzy.goals.ReductionStrategy;
 
 public abstract class AbstractGoal implements Goal {
 
@@ -43,11 +47,24 @@ public abstract class AbstractGoal implements Goal {
 	private final GoalType type;
 
 	private List<Goal> children;
+	private final List<Goal> parents = new ArrayList<Goal>();
+	// Last assessed satisfaction, null when it has to be assessed again. Read by
+	// the tasks of other parents in ParallelGoalAssessor
+	private volatile FuzzyBoolean satisfaction = null;
+	// Number of times that the satisfaction has been assessed instead of taken
+	// from the cache
+	private int assessments = 0;
+	private ReductionStrategy reductionStrategy = ReductionStrategy.FOLD;
+	private ApproximationStrategy approximationStrategy = ApproximationStrategy.EXACT;
+	private int maximumBreakpoints = 64;
 
 	public AbstractGoal(GoalType type, List<Goal> children) {
 		super();
 		this.type = type;
 		this.children = children;
+		for (Goal child : children) {
+			child.addParent(this);
+		}
 	}
 
 	public AbstractGoal(GoalType type) {
@@ -67,25 +84,158 @@ public abstract class AbstractGoal implements Goal {
 	@Override
 	public void addChild(Goal child) {
 		children.add(child);
+		child.addParent(this);
+		invalidateSatisfaction();
+
+	}
+
+	@Override
+	public void addParent(Goal parent) {
+		parents.add(parent);
+	}
+
+	@Override
+	public List<Goal> getParents() {
+		return parents;
+	}
+
+	@Override
+	public boolean isSatisfactionCached() {
+		return satisfaction != null;
+	}
+
+	@Override
+	public void invalidateSatisfaction() {
+		if (satisfaction == null) {
+			// Already invalid, and so are the ancestors
+			return;
+		}
+		satisfaction = null;
+		for (Goal parent : parents) {
+			parent.invalidateSatisfaction();
+		}
+	}
+
+	/**
+	 * @return The cached satisfaction, or null if the goal has to be assessed
+	 */
+	FuzzyBoolean getCachedSatisfaction() {
+		return satisfaction;
+	}
+
+	void cacheSatisfaction(FuzzyBoolean satisfaction) {
+		this.satisfaction = satisfaction;
+		assessments++;
+	}
+
+	/**
+	 * @return Number of times that the satisfaction has been assessed instead of
+	 *         taken from the cache
+	 */
+	int getAssessmentCount() {
+		return assessments;
+	}
+
+	public ReductionStrategy getReductionStrategy() {
+		return reductionStrategy;
+	}
+
+	public void setReductionStrategy(ReductionStrategy reductionStrategy) {
+		this.reductionStrategy = reductionStrategy;
+		// The order of the merges changes the approximated satisfaction
+		invalidateSatisfaction();
+	}
+
+	public ApproximationStrategy getApproximationStrategy() {
+		return approximationStrategy;
+	}
+
+	public int getMaximumBreakpoints() {
+		return maximumBreakpoints;
+	}
 
+	/**
+	 * Bounds the number of breakpoints of each combination of the satisfaction of
+	 * the children, so that the cost of the merges in the ancestors does not grow
+	 * with the depth of the tree.
+	 * 
+	 * @param approximationStrategy
+	 * @param maximumBreakpoints    At least 2. Not used by
+	 *                              {@link ApproximationStrategy#EXACT}
+	 */
+	public void setApproximation(ApproximationStrategy approximationStrategy, int maximumBreakpoints) {
+		if (maximumBreakpoints < 2) {
+			throw new IllegalArgumentException("An approximation needs at least 2 breakpoints: " + maximumBreakpoints);
+		}
+		this.approximationStrategy = approximationStrategy;
+		this.maximumBreakpoints = maximumBreakpoints;
+		invalidateSatisfaction();
 	}
 
 	@Override
 	public FuzzyBoolean assessSatisfaction() throws FunctionOperationException {
+		if (satisfaction != null) {
+			return satisfaction;
+		}
 		if (children.size() == 0) {
 			throw new FunctionOperationException(
 					"No possible satisfaction assessment because intermediate goal does not have any child");
 		}
 
-		FuzzyBoolean partialResult = children.getFirst().assessSatisfaction();
+		List<FuzzyBoolean> childrenSatisfaction = new ArrayList<FuzzyBoolean>(children.size());
+		for (Goal child : children) {
+			childrenSatisfaction.add(child.assessSatisfaction());
+		}
+		satisfaction = combine(childrenSatisfaction);
+		assessments++;
+		return satisfaction;
+
+	}
+
+	/**
+	 * Combines the satisfaction of the children, given in the same order as the
+	 * children, into the satisfaction of this goal. Used also by
+	 * {@link ParallelGoalAssessor} after assessing the children concurrently.
+	 * 
+	 * @param childrenSatisfaction
+	 * @return
+	 * @throws FunctionOperationException
+	 */
+	FuzzyBoolean combine(List<FuzzyBoolean> childrenSatisfaction) throws FunctionOperationException {
+		if (reductionStrategy == ReductionStrategy.TREE) {
+			return combineAsTree(childrenSatisfaction, 0, childrenSatisfaction.size());
+		}
+		FuzzyBoolean partialResult = childrenSatisfaction.getFirst();
 		// skip the first
-		for (int i = 1; i < children.size(); i++) {
-			partialResult = assessPartialSatisfactionAllowingDiscontinuous(partialResult,
-					children.get(i).assessSatisfaction());
-			Logger.debug("Partial result at iteration i={} is {}", i, partialResult.getFunction().toString());
+		for (int i = 1; i < childrenSatisfaction.size(); i++) {
+			partialResult = assessPartialSatisfactionAllowingDiscontinuous(partialResult, childrenSatisfaction.get(i));
+			if (Logger.isTraceEnabled()) {
+				Logger.trace("Partial result at iteration i={} is {}", i, partialResult.getFunction());
+			}
 		}
 		return partialResult;
+	}
 
+	/**
+	 * Combines the satisfaction of the children in positions [from,to) halving the
+	 * range, so that the children are combined in a balanced tree.
+	 */
+	private FuzzyBoolean combineAsTree(List<FuzzyBoolean> childrenSatisfaction, int from, int to)
+			throws FunctionOperationException {
+		if (to - from == 1) {
+			return childrenSatisfaction.get(from);
+		}
+		int middle = (from + to) >>> 1;
+		return combine(combineAsTree(childrenSatisfaction, from, middle),
+				combineAsTree(childrenSatisfaction, middle, to));
+	}
+
+	/**
+	 * Combines the satisfaction of two children, or of two already combined groups
+	 * of children.
+	 */
+	FuzzyBoolean combine(FuzzyBoolean f1, FuzzyBoolean f2) throws FunctionOperationException {
+		return assessPartialSatisfactionAllowingDiscontinuous(f1, f2);
 	}
 
 	private FuzzyBoolean assessPartialSatisfactionAllowingDiscontinuous(FuzzyBoolean f1, FuzzyBoolean f2)
@@ -94,7 +244,7 @@ public abstract class AbstractGoal implements Goal {
 		// 1 (5) x,y∈[0,1], where t-norm is the Min
 
 		Logger.debug("Starting assessment of partial satisfaction. Fuzzy booleans are: {}   f1: {} {}   f2: {}", NL,
-				f1.toString(), NL, f2.toString());
+				f1, NL, f2);
 
 		// Get x-points of interest from the points of interest of the two fuzzy
 		// booleans
@@ -103,83 +253,117 @@ public abstract class AbstractGoal implements Goal {
 		// Add as point of interest the x values where the fuzzy booleans intersect (the
 		// minimum value passes from belonging to f1 to f2).
 		/* After this, we known that the full interval is either below or above */
-		Logger.debug("The points of interests for X are: {}", xPointsOfInterest.toString());
+		Logger.trace("The points of interests for X are: {}", xPointsOfInterest);
 		// TODO: find intersections
 		xPointsOfInterest = CollectionUtils.collate(xPointsOfInterest,
 				f1.getFunction().findIntersections(f2.getFunction()), false);
-		Logger.debug("The points of interests after adding the intersections between functions are: {}",
-				xPointsOfInterest.toString());
+		Logger.trace("The points of interests after adding the intersections between functions are: {}",
+				xPointsOfInterest);
 
 		LinearPieceWiseFunction resultFunction = new LinearPiecewiseFunctionImpl();
 
+		// The points of interest are sorted, so the cursors walk each function only
+		// once instead of scanning it for every point
+		LinearPieceWiseFunctionCursor cursor1 = new LinearPieceWiseFunctionCursor(f1.getFunction());
+		LinearPieceWiseFunctionCursor cursor2 = new LinearPieceWiseFunctionCursor(f2.getFunction());
+
+		// Checked once, the loop below runs for every point of interest
+		boolean trace = Logger.isTraceEnabled();
 		// For each point of interests p
 		for (double p : xPointsOfInterest) {
-			Logger.debug("Starting loop for point of intestest {}", p);
+			if (trace) {
+				Logger.trace("Starting loop for point of intestest {}", p);
+			}
 			// here it depends whether the goal is of type AND or OR. Find the largest value
 			// f2(x) such that x=>p or x<=p,
-			double maxYOfInterestInF2 = getLargestValueOfInterestFromFunction(f2, p, true);
+			double maxYOfInterestInF2 = getLargestValueOfInterestFromFunction(cursor2, p, true);
 			// f1(p) may have multiple values:
-			List<Double> f1ValuesAtP = f1.getFunctionValuesAt(p);
-			Logger.debug("   For point {}, the maxYOfInterestInF2={} and the f1 values at the point are:{}", p,
-					maxYOfInterestInF2, f1ValuesAtP.toString());
+			List<Double> f1ValuesAtP = cursor1.getValuesAt(p);
+			if (trace) {
+				Logger.trace("   For point {}, the maxYOfInterestInF2={} and the f1 values at the point are:{}", p,
+						maxYOfInterestInF2, f1ValuesAtP);
+			}
 			// Save the minimums between<f2(x),severalf1(p)>
 			// List<Double> minimums1 = new ArrayList<Double>();
 			// f1ValuesAtP.forEach((d) -> {minimums1.add( Math.min(d,
 			// maxYOfInterestInF2));}) ;
 			// with streams
 			List<Double> minimums1 = setMinimums(f1ValuesAtP, maxYOfInterestInF2,
-					getLargestValueOfInterestFromFunction(f2, p, false));
+					getLargestValueOfInterestFromFunction(cursor2, p, false));
 
 			// here it depends whether the goal is of type AND or OR. Find the largest value
 			// f1(x) such that x=>p or x<=p,
-			double maxYOfInterestInF1 = getLargestValueOfInterestFromFunction(f1, p, true);
+			double maxYOfInterestInF1 = getLargestValueOfInterestFromFunction(cursor1, p, true);
 			// f2(p) may have multiple values
-			List<Double> f2ValuesAtP = f2.getFunctionValuesAt(p);
+			List<Double> f2ValuesAtP = cursor2.getValuesAt(p);
 			// Save the minimums between<several2(x),f1(p)>
 			// with streams
 			List<Double> minimums2 = setMinimums(f2ValuesAtP, maxYOfInterestInF1,
-					getLargestValueOfInterestFromFunction(f1, p, false));
+					getLargestValueOfInterestFromFunction(cursor1, p, false));
 
-			Logger.debug("The minimum values for Y found for x={} have been: f1:{} and f2:{}", p, minimums1.toString(),
-					minimums2.toString());
+			if (trace) {
+				Logger.trace("The minimum values for Y found for x={} have been: f1:{} and f2:{}", p, minimums1,
+						minimums2);
+			}
 
 			for (int i = 0; i < Math.max(minimums1.size(), minimums2.size()); i++) {
 				resultFunction.addPoint(p, Math.max(minimums1.get(Math.min(minimums1.size() - 1, i)),
 						minimums2.get(Math.min(minimums2.size() - 1, i))));
-				Logger.debug(
-						"Added point to result function for the point of interest p={}. Now the result function looks like: {}",
-						p, resultFunction.toString());
+				if (trace) {
+					Logger.trace(
+							"Added point to result function for the point of interest p={}. Now the result function looks like: {}",
+							p, resultFunction);
+				}
 			}
 		}
 
-		Logger.debug("Satisfaction result points calculated. Now sorting datapoints of {}", resultFunction);
+		Logger.trace("Satisfaction result points calculated. Now sorting datapoints of {}", resultFunction);
 		// At this point the result interval has several duplicates and is out of order.
 		// Clean duplicates and sort.
 		resultFunction.getDatapoints().sortByX();
 		// resultFunction.getDatapoints().retainLargestYforReplicatedX();
-		Logger.debug("Satisfaction result points calculated an sorted. Now removing dupulicates from {}", resultFunction);
+		Logger.trace("Satisfaction result points calculated an sorted. Now removing dupulicates from {}", resultFunction);
 		resultFunction.simplifyPiecewiseFunction();
-		return new FuzzyBooleanImpl(resultFunction);
+		// The merge does not increase the distance between functions, so the error
+		// of the result is the largest error of the inputs
+		return approximate(resultFunction, Math.max(f1.getApproximationError(), f2.getApproximationError()));
+	}
+
+	private FuzzyBoolean approximate(LinearPieceWiseFunction function, double inputError)
+			throws FunctionOperationException {
+		FunctionApproximation.Approximation approximation;
+		switch (approximationStrategy) {
+		case UNIFORM_GRID:
+			approximation = FunctionApproximation.ResampleOnGrid(function, maximumBreakpoints);
+			break;
+		case ADAPTIVE:
+			approximation = FunctionApproximation.SimplifyToBreakpoints(function, maximumBreakpoints);
+			break;
+		default: // EXACT
+			return new FuzzyBooleanImpl(function, inputError);
+		}
+		if (Logger.isDebugEnabled()) {
+			Logger.debug("Satisfaction approximated removing {} breakpoints with error {}",
+					approximation.getRemovedBreakpoints(), approximation.getMaximumError());
+		}
+		return new FuzzyBooleanImpl(approximation.getFunction(), inputError + approximation.getMaximumError());
 	}
 
 	/**
-	 * Returns the largest value of interest from function "f", which is the largest
-	 * value after x-axis=p. If the p is approached from left, the maximum value at
+	 * Returns the largest value of interest from the function walked by "cursor",
+	 * which is the largest value after x-axis=p. If the p is approached from left, the maximum value at
 	 * p is considered. If the p is approached from the right and it is a
 	 * discontinuity point, only the rightmost value of of p in the function is
 	 * considered.
 	 * 
-	 * @param f
+	 * @param cursor
 	 * @param p
 	 * @param approachFromLeft
 	 * @return
 	 * @throws FunctionOperationException
 	 */
-	protected abstract double getLargestValueOfInterestFromFunction(FuzzyBoolean f, double p, boolean approachFromLeft)
-			throws FunctionOperationException;
-
-	protected abstract double getLargestValueOfInterestFromFunction(FuzzyBoolean f1, double p)
-			throws FunctionOperationException;
+	protected abstract double getLargestValueOfInterestFromFunction(LinearPieceWiseFunctionCursor cursor, double p,
+			boolean approachFromLeft) throws FunctionOperationException;
 
 	protected abstract List<Double> setMinimums(List<Double> f1ValuesAtP, double maxYOfInterestInF2,
 			double maxYOfInterestInF2ApproachingFromRight);
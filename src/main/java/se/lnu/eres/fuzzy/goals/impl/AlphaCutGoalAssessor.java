@@ -0,0 +1,126 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.goals.impl;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import se.lnu.eres.fuzzy.functions.AlphaCutFuzzyNumber;
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.FuzzyNumber;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.exceptions.FuzzyNumberConversionException;
+import se.lnu.eres.fuzzy.functions.impl.AlphaCutFuzzyNumberImpl;
+import se.lnu.eres.fuzzy.functions.impl.FuzzyBooleanImpl;
+import se.lnu.eres.fuzzy.functions.impl.FuzzyNumberImpl;
+import se.lnu.eres.fuzzy.goals.Goal;
+import se.lnu.eres.fuzzy.goals.GoalType;
+import se.lnu.eres.fuzzy.goals.LeafGoal;
+
+/**
+ * Assesses the satisfaction of a goal tree on the alpha-cuts of the
+ * satisfactions, with a fixed number of levels.
+ * 
+ * The satisfaction of a leaf goal with a monotone truth value is the
+ * extension principle applied to the bounds of the alpha-cuts of its
+ * observation. The rest of leaf goals are assessed from their observation with
+ * {@link LeafGoal#assessSatisfactionFromObservation(FuzzyNumber)} and their
+ * satisfaction is converted. AND goals take the minimum of the alpha-cuts of
+ * their children and OR goals the maximum, which is the same combination of
+ * {@link AbstractGoal} when the satisfactions are fuzzy numbers. The cost of
+ * the combinations depends on the number of levels, not on the number of
+ * datapoints of the satisfactions.
+ * 
+ * The goals are not modified and their cached satisfactions are not used.
+ */
+public class AlphaCutGoalAssessor {
+
+	private static final Logger Logger = LogManager.getLogger(AlphaCutGoalAssessor.class.getSimpleName());
+
+	private final int levelCount;
+
+	/**
+	 * @param levelCount Number of levels, equally spaced between 0 and 1
+	 */
+	public AlphaCutGoalAssessor(int levelCount) {
+		super();
+		if (levelCount < 2) {
+			throw new IllegalArgumentException("At least the levels 0 and 1 are needed: " + levelCount);
+		}
+		this.levelCount = levelCount;
+	}
+
+	public int getLevelCount() {
+		return levelCount;
+	}
+
+	/**
+	 * @return The satisfaction of the goal as a function
+	 * @throws FuzzyNumberConversionException If an observation or a satisfaction
+	 *                                        is not a fuzzy number
+	 */
+	public FuzzyBoolean assessSatisfaction(Goal goal) throws FunctionOperationException, FuzzyNumberConversionException {
+		return new FuzzyBooleanImpl(assessAlphaCuts(goal).toFunction());
+	}
+
+	/**
+	 * @return The alpha-cuts of the satisfaction of the goal
+	 * @throws FuzzyNumberConversionException If an observation or a satisfaction
+	 *                                        is not a fuzzy number
+	 */
+	public AlphaCutFuzzyNumber assessAlphaCuts(Goal goal) throws FunctionOperationException, FuzzyNumberConversionException {
+		if (goal instanceof LeafGoal) {
+			return assessLeaf((LeafGoal) goal);
+		}
+		if (goal.getChildren().isEmpty()) {
+			throw new FunctionOperationException(
+					"No possible satisfaction assessment because intermediate goal does not have any child");
+		}
+		AlphaCutFuzzyNumber satisfaction = null;
+		for (Goal child : goal.getChildren()) {
+			AlphaCutFuzzyNumber childSatisfaction = assessAlphaCuts(child);
+			if (satisfaction == null) {
+				satisfaction = childSatisfaction;
+			} else if (goal.getType() == GoalType.AND) {
+				satisfaction = satisfaction.min(childSatisfaction);
+			} else {
+				satisfaction = satisfaction.max(childSatisfaction);
+			}
+		}
+		Logger.trace("Alpha-cuts of {} goal are: {}", goal.getType(), satisfaction);
+		return satisfaction;
+	}
+
+	private AlphaCutFuzzyNumber assessLeaf(LeafGoal leaf) throws FunctionOperationException, FuzzyNumberConversionException {
+		switch (leaf.getLeafType()) {
+		case INT:
+			// A level of the satisfaction comes from two pieces of the truth value
+			return AlphaCutFuzzyNumberImpl.FromFunction(
+					leaf.assessSatisfactionFromObservation(new FuzzyNumberImpl(leaf.getObservation())).getFunction(),
+					levelCount);
+		default: // (LB, UB, MIN, MAX)
+			return AlphaCutFuzzyNumberImpl.FromFunction(leaf.getObservation(), levelCount)
+					.map(leaf.getGoalTruthValue());
+		}
+	}
+
+}
@@ -30,9 +30,9 @@ import org.apache.logging.log4j.Logger;
 
 import com.google.common.math.DoubleMath;
 
-import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
 import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
 import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.impl.LinearPieceWiseFunctionCursor;
 import se.lnu.eres.fuzzy.goals.Goal;
 import se.lnu.eres.fuzzy.goals.GoalType;
 
@@ -49,16 +49,10 @@ class GoalAndImpl extends AbstractGoal implements Goal {
 	}
 
 	@Override
-	protected double getLargestValueOfInterestFromFunction(FuzzyBoolean f, double p) throws FunctionOperationException {
-		//find the largest value f(x) such that x>=p, 
-		return f.getLargestValueAfterX(p,true);
-	}
-
-	@Override
-	protected double getLargestValueOfInterestFromFunction(FuzzyBoolean f, double p, boolean approachFromLeft)
-			throws FunctionOperationException {
+	protected double getLargestValueOfInterestFromFunction(LinearPieceWiseFunctionCursor cursor, double p,
+			boolean approachFromLeft) throws FunctionOperationException {
 		//find the largest value f(x) such that x>p, may be a discontinuity point 
-		return f.getLargestValueAfterX(p,approachFromLeft);
+		return cursor.getLargestValueAfterX(p,approachFromLeft);
 	}
 	
 	@Override
@@ -76,11 +70,13 @@ class GoalAndImpl extends AbstractGoal implements Goal {
 		if (minimums.size() > 1 && (!DoubleMath.fuzzyEquals(maxYOfInterestInF2ApproachingFromRight, maxYOfInterestInF2,
 				LinearPieceWiseFunction.TOLERANCE))) { // Both are discontinuity
 
-			Logger.debug(
-					"The minimums of a discontinuous function are going to change. Input was f:{}, maximum values in f2 were: {}, {}",
-					f1ValuesAtP.toString(), maxYOfInterestInF2, maxYOfInterestInF2ApproachingFromRight);
-			double lastMinimum =minimums.removeLast();
-			Logger.debug("The last value of the list of minimus was:{}", lastMinimum);
+			if (Logger.isTraceEnabled()) {
+				Logger.trace(
+						"The minimums of a discontinuous function are going to change. Input was f:{}, maximum values in f2 were: {}, {}",
+						f1ValuesAtP, maxYOfInterestInF2, maxYOfInterestInF2ApproachingFromRight);
+			}
+			Double lastMinimum =minimums.removeLast();
+			Logger.trace("The last value of the list of minimus was:{}", lastMinimum);
 			
 			minimums.addLast(Math.min(f1ValuesAtP.get( f1ValuesAtP.size() - 1), maxYOfInterestInF2ApproachingFromRight));
 
@@ -23,7 +23,9 @@ package se.lnu.eres.fuzzy.goals.impl;
 
 import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
 import se.lnu.eres.fuzzy.goals.Goal;
+import se.lnu.eres.fuzzy.goals.GoalModel;
 import se.lnu.eres.fuzzy.goals.GoalType;
+import se.lnu.eres.fuzzy.goals.ReductionStrategy;
 
 public class GoalFactory {
 
@@ -38,4 +40,21 @@ public class GoalFactory {
 	}
 	
 }
+
+	public static Goal CreateGoal(GoalType t, ReductionStrategy reductionStrategy) throws FunctionOperationException {
+		AbstractGoal goal = (AbstractGoal) CreateGoal(t);
+		goal.setReductionStrategy(reductionStrategy);
+		return goal;
+	}
+
+	/**
+	 * @param root
+	 * @return A goal model to push observations to the leaves under root by their
+	 *         name, which must be unique
+	 * @throws FunctionOperationException If two leaf goals have the same name
+	 */
+	public static GoalModel CreateGoalModel(Goal root) throws FunctionOperationException {
+		return new GoalModelImpl(root);
+	}
+
 }
@@ -0,0 +1,333 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.goals.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToIntFunction;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.FuzzyNumber;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.impl.FuzzyNumberImpl;
+import se.lnu.eres.fuzzy.functions.impl.LinearPieceWiseFunctionDataPoints;
+import se.lnu.eres.fuzzy.functions.impl.LinearPiecewiseFunctionImpl;
+import se.lnu.eres.fuzzy.goals.Goal;
+import se.lnu.eres.fuzzy.goals.GoalModel;
+import se.lnu.eres.fuzzy.goals.LeafGoal;
+
+/**
+ * Assesses the root satisfaction of a goal model for every scenario in an
+ * {@link ObservationBatch}, without setting the observations in the leaf goals.
+ * 
+ * The structure of the goal model is copied when the evaluator is created and
+ * the goals are not modified afterwards, so the scenarios are assessed
+ * concurrently. The tables of the truth values of the leaves are calculated
+ * once and shared by all the scenarios.
+ * 
+ * The observations come from an {@link ObservationBatch} in memory or from an
+ * {@link ObservationArchive}, whose datapoints are loaded from the mapped file
+ * into arrays reused by each thread.
+ * 
+ * Ranges of at most sequentialScenarios scenarios are assessed sequentially in
+ * a single task.
+ */
+public class GoalModelBatchEvaluator {
+
+	private static final Logger Logger = LogManager.getLogger(GoalModelBatchEvaluator.class.getSimpleName());
+
+	public static final int DEFAULT_SEQUENTIAL_SCENARIOS = 4;
+
+	private final ForkJoinPool pool;
+	private final int sequentialScenarios;
+	private final Node root;
+	private final List<LeafNode> leaves = new ArrayList<LeafNode>();
+
+	public GoalModelBatchEvaluator(GoalModel model) throws FunctionOperationException {
+		this(model, ForkJoinPool.commonPool(), DEFAULT_SEQUENTIAL_SCENARIOS);
+	}
+
+	public GoalModelBatchEvaluator(GoalModel model, ForkJoinPool pool) throws FunctionOperationException {
+		this(model, pool, DEFAULT_SEQUENTIAL_SCENARIOS);
+	}
+
+	/**
+	 * @param model
+	 * @param pool
+	 * @param sequentialScenarios At least 1. Maximum number of scenarios assessed
+	 *                            in a single task
+	 * @throws FunctionOperationException
+	 */
+	public GoalModelBatchEvaluator(GoalModel model, ForkJoinPool pool, int sequentialScenarios)
+			throws FunctionOperationException {
+		super();
+		if (sequentialScenarios < 1) {
+			throw new IllegalArgumentException(
+					"At least 1 scenario must be assessed in each task: " + sequentialScenarios);
+		}
+		this.pool = pool;
+		this.sequentialScenarios = sequentialScenarios;
+		this.root = createNode(model.getRoot());
+	}
+
+	public int getSequentialScenarios() {
+		return sequentialScenarios;
+	}
+
+	private Node createNode(Goal goal) throws FunctionOperationException {
+		if (goal instanceof LeafGoal) {
+			LeafNode leaf = new LeafNode((LeafGoal) goal, leaves.size());
+			leaves.add(leaf);
+			return leaf;
+		}
+		if (!(goal instanceof AbstractGoal)) {
+			throw new FunctionOperationException(
+					"Batch evaluation is not supported for goals of " + goal.getClass().getSimpleName());
+		}
+		if (goal.getChildren().isEmpty()) {
+			throw new FunctionOperationException(
+					"No possible satisfaction assessment because intermediate goal does not have any child");
+		}
+		List<Node> children = new ArrayList<Node>(goal.getChildren().size());
+		for (Goal child : goal.getChildren()) {
+			children.add(createNode(child));
+		}
+		return new IntermediateNode((AbstractGoal) goal, children);
+	}
+
+	/**
+	 * @param batch
+	 * @return The satisfaction of the root goal in each scenario of the batch
+	 * @throws FunctionOperationException If the batch lacks the observation of a
+	 *                                    leaf goal or the assessment fails
+	 */
+	public List<FuzzyBoolean> assessSatisfaction(ObservationBatch batch) throws FunctionOperationException {
+		int[] columns = findColumns(batch::getLeafIndex, "batch");
+		return assessSatisfaction(new BatchObservations(batch, columns), 0, batch.getScenarioCount());
+	}
+
+	/**
+	 * @param archive
+	 * @return The satisfaction of the root goal in each scenario of the archive
+	 * @throws FunctionOperationException If the archive lacks the observation of a
+	 *                                    leaf goal or the assessment fails
+	 */
+	public List<FuzzyBoolean> assessSatisfaction(ObservationArchive archive) throws FunctionOperationException {
+		return assessSatisfaction(archive, 0, archive.getScenarioCount());
+	}
+
+	/**
+	 * @param archive
+	 * @param from    First scenario
+	 * @param to      Scenario after the last one
+	 * @return The satisfaction of the root goal in each scenario from, from+1 ...
+	 *         to-1 of the archive
+	 * @throws FunctionOperationException If the archive lacks the observation of a
+	 *                                    leaf goal or the assessment fails
+	 */
+	public List<FuzzyBoolean> assessSatisfaction(ObservationArchive archive, int from, int to)
+			throws FunctionOperationException {
+		if (from < 0 || from > to || to > archive.getScenarioCount()) {
+			throw new IndexOutOfBoundsException(
+					"Scenarios [" + from + ", " + to + ") out of the " + archive.getScenarioCount() + " of the archive");
+		}
+		int[] columns = findColumns(archive::getLeafIndex, "archive");
+		return assessSatisfaction(new ArchiveObservations(archive, columns), from, to);
+	}
+
+	/**
+	 * @return The column of the observations used by each leaf
+	 */
+	private int[] findColumns(ToIntFunction<String> leafIndexes, String source) throws FunctionOperationException {
+		int[] columns = new int[leaves.size()];
+		for (LeafNode leaf : leaves) {
+			columns[leaf.id] = leafIndexes.applyAsInt(leaf.goal.getName());
+			if (columns[leaf.id] < 0) {
+				throw new FunctionOperationException("The " + source + " does not contain observations for leaf goal '"
+						+ leaf.goal.getName() + "'");
+			}
+		}
+		return columns;
+	}
+
+	private List<FuzzyBoolean> assessSatisfaction(Observations observations, int from, int to)
+			throws FunctionOperationException {
+		FuzzyBoolean[] results = new FuzzyBoolean[to - from];
+		Logger.debug("Assessing {} scenarios with {} sequential scenarios", results.length, sequentialScenarios);
+		try {
+			pool.invoke(new ScenarioRangeTask(observations, results, from, from, to));
+		} catch (RuntimeException e) {
+			// The tasks wrap the checked exceptions. Throw the original one.
+			for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+				if (cause instanceof FunctionOperationException) {
+					throw (FunctionOperationException) cause;
+				}
+			}
+			throw e;
+		}
+		return Collections.unmodifiableList(Arrays.asList(results));
+	}
+
+	/**
+	 * Where the leaves find their observation in each scenario
+	 */
+	private interface Observations {
+		FuzzyBoolean assessLeaf(LeafNode leaf, int scenario) throws FunctionOperationException;
+	}
+
+	private static class BatchObservations implements Observations {
+		private final ObservationBatch batch;
+		// Column of the batch used by each leaf
+		private final int[] columns;
+
+		BatchObservations(ObservationBatch batch, int[] columns) {
+			this.batch = batch;
+			this.columns = columns;
+		}
+
+		@Override
+		public FuzzyBoolean assessLeaf(LeafNode leaf, int scenario) throws FunctionOperationException {
+			FuzzyNumber observation = batch.getObservation(columns[leaf.id], scenario);
+			if (observation == null) {
+				throw new FunctionOperationException(
+						"Observation of leaf goal '" + leaf.goal.getName() + "' was not set for scenario " + scenario);
+			}
+			return leaf.goal.assessSatisfactionFromObservation(observation);
+		}
+	}
+
+	private static class ArchiveObservations implements Observations {
+		// The datapoints are only read during the assessment of a leaf, so each
+		// thread loads all the observations in the same arrays
+		private static final ThreadLocal<LinearPieceWiseFunctionDataPoints> Points = ThreadLocal
+				.withInitial(LinearPieceWiseFunctionDataPoints::new);
+
+		private final ObservationArchive archive;
+		// Leaf of the archive used by each leaf
+		private final int[] columns;
+
+		ArchiveObservations(ObservationArchive archive, int[] columns) {
+			this.archive = archive;
+			this.columns = columns;
+		}
+
+		@Override
+		public FuzzyBoolean assessLeaf(LeafNode leaf, int scenario) throws FunctionOperationException {
+			LinearPieceWiseFunctionDataPoints points = Points.get();
+			if (!archive.loadObservation(columns[leaf.id], scenario, points)) {
+				throw new FunctionOperationException("Observation of leaf goal '" + leaf.goal.getName()
+						+ "' was not set for scenario " + archive.getScenarioId(scenario));
+			}
+			if (leaf.goal instanceof LeafGoalImpl) {
+				return ((LeafGoalImpl) leaf.goal).assessSatisfactionFromObservationPoints(points);
+			}
+			return leaf.goal.assessSatisfactionFromObservation(
+					new FuzzyNumberImpl(new LinearPiecewiseFunctionImpl(new LinearPieceWiseFunctionDataPoints(points))));
+		}
+	}
+
+	private abstract static class Node {
+		abstract FuzzyBoolean assess(Observations observations, int scenario) throws FunctionOperationException;
+	}
+
+	private static class LeafNode extends Node {
+		private final LeafGoal goal;
+		// Position of the leaf in the columns array
+		private final int id;
+
+		LeafNode(LeafGoal goal, int id) {
+			this.goal = goal;
+			this.id = id;
+		}
+
+		@Override
+		FuzzyBoolean assess(Observations observations, int scenario) throws FunctionOperationException {
+			return observations.assessLeaf(this, scenario);
+		}
+	}
+
+	private static class IntermediateNode extends Node {
+		private final AbstractGoal goal;
+		private final List<Node> children;
+
+		IntermediateNode(AbstractGoal goal, List<Node> children) {
+			this.goal = goal;
+			this.children = children;
+		}
+
+		@Override
+		FuzzyBoolean assess(Observations observations, int scenario) throws FunctionOperationException {
+			List<FuzzyBoolean> childrenSatisfaction = new ArrayList<FuzzyBoolean>(children.size());
+			for (Node child : children) {
+				childrenSatisfaction.add(child.assess(observations, scenario));
+			}
+			// combine() does not use nor modify the cached satisfaction of the goal
+			return goal.combine(childrenSatisfaction);
+		}
+	}
+
+	private class ScenarioRangeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Observations observations;
+		private final FuzzyBoolean[] results;
+		// Scenario of results[0]
+		private final int first;
+		private final int from;
+		private final int to;
+
+		ScenarioRangeTask(Observations observations, FuzzyBoolean[] results, int first, int from, int to) {
+			super();
+			this.observations = observations;
+			this.results = results;
+			this.first = first;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > sequentialScenarios) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ScenarioRangeTask(observations, results, first, from, middle),
+						new ScenarioRangeTask(observations, results, first, middle, to));
+				return;
+			}
+			try {
+				for (int scenario = from; scenario < to; scenario++) {
+					results[scenario - first] = root.assess(observations, scenario);
+				}
+			} catch (FunctionOperationException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.goals.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.FuzzyNumber;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.goals.Goal;
+import se.lnu.eres.fuzzy.goals.GoalModel;
+import se.lnu.eres.fuzzy.goals.LeafGoal;
+
+class GoalModelImpl implements GoalModel {
+
+	private static final Logger Logger = LogManager.getLogger(GoalModelImpl.class.getSimpleName());
+
+	private final Goal root;
+	private final Map<String, LeafGoal> leaves = new LinkedHashMap<String, LeafGoal>();
+	private final Set<Goal> goals = Collections.newSetFromMap(new IdentityHashMap<Goal, Boolean>());
+
+	private long lastUpdateNanos = 0;
+	private int lastUpdateAssessedGoals = 0;
+
+	public GoalModelImpl(Goal root) throws FunctionOperationException {
+		super();
+		this.root = root;
+		addLeaves(root);
+	}
+
+	private void addLeaves(Goal goal) throws FunctionOperationException {
+		if (!goals.add(goal)) {
+			// Already visited through another parent
+			return;
+		}
+		if (goal instanceof LeafGoal) {
+			LeafGoal leaf = (LeafGoal) goal;
+			if (leaves.containsKey(leaf.getName())) {
+				throw new FunctionOperationException(
+						"Leaf goal name '" + leaf.getName() + "' is not unique in the goal model");
+			}
+			leaves.put(leaf.getName(), leaf);
+		} else {
+			for (Goal child : goal.getChildren()) {
+				addLeaves(child);
+			}
+		}
+	}
+
+	@Override
+	public Goal getRoot() {
+		return root;
+	}
+
+	@Override
+	public LeafGoal getLeafGoal(String name) throws FunctionOperationException {
+		LeafGoal leaf = leaves.get(name);
+		if (leaf == null) {
+			throw new FunctionOperationException("Leaf goal '" + name + "' does not exist in the goal model");
+		}
+		return leaf;
+	}
+
+	@Override
+	public Collection<LeafGoal> getLeafGoals() {
+		return Collections.unmodifiableCollection(leaves.values());
+	}
+
+	@Override
+	public FuzzyBoolean updateObservation(String leafName, FuzzyNumber observation)
+			throws FunctionOperationException {
+		LeafGoal leaf = getLeafGoal(leafName);
+		// Only the leaf and its ancestors can be assessed again
+		List<Goal> path = findPathToRoot(leaf);
+		int assessmentsBefore = CountAssessments(path);
+		long start = System.nanoTime();
+		leaf.setObservation(observation);
+		FuzzyBoolean result = root.assessSatisfaction();
+		lastUpdateNanos = System.nanoTime() - start;
+		lastUpdateAssessedGoals = CountAssessments(path) - assessmentsBefore;
+		if (Logger.isDebugEnabled()) {
+			Logger.debug("Observation of leaf goal '{}' updated assessing {} goals in {} ns", leafName,
+					lastUpdateAssessedGoals, lastUpdateNanos);
+		}
+		return result;
+	}
+
+	/**
+	 * @return The goal and its ancestors up to the root, each once. Parents out of
+	 *         the model are not followed
+	 */
+	private List<Goal> findPathToRoot(Goal goal) {
+		List<Goal> path = new ArrayList<Goal>();
+		Set<Goal> visited = Collections.newSetFromMap(new IdentityHashMap<Goal, Boolean>());
+		visited.add(goal);
+		path.add(goal);
+		for (int i = 0; i < path.size(); i++) {
+			Goal current = path.get(i);
+			if (current == root) {
+				continue;
+			}
+			for (Goal parent : current.getParents()) {
+				if (goals.contains(parent) && visited.add(parent)) {
+					path.add(parent);
+				}
+			}
+		}
+		return path;
+	}
+
+	/**
+	 * Sums the times that the goals have been assessed instead of taken from the
+	 * cache, so that the difference between two calls are the goals assessed in
+	 * between
+	 */
+	private static int CountAssessments(List<Goal> goals) {
+		int count = 0;
+		for (Goal goal : goals) {
+			if (goal instanceof AbstractGoal) {
+				count += ((AbstractGoal) goal).getAssessmentCount();
+			} else if (goal instanceof LeafGoalImpl) {
+				count += ((LeafGoalImpl) goal).getAssessmentCount();
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public FuzzyBoolean assessSatisfaction() throws FunctionOperationException {
+		return root.assessSatisfaction();
+	}
+
+	@Override
+	public long getLastUpdateNanos() {
+		return lastUpdateNanos;
+	}
+
+	@Override
+	public int getLastUpdateAssessedGoals() {
+		return lastUpdateAssessedGoals;
+	}
+
+}
@@ -30,9 +30,9 @@ import org.apache.logging.log4j.Logger;
 
 import com.google.common.math.DoubleMath;
 
-import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
 import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
 import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.impl.LinearPieceWiseFunctionCursor;
 import se.lnu.eres.fuzzy.goals.Goal;
 import se.lnu.eres.fuzzy.goals.GoalType;
 
@@ -50,17 +50,10 @@ class GoalOrImpl extends AbstractGoal implements Goal {
 
 
 	@Override
-	protected double getLargestValueOfInterestFromFunction(FuzzyBoolean f, double p)
-			throws FunctionOperationException {
+	protected double getLargestValueOfInterestFromFunction(LinearPieceWiseFunctionCursor cursor, double p,
+			boolean approachFromLeft) throws FunctionOperationException {
 		//find the largest value f(x) such that x<p, 
-		return f.getLargestValueBeforX(p, false);
-	}
-
-	@Override
-	protected double getLargestValueOfInterestFromFunction(FuzzyBoolean f, double p, boolean approachFromLeft)
-			throws FunctionOperationException {
-		
-		return f.getLargestValueBeforX(p, approachFromLeft);
+		return cursor.getLargestValueBeforeX(p, approachFromLeft);
 	}
 
 	@Override
@@ -78,14 +71,16 @@ class GoalOrImpl extends AbstractGoal implements Goal {
 		if (minimums.size() > 1 && (!DoubleMath.fuzzyEquals(maxYOfInterestInF2ApproachingFromRight, maxYOfInterestInF2,
 				LinearPieceWiseFunction.TOLERANCE))) { // Both are discontinuity
 
-			Logger.debug(
-					"The minimums of a discontinuous function are going to change. Input was f:{}, maximum values in f2 were: {}, {}",
-					f1ValuesAtP.toString(), maxYOfInterestInF2, maxYOfInterestInF2ApproachingFromRight);
-			double firstMinimum =minimums.removeFirst();
-			Logger.debug("The first value of the list of minimus was:{}", firstMinimum);
+			if (Logger.isTraceEnabled()) {
+				Logger.trace(
+						"The minimums of a discontinuous function are going to change. Input was f:{}, maximum values in f2 were: {}, {}",
+						f1ValuesAtP, maxYOfInterestInF2, maxYOfInterestInF2ApproachingFromRight);
+			}
+			Double firstMinimum =minimums.removeFirst();
+			Logger.trace("The first value of the list of minimus was:{}", firstMinimum);
 			
 			minimums.addFirst(Math.min(f1ValuesAtP.get(0), maxYOfInterestInF2));
-			Logger.debug("   Returning list of minimums: {}", minimums.toString());
+			Logger.trace("   Returning list of minimums: {}", minimums);
 
 		}
 		return minimums;
@@ -21,21 +21,16 @@
  */
 package se.lnu.eres.fuzzy.goals.impl;
 
+import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import com.google.common.math.DoubleMath;
-
 import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
 import se.lnu.eres.fuzzy.functions.FuzzyNumber;
 import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
 import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
-import se.lnu.eres.fuzzy.functions.impl.LinearPiecewiseFunctionImpl;
-import se.lnu.eres.fuzzy.functions.impl.FuzzyBooleanImpl;
 import se.lnu.eres.fuzzy.functions.impl.LinearPieceWiseFunctionDataPoints;
 import se.lnu.eres.fuzzy.goals.Goal;
 import se.lnu.eres.fuzzy.goals.GoalType;
@@ -50,6 +45,15 @@ public class LeafGoalImpl implements LeafGoal {
 	private FuzzyNumber truthValue;
 	private FuzzyNumber lastObservation = null;
 	private String name;
+	private final List<Goal> parents = new ArrayList<Goal>();
+	// Last assessed satisfaction, null when it has to be assessed again. Read by
+	// the tasks of other parents in ParallelGoalAssessor
+	private volatile FuzzyBoolean satisfaction = null;
+	// Number of times that the satisfaction has been assessed instead of taken
+	// from the cache
+	private int assessments = 0;
+	// Slopes of the truth value, created again when the truth value is modified
+	private volatile TruthValueTable truthValueTable = null;
 
 	public LeafGoalImpl(LeafGoalType type, FuzzyNumber function) {
 		this(type, function, "Default leaf goal");
@@ -61,7 +65,7 @@ public class LeafGoalImpl implements LeafGoal {
 		this.type = type;
 		this.truthValue = truthValue;
 		this.name = name;
-		Logger.info("Cronstructing Leaf goal named {}", name);
+		Logger.debug("Cronstructing Leaf goal named {}", name);
 	}
 
 	@Override
@@ -98,181 +102,71 @@ public class LeafGoalImpl implements LeafGoal {
 			// we leave that check out
 			return truthValue.getFunction().isMonotonicallyDecreasing();
 		// break;
-		default: // ( INT, MIN, MAX)
-			// TODO: Continue with the rest. check that the type corresponds to the goal
-			// satisfaction function!
+		case MAX:
+			// The larger the better, monotonically increasing as LB
+			return truthValue.getFunction().isMonotonicallyIncreasing();
+
+		case MIN:
+			// The smaller the better, monotonically decreasing as UB
+			return truthValue.getFunction().isMonotonicallyDecreasing();
+
+		case INT:
+			// Increasing until it reaches its maximum and decreasing from there
+			return isUnimodal(truthValue.getFunction().getDatapoints());
+
+		default:
 			throw new UnsupportedOperationException();
 		}
 
 	}
 
+	private static boolean isUnimodal(LinearPieceWiseFunctionDataPoints points) {
+		int i = 1;
+		while (i < points.size() && points.getY(i - 1) <= points.getY(i)) {
+			i++;
+		}
+		while (i < points.size() && points.getY(i - 1) >= points.getY(i)) {
+			i++;
+		}
+		return i >= points.size();
+	}
+
 	/**
 	 * Uses Zadeh's extension principle B(y) = sup{O(x)|μG (x) = y}, (0 ≤ y ≤ 1) to
-	 * create the satisfaction function
+	 * create the satisfaction function. It does not modify the goal, so it can be
+	 * called concurrently.
 	 * 
 	 * @throws FunctionOperationException
 	 */
 	@Override
 	public FuzzyBoolean assessSatisfactionFromObservation(FuzzyNumber observation) throws FunctionOperationException {
-
-		// Zadeh's principle B(y) = sup{O(x)|μG (x) = y}, (0 ≤ y ≤ 1)
-
-		// Points of interest: the combination of the points of the observation and the
-		// truth values
-		// Using the assumption that the functions are piecewise functions composed of
-		// linear functions
-
-		List<Double> xPointsOfInterest = CollectionUtils.collate(truthValue.getFunction().getLimitXpoints(),
-				observation.getFunction().getLimitXpoints(), false);
-
-		Logger.debug("Points of interest in x-axis are: {}", xPointsOfInterest);
-		// TODO: First iteration considers only LB or UB goals, that are monotically
-		// increasing/decreasing and the same Y value cannot
-		// happen for x values that are in different pieces in the function.
-
-		double leftXpoint = 0;
-		boolean assignedLeftXpoint = false;
-		LinearPieceWiseFunctionDataPoints resultInterval = new LinearPieceWiseFunctionDataPoints();
-		LinearPieceWiseFunctionDataPoints resultZeroLengthIntervals = new LinearPieceWiseFunctionDataPoints();
-		for (double rightXPoint : xPointsOfInterest) {
-			if (!assignedLeftXpoint) {
-				leftXpoint = rightXPoint;
-				assignedLeftXpoint = true;
-			} else {
-				Logger.debug("Calculatiung result interval for <leftXpiont,rightXPoint,observation>=<{},{},{}>",
-						leftXpoint, rightXPoint, observation);
-				LinearPieceWiseFunctionDataPoints newinterval = calculateResultInInterval(leftXpoint, rightXPoint,
-						observation);
-				// Add to intervals or zeroLengthIntervals depending on the interval length
-				if (DoubleMath.fuzzyEquals(newinterval.getFirst().getLeft(), newinterval.getLast().getLeft(),
-						LinearPieceWiseFunction.TOLERANCE)) {
-					// Zero length
-					resultZeroLengthIntervals.add(newinterval.getFirst());
-					resultZeroLengthIntervals.add(newinterval.getLast());
-				} else {
-					resultInterval.addAll(newinterval);
-				}
-				Logger.info(
-						"Calculation finished. Current result interval is: {} and zero length intervals contain the points: {}",
-						resultInterval.toString(), resultZeroLengthIntervals.toString());
-				leftXpoint = rightXPoint;
-			}
-		}
-
-		/*
-		 * At this point the result intervals may have duplicates (max point of an
-		 * interval corresponds with minimum of another interval) and may be out of
-		 * order. Clean duplicates and sort respecting intervals.
-		 */
-
-		resultInterval.sortByXRespectingIntervalCouples();
-
-		// The Y values should match now because the single points are in a different
-		// DataPoints structure, but they are replicated
-		// resultInterval.retainLargestYforReplicatedX();
-
-		// Same for the single points. Sort and keep only the largest (to satisfy part
-		// of the "sup" in Zadeh's extension principle)
-		resultZeroLengthIntervals.sortByX();
-		
-		resultZeroLengthIntervals.removeElementsExistingInDataset(resultInterval);
-		
-		resultZeroLengthIntervals.retainLargestYforReplicatedX();
-		resultZeroLengthIntervals.removePointsWhoseYValueisTheSmallest(resultInterval);
-
-		/*
-		 * The result may be a non-continuous function, being a single points left in
-		 * discontinuity (e.g., the full satisfaction of a requirement or the full
-		 * dissatisfaction). Add the single points by merging the zero value intervals
-		 * with the rest of points and then sort the result
-		 * 
-		 */
-		Logger.debug("Assessment of zero lenght intervals after processing is: {}", resultZeroLengthIntervals.toString());
-		resultInterval.addAllSortedInEvenPositions(resultZeroLengthIntervals); // To in odd positions to avoid putting
-																				// the single point in between the two
-																				// points of an interval
-		Logger.info("Assessment of intervals ans single points finished. Result after merging with zero intervals is: {}", resultInterval.toString());
-		resultInterval.removeDuplicatedNeighborPoints();
-
-		Logger.info("Assessment of leaf goal '{}' finished. Result is is: {}", name, resultInterval.toString());
-		return new FuzzyBooleanImpl(new LinearPiecewiseFunctionImpl(resultInterval));
-
+		return LeafSatisfactionKernel.ForCurrentThread().assess(type, getTruthValueTable(), observation, name);
 	}
 
-	private LinearPieceWiseFunctionDataPoints calculateResultInInterval(double leftXpoint, double rightXpoint,
-			FuzzyNumber observation) throws FunctionOperationException {
-		/*
-		 * It calculates the satisfaction function between points leftXpoint and
-		 * rightXPoint
-		 */
-		double minY = Math.min(truthValue.getFunctionValueAt(leftXpoint), truthValue.getFunctionValueAt(rightXpoint));
-		double maxY = Math.max(truthValue.getFunctionValueAt(leftXpoint), truthValue.getFunctionValueAt(rightXpoint));
-		// the Y in the input become the X in the output
-
-		// returns and interval of the observation
-		LinearPieceWiseFunction intervalFunction = new LinearPiecewiseFunctionImpl();
-		intervalFunction.addPoint(leftXpoint, truthValue.getFunctionValueAt(leftXpoint));
-		intervalFunction.addPoint(rightXpoint, truthValue.getFunctionValueAt(rightXpoint));
-		Logger.debug("Method calculateResultInInterval: Calculated interval function is {}", intervalFunction);
-		LinearPieceWiseFunction inverseIntervalFunction = intervalFunction.getInverse();
-		Logger.debug("Method calculateResultInInterval: Calculated inverse of interval function is {}",
-				inverseIntervalFunction);
-
-		// Calculate B(y)
-		LinearPieceWiseFunctionDataPoints result = new LinearPieceWiseFunctionDataPoints();
-
-		// Case y=0;
-		if (DoubleMath.fuzzyEquals(minY, 0, LinearPieceWiseFunction.TOLERANCE)) {
-			Logger.debug("Case Min y=0");
-			result.add(new ImmutablePair<Double, Double>(minY,
-					getFullDisatisfactionValueDependingOnCase(observation, leftXpoint, rightXpoint)));
-		} else {
-			// Apply B(y)= O(truthValue^(−1)(y))
-			Logger.debug("Case Min NOT y=0");
-			result.add(new ImmutablePair<Double, Double>(minY,
-					observation.getFunctionValueAt(inverseIntervalFunction.getValueAt(minY))));
-		}
-		if (DoubleMath.fuzzyEquals(maxY, 1, LinearPieceWiseFunction.TOLERANCE)) {
-			// case y=1
-			Logger.debug("Case Max y=1");
-			result.add(new ImmutablePair<Double, Double>(maxY,
-					getFullsatisfactionValueDependingOnCase(observation, leftXpoint, rightXpoint)));
-		} else {// Apply B(y)= O(truthValue^(−1)(y))
-			Logger.debug("Case Max NOT y=1");
-			result.add(new ImmutablePair<Double, Double>(maxY,
-					observation.getFunctionValueAt(inverseIntervalFunction.getValueAt(maxY))));
-		}
-
-		Logger.debug("The result function is {}", result.toString());
-		return result;
-
-	}
-
-	private Double getFullsatisfactionValueDependingOnCase(FuzzyNumber observation, double leftXpoint,
-			double rightXpoint) throws FunctionOperationException {
-		
-		switch (type) {
-		case LB:
-			return observation.getFunctionValueAt(rightXpoint);
-		case UB:
-			return observation.getFunctionValueAt(leftXpoint);
-		default: // ( INT, MIN, MAX)
-			throw new UnsupportedOperationException();
-		}
+	/**
+	 * Same as {@link #assessSatisfactionFromObservation(FuzzyNumber)} with the
+	 * datapoints of the observation, which can be reused after the call
+	 * 
+	 * @throws FunctionOperationException
+	 */
+	FuzzyBoolean assessSatisfactionFromObservationPoints(LinearPieceWiseFunctionDataPoints observationPoints)
+			throws FunctionOperationException {
+		return LeafSatisfactionKernel.ForCurrentThread().assess(type, getTruthValueTable(), observationPoints, name);
 	}
 
-	private Double getFullDisatisfactionValueDependingOnCase(FuzzyNumber observation, double leftXpoint,
-			double rightXpoint) throws FunctionOperationException {
-
-		switch (type) {
-		case LB:
-			return observation.getFunctionValueAt(leftXpoint);
-		case UB:
-			return observation.getFunctionValueAt(rightXpoint);
-		default: // ( INT, MIN, MAX)
-			throw new UnsupportedOperationException();
+	/**
+	 * @return The table of the current truth value, which is created again only if
+	 *         the truth value has been modified
+	 */
+	TruthValueTable getTruthValueTable() {
+		TruthValueTable table = truthValueTable;
+		LinearPieceWiseFunction function = truthValue.getFunction();
+		if (table == null || !table.isValidFor(function)) {
+			// Several threads may create it at the same time, all of them equal
+			table = new TruthValueTable(function);
+			truthValueTable = table;
 		}
-
+		return table;
 	}
 
 	@Override
@@ -293,19 +187,57 @@ public class LeafGoalImpl implements LeafGoal {
 
 	@Override
 	public FuzzyBoolean assessSatisfaction() throws FunctionOperationException {
+		if (satisfaction != null) {
+			return satisfaction;
+		}
 		if (lastObservation == null) {
 			throw new FunctionOperationException(
 					"Impossible to assessSatisfactio() without parameters because the observation null");
 		}
-		return assessSatisfactionFromObservation(lastObservation);
+		satisfaction = assessSatisfactionFromObservation(lastObservation);
+		assessments++;
+		return satisfaction;
+	}
+
+	/**
+	 * @return Number of times that the satisfaction has been assessed instead of
+	 *         taken from the cache
+	 */
+	int getAssessmentCount() {
+		return assessments;
 	}
 
 	@Override
 	public void setObservation(FuzzyNumber observation) {
 		lastObservation = observation;
+		invalidateSatisfaction();
 
 	}
 
+	@Override
+	public void addParent(Goal parent) {
+		parents.add(parent);
+	}
+
+	@Override
+	public List<Goal> getParents() {
+		return parents;
+	}
+
+	@Override
+	public boolean isSatisfactionCached() {
+		return satisfaction != null;
+	}
+
+	@Override
+	public void invalidateSatisfaction() {
+		satisfaction = null;
+		for (Goal parent : parents) {
+			parent.invalidateSatisfaction();
+		}
+	}
+
+	@Override
 	public String getName() {
 		return name;
 	}
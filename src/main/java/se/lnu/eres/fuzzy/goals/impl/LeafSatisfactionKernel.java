@@ -0,0 +1,577 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.goals.impl;
+
+import java.util.Arrays;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.common.math.DoubleMath;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.FuzzyNumber;
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.impl.FuzzyBooleanImpl;
+import se.lnu.eres.fuzzy.functions.impl.ImmutableLinearPiecewiseFunction;
+import se.lnu.eres.fuzzy.functions.impl.LinearPieceWiseFunctionDataPoints;
+import se.lnu.eres.fuzzy.functions.impl.LinearPieceWiseFunctionReader;
+import se.lnu.eres.fuzzy.goals.LeafGoalType;
+
+/**
+ * Assessment of the satisfaction of a leaf goal from an observation, using
+ * Zadeh's extension principle B(y) = sup{O(x)|μG (x) = y}, (0 ≤ y ≤ 1).
+ * 
+ * The points of interest and the intervals of the result are written in
+ * primitive buffers that the kernel reuses in every assessment, so once the
+ * buffers have grown to the size of the functions, the only objects created in
+ * an assessment are the ones of the returned satisfaction, an immutable
+ * function in arrays of its exact size.
+ * 
+ * The truth values of LB and UB goals are monotone, so each y is reached in a
+ * single interval of the truth value and B(y) is calculated interval by
+ * interval. The truth values of INT, MIN and MAX goals are evaluated following
+ * the curve x -> (μG(x), O(x)) instead, split in the pieces where μG is
+ * monotone and merged keeping the largest value at every y. This works for any
+ * truth value, also when a y is reached in several pieces.
+ * 
+ * A kernel must be used by one thread at a time. Use
+ * {@link #ForCurrentThread()} to get the kernel of the current thread.
+ */
+final class LeafSatisfactionKernel {
+
+	private static final Logger Logger = LogManager.getLogger(LeafSatisfactionKernel.class.getSimpleName());
+
+	private static final ThreadLocal<LeafSatisfactionKernel> Kernels = ThreadLocal
+			.withInitial(LeafSatisfactionKernel::new);
+
+	// The limit x points of the truth value and the observation, sorted and
+	// without duplicates
+	private double[] pointsOfInterest = new double[8];
+	private final LinearPieceWiseFunctionDataPoints resultInterval = new LinearPieceWiseFunctionDataPoints();
+	private final LinearPieceWiseFunctionDataPoints resultZeroLengthIntervals = new LinearPieceWiseFunctionDataPoints();
+	// Vertices of the curve (truth value, observation), the monotone piece of
+	// the curve being merged and the satisfaction of the pieces merged so far
+	private final LinearPieceWiseFunctionDataPoints curve = new LinearPieceWiseFunctionDataPoints();
+	private final LinearPieceWiseFunctionDataPoints curvePiece = new LinearPieceWiseFunctionDataPoints();
+	private LinearPieceWiseFunctionDataPoints envelope = new LinearPieceWiseFunctionDataPoints();
+	private LinearPieceWiseFunctionDataPoints mergedEnvelope = new LinearPieceWiseFunctionDataPoints();
+	private final EnvelopeSweep envelopeSweep = new EnvelopeSweep();
+	private final EnvelopeSweep pieceSweep = new EnvelopeSweep();
+	// Reads the datapoints of the observation being assessed
+	private final LinearPieceWiseFunctionReader observationReader = new LinearPieceWiseFunctionReader();
+
+	LeafSatisfactionKernel() {
+		super();
+	}
+
+	static LeafSatisfactionKernel ForCurrentThread() {
+		return Kernels.get();
+	}
+
+	/**
+	 * @param type        The type of the leaf goal
+	 * @param truthValue  The table of the truth value of the leaf goal
+	 * @param observation
+	 * @param name        The name of the leaf goal, for the logs
+	 * @return The satisfaction of the goal with the observation
+	 * @throws FunctionOperationException
+	 */
+	FuzzyBoolean assess(LeafGoalType type, TruthValueTable truthValue, FuzzyNumber observation, String name)
+			throws FunctionOperationException {
+		// Read in place, also the points of immutable observations, which
+		// getDatapoints() would copy
+		return assess(type, truthValue, observationReader.read(observation.getFunction()), name);
+	}
+
+	/**
+	 * Same as {@link #assess(LeafGoalType, TruthValueTable, FuzzyNumber, String)}
+	 * with the datapoints of the observation, which are only read during the
+	 * assessment and can be reused afterwards
+	 * 
+	 * @throws FunctionOperationException
+	 */
+	FuzzyBoolean assess(LeafGoalType type, TruthValueTable truthValue,
+			LinearPieceWiseFunctionDataPoints observationPoints, String name) throws FunctionOperationException {
+		return assess(type, truthValue, observationReader.read(observationPoints), name);
+	}
+
+	private FuzzyBoolean assess(LeafGoalType type, TruthValueTable truthValue,
+			LinearPieceWiseFunctionReader observationPoints, String name) throws FunctionOperationException {
+		switch (type) {
+		case LB:
+		case UB:
+			return assessMonotone(type, truthValue, observationPoints, name);
+		default: // ( INT, MIN, MAX)
+			return assessAlongCurve(truthValue, observationPoints, name);
+		}
+	}
+
+	private FuzzyBoolean assessMonotone(LeafGoalType type, TruthValueTable truthValue,
+			LinearPieceWiseFunctionReader observationPoints, String name) throws FunctionOperationException {
+		// Points of interest: the combination of the points of the observation and the
+		// truth values
+		// Using the assumption that the functions are piecewise functions composed of
+		// linear functions
+		int pointsOfInterestCount = collatePointsOfInterest(truthValue, observationPoints);
+		if (Logger.isDebugEnabled()) {
+			Logger.debug("Points of interest in x-axis are: {}",
+					Arrays.toString(Arrays.copyOf(pointsOfInterest, pointsOfInterestCount)));
+		}
+		// LB or UB goals are monotically increasing/decreasing and the same Y value
+		// cannot happen for x values that are in different pieces in the function.
+
+		// Checked once, the loop below runs for every interval of interest
+		boolean trace = Logger.isTraceEnabled();
+		resultInterval.clear();
+		resultZeroLengthIntervals.clear();
+		double leftXpoint = 0;
+		double leftYpoint = 0;
+		for (int i = 0; i < pointsOfInterestCount; i++) {
+			double rightXPoint = pointsOfInterest[i];
+			// The truth value at each point of interest is calculated once, it is the
+			// right extreme of an interval and the left extreme of the next one
+			double rightYpoint = truthValue.getValueAt(rightXPoint);
+			if (i > 0) {
+				if (trace) {
+					Logger.trace("Calculatiung result interval for <leftXpiont,rightXPoint,observation>=<{},{},{}>",
+							leftXpoint, rightXPoint, observationPoints);
+				}
+				addResultInInterval(type, leftXpoint, leftYpoint, rightXPoint, rightYpoint, observationPoints);
+				if (trace) {
+					Logger.trace(
+							"Calculation finished. Current result interval is: {} and zero length intervals contain the points: {}",
+							resultInterval, resultZeroLengthIntervals);
+				}
+			}
+			leftXpoint = rightXPoint;
+			leftYpoint = rightYpoint;
+		}
+
+		/*
+		 * At this point the result intervals may have duplicates (max point of an
+		 * interval corresponds with minimum of another interval) and may be out of
+		 * order. Clean duplicates and sort respecting intervals.
+		 */
+		resultInterval.sortByXRespectingIntervalCouples();
+
+		// Same for the single points. Sort and keep only the largest (to satisfy part
+		// of the "sup" in Zadeh's extension principle)
+		resultZeroLengthIntervals.sortByX();
+		resultZeroLengthIntervals.removeElementsExistingInDataset(resultInterval);
+		resultZeroLengthIntervals.retainLargestYforReplicatedX();
+		resultZeroLengthIntervals.removePointsWhoseYValueisTheSmallest(resultInterval);
+
+		/*
+		 * The result may be a non-continuous function, being a single points left in
+		 * discontinuity (e.g., the full satisfaction of a requirement or the full
+		 * dissatisfaction). Add the single points by merging the zero value intervals
+		 * with the rest of points and then sort the result
+		 */
+		Logger.debug("Assessment of zero lenght intervals after processing is: {}", resultZeroLengthIntervals);
+		// In even positions to avoid putting the single point in between the two
+		// points of an interval
+		resultInterval.addAllSortedInEvenPositions(resultZeroLengthIntervals);
+		Logger.debug("Assessment of intervals ans single points finished. Result after merging with zero intervals is: {}",
+				resultInterval);
+		resultInterval.removeDuplicatedNeighborPoints();
+
+		Logger.debug("Assessment of leaf goal '{}' finished. Result is is: {}", name, resultInterval);
+		return new FuzzyBooleanImpl(ImmutableLinearPiecewiseFunction.CopyOfInOrder(resultInterval));
+	}
+
+	/**
+	 * Zadeh's extension principle for any truth value. The vertices of the curve x
+	 * -> (μG(x), O(x)) are built in a single pass over the points of interest. The
+	 * curve is split in the pieces where μG is monotone, each of them a function
+	 * of y, and B(y) is the largest value of the pieces at y.
+	 */
+	private FuzzyBoolean assessAlongCurve(TruthValueTable truthValue,
+			LinearPieceWiseFunctionReader observationPoints, String name) throws FunctionOperationException {
+		int pointsOfInterestCount = collatePointsOfInterest(truthValue, observationPoints);
+		if (Logger.isDebugEnabled()) {
+			Logger.debug("Points of interest in x-axis are: {}",
+					Arrays.toString(Arrays.copyOf(pointsOfInterest, pointsOfInterestCount)));
+		}
+		buildCurve(truthValue, observationPoints, pointsOfInterestCount);
+		Logger.trace("Curve of truth value and observation is: {}", curve);
+
+		envelope.clear();
+		int pieceStart = 0;
+		int direction = 0;
+		for (int i = 1; i < curve.size(); i++) {
+			int step = DoubleMath.fuzzyCompare(curve.getX(i), curve.getX(i - 1), LinearPieceWiseFunction.TOLERANCE);
+			if (step == 0) {
+				continue;
+			}
+			if (direction != 0 && step != direction) {
+				// The turning vertex belongs to both pieces
+				mergePiece(pieceStart, i - 1, direction);
+				pieceStart = i - 1;
+			}
+			direction = step;
+		}
+		if (curve.size() > 0) {
+			mergePiece(pieceStart, curve.size() - 1, direction);
+		}
+
+		Logger.debug("Assessment of leaf goal '{}' finished. Result is is: {}", name, envelope);
+		return new FuzzyBooleanImpl(ImmutableLinearPiecewiseFunction.CopyOfInOrder(envelope));
+	}
+
+	/**
+	 * Writes in the curve the vertices (μG(x), O(x)) for the points of interest.
+	 * In a discontinuity a function takes all the values between its datapoints,
+	 * so the curve goes through them with vertical or horizontal segments, and
+	 * through the largest value of the observation when both functions are
+	 * discontinuous at the same x.
+	 */
+	private void buildCurve(TruthValueTable truthValue, LinearPieceWiseFunctionReader observationPoints,
+			int pointsOfInterestCount) throws FunctionOperationException {
+		curve.clear();
+		int t = 0, o = 0;
+		for (int i = 0; i < pointsOfInterestCount; i++) {
+			double x = pointsOfInterest[i];
+			// Datapoints of each function exactly at x
+			while (t < truthValue.size() && Double.compare(truthValue.getX(t), x) < 0) {
+				t++;
+			}
+			int tEnd = t;
+			while (tEnd < truthValue.size() && Double.compare(truthValue.getX(tEnd), x) == 0) {
+				tEnd++;
+			}
+			while (o < observationPoints.size() && Double.compare(observationPoints.getX(o), x) < 0) {
+				o++;
+			}
+			int oEnd = o;
+			while (oEnd < observationPoints.size() && Double.compare(observationPoints.getX(oEnd), x) == 0) {
+				oEnd++;
+			}
+
+			double firstB, lastB, maxB;
+			if (oEnd - o > 1) {
+				firstB = observationPoints.getY(o);
+				lastB = observationPoints.getY(oEnd - 1);
+				maxB = firstB;
+				for (int k = o + 1; k < oEnd; k++) {
+					maxB = Math.max(maxB, observationPoints.getY(k));
+				}
+			} else {
+				firstB = GetValueAt(observationPoints, x);
+				lastB = firstB;
+				maxB = firstB;
+			}
+
+			if (tEnd - t > 1) {
+				addCurveVertex(truthValue.getY(t), firstB);
+				for (int k = t; k < tEnd; k++) {
+					addCurveVertex(truthValue.getY(k), maxB);
+				}
+				addCurveVertex(truthValue.getY(tEnd - 1), lastB);
+			} else {
+				double y = truthValue.getValueAt(x);
+				addCurveVertex(y, firstB);
+				addCurveVertex(y, maxB);
+				addCurveVertex(y, lastB);
+			}
+		}
+	}
+
+	private void addCurveVertex(double y, double b) {
+		int last = curve.size() - 1;
+		if (last < 0 || Double.compare(curve.getX(last), y) != 0 || Double.compare(curve.getY(last), b) != 0) {
+			curve.add(y, b);
+		}
+	}
+
+	/**
+	 * Merges the vertices from first to last of the curve, where the truth value
+	 * only increases or only decreases, with the envelope
+	 */
+	private void mergePiece(int first, int last, int direction) {
+		curvePiece.clear();
+		for (int k = 0; k <= last - first; k++) {
+			int i = direction >= 0 ? first + k : last - k;
+			// Steps within the tolerance in the opposite direction are flattened
+			double y = curvePiece.size() == 0 ? curve.getX(i)
+					: Math.max(curve.getX(i), curvePiece.getX(curvePiece.size() - 1));
+			curvePiece.add(y, curve.getY(i));
+		}
+		MaxMerge(envelope, envelopeSweep, curvePiece, pieceSweep, mergedEnvelope);
+		LinearPieceWiseFunctionDataPoints previous = envelope;
+		envelope = mergedEnvelope;
+		mergedEnvelope = previous;
+	}
+
+	/**
+	 * Writes in merged the largest of the functions f and g at every y. Both are
+	 * sorted by y, take all the values between their datapoints in discontinuities
+	 * and do not take any value out of their datapoints.
+	 */
+	private static void MaxMerge(LinearPieceWiseFunctionDataPoints f, EnvelopeSweep fSweep,
+			LinearPieceWiseFunctionDataPoints g, EnvelopeSweep gSweep, LinearPieceWiseFunctionDataPoints merged) {
+		merged.clear();
+		fSweep.reset(f);
+		gSweep.reset(g);
+		int i = 0, j = 0;
+		double previousY = Double.NaN;
+		double previousF = 0, previousG = 0;
+		boolean bothToTheRight = false;
+		while (i < f.size() || j < g.size()) {
+			double y;
+			if (j == g.size() || (i < f.size() && Double.compare(f.getX(i), g.getX(j)) <= 0)) {
+				y = f.getX(i);
+			} else {
+				y = g.getX(j);
+			}
+			while (i < f.size() && Double.compare(f.getX(i), y) == 0) {
+				i++;
+			}
+			while (j < g.size() && Double.compare(g.getX(j), y) == 0) {
+				j++;
+			}
+			fSweep.moveTo(y);
+			gSweep.moveTo(y);
+
+			// The functions cross between the previous y and this one
+			if (bothToTheRight) {
+				double before = previousF - previousG;
+				double after = fSweep.left - gSweep.left;
+				if ((before < 0 && after > 0) || (before > 0 && after < 0)) {
+					double crossingY = previousY + (y - previousY) * (before / (before - after));
+					merged.add(crossingY,
+							previousF + (fSweep.left - previousF) * ((crossingY - previousY) / (y - previousY)));
+				}
+			}
+
+			double left = Math.max(fSweep.left, gSweep.left);
+			double right = Math.max(fSweep.right, gSweep.right);
+			double peak = Math.max(fSweep.peak, gSweep.peak);
+			if (left != Double.NEGATIVE_INFINITY) {
+				merged.add(y, left);
+			}
+			if (peak > left && peak > right) {
+				merged.add(y, peak);
+			}
+			if (right != Double.NEGATIVE_INFINITY) {
+				merged.add(y, right);
+			}
+
+			previousY = y;
+			previousF = fSweep.right;
+			previousG = gSweep.right;
+			bothToTheRight = fSweep.right != Double.NEGATIVE_INFINITY && gSweep.right != Double.NEGATIVE_INFINITY;
+		}
+		merged.removeDuplicatedNeighborPoints();
+	}
+
+	/**
+	 * Values of a function sorted by x around the x where a sweep is. The left
+	 * and right limits and the largest value are negative infinity where the
+	 * function does not take any value.
+	 */
+	private static final class EnvelopeSweep {
+
+		private LinearPieceWiseFunctionDataPoints points;
+		private int next;
+		double left, peak, right;
+
+		void reset(LinearPieceWiseFunctionDataPoints points) {
+			this.points = points;
+			next = 0;
+		}
+
+		/**
+		 * @param x Not lower than the x of the previous move
+		 */
+		void moveTo(double x) {
+			int size = points.size();
+			left = Double.NEGATIVE_INFINITY;
+			peak = Double.NEGATIVE_INFINITY;
+			right = Double.NEGATIVE_INFINITY;
+			if (size == 0 || x < points.getX(0) || x > points.getX(size - 1)) {
+				return;
+			}
+			while (next < size && points.getX(next) < x) {
+				next++;
+			}
+			int end = next;
+			while (end < size && points.getX(end) == x) {
+				end++;
+			}
+			double first, last;
+			if (end > next) {
+				first = points.getY(next);
+				last = points.getY(end - 1);
+				peak = first;
+				for (int k = next + 1; k < end; k++) {
+					peak = Math.max(peak, points.getY(k));
+				}
+			} else {
+				first = points.getYInInterval(next - 1, x);
+				last = first;
+				peak = first;
+			}
+			if (x > points.getX(0)) {
+				left = first;
+			}
+			if (x < points.getX(size - 1)) {
+				right = last;
+			}
+		}
+
+	}
+
+	/**
+	 * Merges the limit x points of the truth value and the observation, both
+	 * sorted, removing the repeated values
+	 * 
+	 * @return The number of points of interest
+	 */
+	private int collatePointsOfInterest(TruthValueTable truthValue, LinearPieceWiseFunctionReader observationPoints) {
+		int truthValueSize = truthValue.size();
+		int observationSize = observationPoints.size();
+		if (pointsOfInterest.length < truthValueSize + observationSize) {
+			pointsOfInterest = new double[Math.max(truthValueSize + observationSize, pointsOfInterest.length * 2)];
+		}
+		int count = 0;
+		int t = 0, o = 0;
+		while (t < truthValueSize || o < observationSize) {
+			double x;
+			if (o == observationSize
+					|| (t < truthValueSize && Double.compare(truthValue.getX(t), observationPoints.getX(o)) <= 0)) {
+				x = truthValue.getX(t++);
+			} else {
+				x = observationPoints.getX(o++);
+			}
+			if (count == 0 || Double.compare(pointsOfInterest[count - 1], x) != 0) {
+				pointsOfInterest[count++] = x;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * It calculates the satisfaction function between points leftXpoint and
+	 * rightXPoint, where the truth value is leftYpoint and rightYpoint, and adds it
+	 * to the intervals or to the zero length intervals depending on its length
+	 */
+	private void addResultInInterval(LeafGoalType type, double leftXpoint, double leftYpoint, double rightXpoint,
+			double rightYpoint, LinearPieceWiseFunctionReader observation) throws FunctionOperationException {
+		// the Y in the input become the X in the output
+		double minY, maxY, xAtMinY, xAtMaxY;
+		if (rightYpoint >= leftYpoint) {
+			minY = leftYpoint;
+			maxY = rightYpoint;
+			xAtMinY = leftXpoint;
+			xAtMaxY = rightXpoint;
+		} else {
+			minY = rightYpoint;
+			maxY = leftYpoint;
+			xAtMinY = rightXpoint;
+			xAtMaxY = leftXpoint;
+		}
+
+		// Calculate B(y)
+		double minB, maxB;
+		// Case y=0;
+		if (DoubleMath.fuzzyEquals(minY, 0, LinearPieceWiseFunction.TOLERANCE)) {
+			minB = GetFullDisatisfactionValueDependingOnCase(type, observation, leftXpoint, rightXpoint);
+		} else {
+			// Apply B(y)= O(truthValue^(−1)(y))
+			minB = GetValueAt(observation, GetInverseInIntervalAt(minY, xAtMinY, maxY, xAtMaxY, minY));
+		}
+		if (DoubleMath.fuzzyEquals(maxY, 1, LinearPieceWiseFunction.TOLERANCE)) {
+			// case y=1
+			maxB = GetFullsatisfactionValueDependingOnCase(type, observation, leftXpoint, rightXpoint);
+		} else {// Apply B(y)= O(truthValue^(−1)(y))
+			maxB = GetValueAt(observation, GetInverseInIntervalAt(minY, xAtMinY, maxY, xAtMaxY, maxY));
+		}
+
+		// Add to intervals or zeroLengthIntervals depending on the interval length
+		if (DoubleMath.fuzzyEquals(minY, maxY, LinearPieceWiseFunction.TOLERANCE)) {
+			resultZeroLengthIntervals.add(minY, minB);
+			resultZeroLengthIntervals.add(maxY, maxB);
+		} else {
+			resultInterval.add(minY, minB);
+			resultInterval.add(maxY, maxB);
+		}
+	}
+
+	/**
+	 * The inverse of the truth value in the interval whose extremes are (minY,
+	 * xAtMinY) and (maxY, xAtMaxY), evaluated at y. It gives the same result as
+	 * {@link LinearPieceWiseFunction#getInverse()} of the two points of the
+	 * interval, without creating it.
+	 */
+	private static double GetInverseInIntervalAt(double minY, double xAtMinY, double maxY, double xAtMaxY,
+			double y) {
+		if (DoubleMath.fuzzyEquals(y, minY, LinearPieceWiseFunction.TOLERANCE)) {
+			return xAtMinY;
+		}
+		double clampedY = Math.min(Math.max(y, minY), maxY);
+		return xAtMinY + (clampedY - minY) * ((xAtMaxY - xAtMinY) / (maxY - minY));
+	}
+
+	/**
+	 * Same as {@link LinearPieceWiseFunction#getValueAt(double)} of the function
+	 * with the given points, without boxing the result
+	 */
+	private static double GetValueAt(LinearPieceWiseFunctionReader points, double x)
+			throws FunctionOperationException {
+		if (DoubleMath.fuzzyEquals(x, points.getX(0), LinearPieceWiseFunction.TOLERANCE)) {
+			return points.getY(0);
+		}
+		return points.getYInInterval(points.getIntervalIndexContaining(x), x);
+	}
+
+	private static double GetFullsatisfactionValueDependingOnCase(LeafGoalType type,
+			LinearPieceWiseFunctionReader observation, double leftXpoint, double rightXpoint)
+			throws FunctionOperationException {
+
+		switch (type) {
+		case LB:
+			return GetValueAt(observation, rightXpoint);
+		case UB:
+			return GetValueAt(observation, leftXpoint);
+		default: // ( INT, MIN, MAX) are assessed along the curve
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private static double GetFullDisatisfactionValueDependingOnCase(LeafGoalType type,
+			LinearPieceWiseFunctionReader observation, double leftXpoint, double rightXpoint)
+			throws FunctionOperationException {
+
+		switch (type) {
+		case LB:
+			return GetValueAt(observation, leftXpoint);
+		case UB:
+			return GetValueAt(observation, rightXpoint);
+		default: // ( INT, MIN, MAX) are assessed along the curve
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+}
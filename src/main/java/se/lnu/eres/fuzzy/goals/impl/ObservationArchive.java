@@ -0,0 +1,494 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.goals.impl;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import se.lnu.eres.fuzzy.functions.FuzzyNumber;
+import se.lnu.eres.fuzzy.functions.impl.FuzzyNumberImpl;
+import se.lnu.eres.fuzzy.functions.impl.LinearPieceWiseFunctionDataPoints;
+import se.lnu.eres.fuzzy.functions.impl.LinearPiecewiseFunctionImpl;
+import se.lnu.eres.fuzzy.serialization.exceptions.ModelFormatException;
+
+/**
+ * Read-only file of the observations of many scenarios, e.g. recorded rides,
+ * identified by a scenario id. The file is memory-mapped and the datapoints are
+ * loaded from the mapped buffers, so the observations are not parsed nor kept
+ * in memory.
+ * 
+ * The file is little endian:
+ * 
+ * <pre>
+ * header    := "FZOA", version, leaf count, scenario count, chunk bytes, names bytes (ints)
+ * names     := (UTF-8 byte length (int), bytes) of each leaf, padded to 8 bytes
+ * ids       := scenario id of each scenario (longs)
+ * index     := the scenario ids sorted (longs), then their scenarios (ints), padded to 8 bytes
+ * offsets   := data offset of the observation of each scenario and leaf, -1 if not set (longs)
+ * counts    := datapoints of the observation of each scenario and leaf (ints), padded to 8 bytes
+ * data      := x values followed by y values of each observation (doubles), by scenario and leaf
+ * </pre>
+ * 
+ * The data is mapped in chunks of at most chunk bytes, which no observation
+ * crosses, so archives larger than a single mapping are supported.
+ */
+public class ObservationArchive {
+
+	private static final Logger Logger = LogManager.getLogger(ObservationArchive.class.getSimpleName());
+
+	public static final int VERSION = 1;
+
+	static final int DEFAULT_CHUNK_BYTES = 1 << 30;
+
+	private static final byte[] MAGIC = { 'F', 'Z', 'O', 'A' };
+	private static final int HEADER_BYTES = MAGIC.length + 5 * Integer.BYTES;
+
+	private final List<String> leafNames;
+	private final Map<String, Integer> leafIndexes = new HashMap<String, Integer>();
+	private final int scenarioCount;
+	private final int chunkBytes;
+	private final LongBuffer ids;
+	private final LongBuffer sortedIds;
+	private final IntBuffer sortedScenarios;
+	private final LongBuffer offsets;
+	private final IntBuffer counts;
+	private final DoubleBuffer[] chunks;
+
+	private ObservationArchive(List<String> leafNames, int scenarioCount, int chunkBytes, ByteBuffer tables,
+			DoubleBuffer[] chunks) {
+		super();
+		this.leafNames = Collections.unmodifiableList(leafNames);
+		for (int i = 0; i < leafNames.size(); i++) {
+			leafIndexes.put(leafNames.get(i), i);
+		}
+		this.scenarioCount = scenarioCount;
+		this.chunkBytes = chunkBytes;
+		int entries = scenarioCount * leafNames.size();
+		int position = 0;
+		ids = View(tables, position, Long.BYTES * scenarioCount).asLongBuffer();
+		position += Long.BYTES * scenarioCount;
+		sortedIds = View(tables, position, Long.BYTES * scenarioCount).asLongBuffer();
+		position += Long.BYTES * scenarioCount;
+		sortedScenarios = View(tables, position, Integer.BYTES * scenarioCount).asIntBuffer();
+		position = Align(position + Integer.BYTES * scenarioCount);
+		offsets = View(tables, position, Long.BYTES * entries).asLongBuffer();
+		position += Long.BYTES * entries;
+		counts = View(tables, position, Integer.BYTES * entries).asIntBuffer();
+		this.chunks = chunks;
+	}
+
+	/**
+	 * Maps the archive. The file can be closed afterwards.
+	 * 
+	 * @throws IOException
+	 * @throws ModelFormatException If the file is not an archive or it is from an
+	 *                              unsupported version
+	 */
+	public static ObservationArchive Open(Path file) throws IOException, ModelFormatException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long fileBytes = channel.size();
+			if (fileBytes < HEADER_BYTES) {
+				throw new ModelFormatException("The archive is truncated: " + fileBytes + " bytes");
+			}
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining()) {
+				// The position in the buffer is the position in the file
+				if (channel.read(header, header.position()) < 0) {
+					throw new ModelFormatException("The archive is truncated");
+				}
+			}
+			header.flip();
+			for (int i = 0; i < MAGIC.length; i++) {
+				if (header.get() != MAGIC[i]) {
+					throw new ModelFormatException("The file is not an observation archive");
+				}
+			}
+			int version = header.getInt();
+			if (version < 1 || version > VERSION) {
+				throw new ModelFormatException("Unsupported version " + version + ", the last one is " + VERSION);
+			}
+			int leafCount = header.getInt();
+			int scenarioCount = header.getInt();
+			int chunkBytes = header.getInt();
+			int namesBytes = header.getInt();
+			if (leafCount < 0 || scenarioCount < 0 || chunkBytes <= 0 || chunkBytes % Double.BYTES != 0
+					|| namesBytes < 0) {
+				throw new ModelFormatException("Invalid archive header");
+			}
+
+			long tablesStart = Align(HEADER_BYTES + (long) namesBytes);
+			long tablesBytes = TablesBytes(leafCount, scenarioCount);
+			long dataStart = tablesStart + tablesBytes;
+			if (dataStart > fileBytes || tablesStart > Integer.MAX_VALUE || tablesBytes > Integer.MAX_VALUE) {
+				throw new ModelFormatException("The archive is truncated or its tables are too large");
+			}
+			ByteBuffer names = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, namesBytes)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			List<String> leafNames = new ArrayList<String>(leafCount);
+			for (int i = 0; i < leafCount; i++) {
+				int length = names.getInt();
+				if (length < 0 || length > names.remaining()) {
+					throw new ModelFormatException("Invalid length " + length + " of the name of leaf " + i);
+				}
+				byte[] bytes = new byte[length];
+				names.get(bytes);
+				leafNames.add(new String(bytes, StandardCharsets.UTF_8));
+			}
+			MappedByteBuffer tables = channel.map(FileChannel.MapMode.READ_ONLY, tablesStart, tablesBytes);
+
+			long dataBytes = fileBytes - dataStart;
+			DoubleBuffer[] chunks = new DoubleBuffer[(int) ((dataBytes + chunkBytes - 1) / chunkBytes)];
+			for (int k = 0; k < chunks.length; k++) {
+				long chunkStart = (long) k * chunkBytes;
+				chunks[k] = channel
+						.map(FileChannel.MapMode.READ_ONLY, dataStart + chunkStart,
+								Math.min(chunkBytes, dataBytes - chunkStart))
+						.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+			}
+			Logger.debug("Opened archive of {} scenarios and {} leaves with {} bytes of data in {} chunks",
+					scenarioCount, leafCount, dataBytes, chunks.length);
+			return new ObservationArchive(leafNames, scenarioCount, chunkBytes, tables, chunks);
+		} catch (BufferUnderflowException e) {
+			throw new ModelFormatException("The archive is truncated", e);
+		}
+	}
+
+	/**
+	 * Writes the observations of the batch, the scenario i with the id
+	 * scenarioIds[i]
+	 * 
+	 * @throws IOException
+	 * @throws IllegalArgumentException If there is not an id for each scenario,
+	 *                                  they are repeated or the archive would be
+	 *                                  too large to be opened
+	 */
+	public static void Write(Path file, ObservationBatch batch, long[] scenarioIds) throws IOException {
+		Write(file, batch, scenarioIds, DEFAULT_CHUNK_BYTES);
+	}
+
+	static void Write(Path file, ObservationBatch batch, long[] scenarioIds, int chunkBytes) throws IOException {
+		if (chunkBytes <= 0 || chunkBytes % Double.BYTES != 0) {
+			throw new IllegalArgumentException("The chunks must have a positive multiple of 8 bytes: " + chunkBytes);
+		}
+		int scenarioCount = batch.getScenarioCount();
+		int leafCount = batch.getLeafNames().size();
+		if (scenarioIds.length != scenarioCount) {
+			throw new IllegalArgumentException(
+					"There are " + scenarioIds.length + " scenario ids for " + scenarioCount + " scenarios");
+		}
+		Integer[] order = new Integer[scenarioCount];
+		for (int i = 0; i < scenarioCount; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> Long.compare(scenarioIds[a], scenarioIds[b]));
+		for (int i = 1; i < scenarioCount; i++) {
+			if (scenarioIds[order[i - 1]] == scenarioIds[order[i]]) {
+				throw new IllegalArgumentException("Repeated scenario id " + scenarioIds[order[i]]);
+			}
+		}
+
+		byte[][] names = new byte[leafCount][];
+		long namesBytes = 0;
+		for (int leaf = 0; leaf < leafCount; leaf++) {
+			names[leaf] = batch.getLeafNames().get(leaf).getBytes(StandardCharsets.UTF_8);
+			namesBytes += Integer.BYTES + names[leaf].length;
+		}
+
+		// The same limits as Open, checked before writing anything
+		long tablesStart = Align(HEADER_BYTES + namesBytes);
+		long tablesBytes = TablesBytes(leafCount, scenarioCount);
+		if (tablesStart > Integer.MAX_VALUE || tablesBytes > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The names or the tables of " + leafCount + " leaves and "
+					+ scenarioCount + " scenarios are too large for an archive");
+		}
+
+		// Offsets of the observations in the data, without crossing chunks. Their
+		// number fits in an int because the tables do
+		long[] offsets = new long[(int) ((long) scenarioCount * leafCount)];
+		long dataBytes = 0;
+		for (int scenario = 0; scenario < scenarioCount; scenario++) {
+			for (int leaf = 0; leaf < leafCount; leaf++) {
+				FuzzyNumber observation = batch.getObservation(leaf, scenario);
+				if (observation == null) {
+					offsets[scenario * leafCount + leaf] = -1;
+					continue;
+				}
+				long bytes = 2L * Double.BYTES * observation.getFunction().getDatapoints().size();
+				if (bytes > chunkBytes) {
+					throw new IllegalArgumentException("The observation of leaf " + batch.getLeafNames().get(leaf)
+							+ " in scenario " + scenarioIds[scenario] + " is larger than a chunk");
+				}
+				if (dataBytes % chunkBytes + bytes > chunkBytes) {
+					dataBytes += chunkBytes - dataBytes % chunkBytes;
+				}
+				offsets[scenario * leafCount + leaf] = dataBytes;
+				dataBytes += bytes;
+			}
+		}
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING); Output output = new Output(channel)) {
+			output.putBytes(MAGIC);
+			output.putInt(VERSION);
+			output.putInt(leafCount);
+			output.putInt(scenarioCount);
+			output.putInt(chunkBytes);
+			output.putInt((int) namesBytes);
+			for (byte[] name : names) {
+				output.putInt(name.length);
+				output.putBytes(name);
+			}
+			output.pad();
+			for (long id : scenarioIds) {
+				output.putLong(id);
+			}
+			for (Integer scenario : order) {
+				output.putLong(scenarioIds[scenario]);
+			}
+			for (Integer scenario : order) {
+				output.putInt(scenario);
+			}
+			output.pad();
+			for (long offset : offsets) {
+				output.putLong(offset);
+			}
+			for (int scenario = 0; scenario < scenarioCount; scenario++) {
+				for (int leaf = 0; leaf < leafCount; leaf++) {
+					FuzzyNumber observation = batch.getObservation(leaf, scenario);
+					output.putInt(observation == null ? 0 : observation.getFunction().getDatapoints().size());
+				}
+			}
+			output.pad();
+
+			long dataStart = output.getPosition();
+			for (int scenario = 0; scenario < scenarioCount; scenario++) {
+				for (int leaf = 0; leaf < leafCount; leaf++) {
+					long offset = offsets[scenario * leafCount + leaf];
+					if (offset < 0) {
+						continue;
+					}
+					while (output.getPosition() < dataStart + offset) {
+						output.putLong(0);
+					}
+					LinearPieceWiseFunctionDataPoints points = batch.getObservation(leaf, scenario).getFunction()
+							.getDatapoints();
+					for (int i = 0; i < points.size(); i++) {
+						output.putDouble(points.getX(i));
+					}
+					for (int i = 0; i < points.size(); i++) {
+						output.putDouble(points.getY(i));
+					}
+				}
+			}
+		}
+		Logger.debug("Archived {} scenarios and {} leaves with {} bytes of data", scenarioCount, leafCount, dataBytes);
+	}
+
+	public List<String> getLeafNames() {
+		return leafNames;
+	}
+
+	public int getScenarioCount() {
+		return scenarioCount;
+	}
+
+	/**
+	 * @return The position of the leaf in the archive, or -1 if the archive has no
+	 *         observations for the leaf
+	 */
+	public int getLeafIndex(String leafName) {
+		Integer index = leafIndexes.get(leafName);
+		return (index == null) ? -1 : index;
+	}
+
+	public long getScenarioId(int scenario) {
+		return ids.get(scenario);
+	}
+
+	/**
+	 * @return The scenario with the id, or -1 if it is not in the archive
+	 */
+	public int getScenario(long scenarioId) {
+		int low = 0;
+		int high = scenarioCount - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			long id = sortedIds.get(middle);
+			if (id < scenarioId) {
+				low = middle + 1;
+			} else if (id > scenarioId) {
+				high = middle - 1;
+			} else {
+				return sortedScenarios.get(middle);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Loads the datapoints of an observation from the mapped file into points,
+	 * reusing their arrays
+	 * 
+	 * @return false if the observation was not set
+	 */
+	public boolean loadObservation(int leaf, int scenario, LinearPieceWiseFunctionDataPoints points) {
+		int entry = scenario * leafNames.size() + leaf;
+		long offset = offsets.get(entry);
+		if (offset < 0) {
+			return false;
+		}
+		points.load(chunks[(int) (offset / chunkBytes)], (int) (offset % chunkBytes) / Double.BYTES,
+				counts.get(entry));
+		return true;
+	}
+
+	/**
+	 * @return A copy of the observation, or null if it was not set
+	 */
+	public FuzzyNumber getObservation(int leaf, int scenario) {
+		LinearPieceWiseFunctionDataPoints points = new LinearPieceWiseFunctionDataPoints();
+		if (!loadObservation(leaf, scenario, points)) {
+			return null;
+		}
+		return new FuzzyNumberImpl(new LinearPiecewiseFunctionImpl(points));
+	}
+
+	private static long TablesBytes(int leafCount, int scenarioCount) {
+		long entries = (long) leafCount * scenarioCount;
+		return Align(2L * Long.BYTES * scenarioCount + (long) Integer.BYTES * scenarioCount)
+				+ Align(Long.BYTES * entries + Integer.BYTES * entries);
+	}
+
+	private static int Align(int position) {
+		return (position + Long.BYTES - 1) & -Long.BYTES;
+	}
+
+	private static long Align(long position) {
+		return (position + Long.BYTES - 1) & -Long.BYTES;
+	}
+
+	private static ByteBuffer View(ByteBuffer buffer, int position, int length) {
+		return buffer.slice(position, length).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Writes little endian values to the channel through a buffer
+	 */
+	private static final class Output implements AutoCloseable {
+
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+		private long position = 0;
+
+		Output(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		long getPosition() {
+			return position;
+		}
+
+		void putByte(byte value) throws IOException {
+			ensureRemaining(1);
+			buffer.put(value);
+			position++;
+		}
+
+		void putBytes(byte[] bytes) throws IOException {
+			int written = 0;
+			while (written < bytes.length) {
+				ensureRemaining(1);
+				int length = Math.min(buffer.remaining(), bytes.length - written);
+				buffer.put(bytes, written, length);
+				written += length;
+			}
+			position += bytes.length;
+		}
+
+		void putInt(int value) throws IOException {
+			ensureRemaining(Integer.BYTES);
+			buffer.putInt(value);
+			position += Integer.BYTES;
+		}
+
+		void putLong(long value) throws IOException {
+			ensureRemaining(Long.BYTES);
+			buffer.putLong(value);
+			position += Long.BYTES;
+		}
+
+		void putDouble(double value) throws IOException {
+			ensureRemaining(Double.BYTES);
+			buffer.putDouble(value);
+			position += Double.BYTES;
+		}
+
+		/**
+		 * Pads with zeros up to a multiple of 8 bytes
+		 */
+		void pad() throws IOException {
+			while (position % Long.BYTES != 0) {
+				putByte((byte) 0);
+			}
+		}
+
+		private void ensureRemaining(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				flush();
+			}
+		}
+
+		private void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+
+	}
+
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.goals.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import se.lnu.eres.fuzzy.functions.FuzzyNumber;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+
+/**
+ * The observations of several scenarios (e.g., vehicles) for the leaf goals of
+ * a goal model. Stored by columns: one array per leaf goal with the observation
+ * of each scenario.
+ */
+public class ObservationBatch {
+
+	private final List<String> leafNames;
+	private final Map<String, Integer> leafIndexes = new HashMap<String, Integer>();
+	private final int scenarioCount;
+	// observations[leaf][scenario]
+	private final FuzzyNumber[][] observations;
+
+	public ObservationBatch(List<String> leafNames, int scenarioCount) {
+		super();
+		this.leafNames = Collections.unmodifiableList(new ArrayList<String>(leafNames));
+		this.scenarioCount = scenarioCount;
+		this.observations = new FuzzyNumber[leafNames.size()][scenarioCount];
+		for (int i = 0; i < leafNames.size(); i++) {
+			leafIndexes.put(leafNames.get(i), i);
+		}
+	}
+
+	public List<String> getLeafNames() {
+		return leafNames;
+	}
+
+	public int getScenarioCount() {
+		return scenarioCount;
+	}
+
+	/**
+	 * @return The position of the leaf in the batch, or -1 if the batch has no
+	 *         observations for the leaf
+	 */
+	public int getLeafIndex(String leafName) {
+		Integer index = leafIndexes.get(leafName);
+		return (index == null) ? -1 : index;
+	}
+
+	public void setObservation(String leafName, int scenario, FuzzyNumber observation)
+			throws FunctionOperationException {
+		int leaf = getLeafIndex(leafName);
+		if (leaf < 0) {
+			throw new FunctionOperationException("Leaf goal '" + leafName + "' is not part of the batch");
+		}
+		observations[leaf][scenario] = observation;
+	}
+
+	public FuzzyNumber getObservation(int leaf, int scenario) {
+		return observations[leaf][scenario];
+	}
+
+	/**
+	 * @return The observations of all the scenarios for the leaf
+	 */
+	public FuzzyNumber[] getObservations(int leaf) {
+		return observations[leaf];
+	}
+
+}
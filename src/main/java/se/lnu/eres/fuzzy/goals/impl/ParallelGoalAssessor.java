@@ -0,0 +1,248 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.goals.impl;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.goals.Goal;
+import se.lnu.eres.fuzzy.goals.LeafGoal;
+import se.lnu.eres.fuzzy.goals.ReductionStrategy;
+
+/**
+ * Assesses the satisfaction of a goal model assessing sibling subtrees
+ * concurrently as ForkJoin tasks. The children results are combined in the
+ * order of the children, so the result is the same as the one of
+ * {@link Goal#assessSatisfaction()}.
+ * 
+ * Subtrees with at most sequentialCutoff goals (counting the leaves) are
+ * assessed sequentially in a single task, unless they contain goals shared
+ * with other parents. Each goal has a single task, which is forked by the first
+ * parent that needs it and joined by the rest, so a shared goal is assessed
+ * once and never concurrently. The children of goals with the
+ * {@link ReductionStrategy#TREE} strategy are also combined concurrently, one
+ * task per level of the tree.
+ * 
+ * As in {@link Goal#assessSatisfaction()}, the results are cached in the goals.
+ * The goal model must not be modified while it is being assessed.
+ */
+public class ParallelGoalAssessor {
+
+	private static final Logger Logger = LogManager.getLogger(ParallelGoalAssessor.class.getSimpleName());
+
+	public static final int DEFAULT_SEQUENTIAL_CUTOFF = 4;
+
+	private final ForkJoinPool pool;
+	private final int sequentialCutoff;
+
+	public ParallelGoalAssessor() {
+		this(ForkJoinPool.commonPool(), DEFAULT_SEQUENTIAL_CUTOFF);
+	}
+
+	public ParallelGoalAssessor(ForkJoinPool pool, int sequentialCutoff) {
+		super();
+		this.pool = pool;
+		this.sequentialCutoff = sequentialCutoff;
+	}
+
+	public FuzzyBoolean assessSatisfaction(Goal goal) throws FunctionOperationException {
+		Map<Goal, Integer> parentCounts = new IdentityHashMap<Goal, Integer>();
+		CountParents(goal, parentCounts);
+		AssessmentTask task = createTask(goal, parentCounts, new IdentityHashMap<Goal, AssessmentTask>());
+		if (Logger.isDebugEnabled()) {
+			Logger.debug("Assessing goal model of {} goals with sequential cutoff {}", parentCounts.size(),
+					sequentialCutoff);
+		}
+		try {
+			return pool.invoke(task);
+		} catch (RuntimeException e) {
+			// The tasks wrap the checked exceptions. Throw the original one.
+			for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+				if (cause instanceof FunctionOperationException) {
+					throw (FunctionOperationException) cause;
+				}
+			}
+			throw e;
+		}
+	}
+
+	public int getSequentialCutoff() {
+		return sequentialCutoff;
+	}
+
+	/**
+	 * Counts the parents of each goal in the subtree of the goal, visiting the
+	 * subtree of each goal once
+	 */
+	private static void CountParents(Goal goal, Map<Goal, Integer> parentCounts) {
+		parentCounts.putIfAbsent(goal, 0);
+		if (goal instanceof LeafGoal) {
+			return;
+		}
+		for (Goal child : goal.getChildren()) {
+			Integer count = parentCounts.get(child);
+			parentCounts.put(child, count == null ? 1 : count + 1);
+			if (count == null) {
+				CountParents(child, parentCounts);
+			}
+		}
+	}
+
+	/**
+	 * Creates the task of the goal and of the goals in its subtree, a single one
+	 * for each goal
+	 */
+	private AssessmentTask createTask(Goal goal, Map<Goal, Integer> parentCounts, Map<Goal, AssessmentTask> tasks) {
+		AssessmentTask task = tasks.get(goal);
+		if (task != null) {
+			return task;
+		}
+		List<AssessmentTask> children = new ArrayList<AssessmentTask>();
+		int subtreeSize = 1;
+		boolean containsSharedGoals = false;
+		if (goal instanceof AbstractGoal) {
+			for (Goal child : goal.getChildren()) {
+				AssessmentTask childTask = createTask(child, parentCounts, tasks);
+				children.add(childTask);
+				subtreeSize += childTask.subtreeSize;
+				containsSharedGoals |= parentCounts.get(child) > 1 || childTask.containsSharedGoals;
+			}
+		}
+		task = new AssessmentTask(goal, children, subtreeSize, containsSharedGoals);
+		tasks.put(goal, task);
+		return task;
+	}
+
+	private class AssessmentTask extends RecursiveTask<FuzzyBoolean> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Goal goal;
+		private final List<AssessmentTask> children;
+		// Goals in the subtree, counting the leaves and the shared goals once per
+		// parent
+		private final int subtreeSize;
+		// Whether a goal in the subtree has other parents
+		private final boolean containsSharedGoals;
+		// Set by the first parent that forks the task, the rest only join it
+		private final AtomicBoolean forked = new AtomicBoolean(false);
+
+		AssessmentTask(Goal goal, List<AssessmentTask> children, int subtreeSize, boolean containsSharedGoals) {
+			super();
+			this.goal = goal;
+			this.children = children;
+			this.subtreeSize = subtreeSize;
+			this.containsSharedGoals = containsSharedGoals;
+		}
+
+		void forkOnce() {
+			if (forked.compareAndSet(false, true)) {
+				fork();
+			}
+		}
+
+		@Override
+		protected FuzzyBoolean compute() {
+			try {
+				// The shared goals of a subtree assessed sequentially could be assessed at
+				// the same time by the task of another parent
+				if (children.isEmpty() || (subtreeSize <= sequentialCutoff && !containsSharedGoals)
+						|| ((AbstractGoal) goal).getCachedSatisfaction() != null) {
+					return goal.assessSatisfaction();
+				}
+
+				for (AssessmentTask child : children) {
+					child.forkOnce();
+				}
+				List<FuzzyBoolean> childrenSatisfaction = new ArrayList<FuzzyBoolean>(children.size());
+				for (AssessmentTask child : children) {
+					childrenSatisfaction.add(child.join());
+				}
+				AbstractGoal intermediateGoal = (AbstractGoal) goal;
+				FuzzyBoolean satisfaction;
+				if (intermediateGoal.getReductionStrategy() == ReductionStrategy.TREE) {
+					satisfaction = new TreeReductionTask(intermediateGoal, childrenSatisfaction, 0,
+							childrenSatisfaction.size()).compute();
+				} else {
+					satisfaction = intermediateGoal.combine(childrenSatisfaction);
+				}
+				intermediateGoal.cacheSatisfaction(satisfaction);
+				return satisfaction;
+			} catch (FunctionOperationException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	/**
+	 * Combines the children satisfaction in positions [from,to) with the same
+	 * balanced tree as {@link AbstractGoal#combine(List)}, combining the two halves
+	 * concurrently.
+	 */
+	private static class TreeReductionTask extends RecursiveTask<FuzzyBoolean> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final AbstractGoal goal;
+		private final List<FuzzyBoolean> childrenSatisfaction;
+		private final int from;
+		private final int to;
+
+		TreeReductionTask(AbstractGoal goal, List<FuzzyBoolean> childrenSatisfaction, int from, int to) {
+			super();
+			this.goal = goal;
+			this.childrenSatisfaction = childrenSatisfaction;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected FuzzyBoolean compute() {
+			try {
+				if (to - from == 1) {
+					return childrenSatisfaction.get(from);
+				}
+				if (to - from == 2) {
+					return goal.combine(childrenSatisfaction.get(from), childrenSatisfaction.get(from + 1));
+				}
+				int middle = (from + to) >>> 1;
+				TreeReductionTask left = new TreeReductionTask(goal, childrenSatisfaction, from, middle);
+				left.fork();
+				FuzzyBoolean right = new TreeReductionTask(goal, childrenSatisfaction, middle, to).compute();
+				return goal.combine(left.join(), right);
+			} catch (FunctionOperationException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+}
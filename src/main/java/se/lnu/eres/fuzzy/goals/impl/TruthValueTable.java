@@ -0,0 +1,147 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.goals.impl;
+
+import com.google.common.math.DoubleMath;
+
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.impl.ImmutableLinearPiecewiseFunction;
+import se.lnu.eres.fuzzy.functions.impl.LinearPieceWiseFunctionDataPoints;
+
+/**
+ * Snapshot of the truth value of a {@link LeafGoalImpl} with the slope of each
+ * of its segments, so that the truth value at an x can be calculated with a
+ * binary search and one multiplication, without creating any object.
+ * 
+ * The values are calculated with the same arithmetic as
+ * {@link LinearPieceWiseFunction#getValueAt(double)}, so the results are
+ * identical. The table is not modified after it is created and it can be shared
+ * by several threads. Use {@link #isValidFor(LinearPieceWiseFunction)} to know
+ * whether the truth value has been modified afterwards.
+ */
+final class TruthValueTable {
+
+	private final LinearPieceWiseFunction function;
+	private final LinearPieceWiseFunctionDataPoints points;
+	private final int modificationCount;
+	private final int size;
+	private final double[] xs;
+	private final double[] ys;
+	// slopes[i] is the slope of the segment [datapoint_i, datapoint_i+1], NaN for
+	// the segments of 0 length (discontinuities)
+	private final double[] slopes;
+
+	TruthValueTable(LinearPieceWiseFunction function) {
+		super();
+		this.function = function;
+		this.points = function.getDatapoints();
+		this.modificationCount = points.getModificationCount();
+		this.size = points.size();
+
+		xs = new double[size];
+		ys = new double[size];
+		for (int i = 0; i < size; i++) {
+			xs[i] = points.getX(i);
+			ys[i] = points.getY(i);
+		}
+		slopes = new double[Math.max(size - 1, 0)];
+		for (int i = 0; i < slopes.length; i++) {
+			slopes[i] = Double.compare(xs[i], xs[i + 1]) == 0 ? Double.NaN
+					: (ys[i + 1] - ys[i]) / (xs[i + 1] - xs[i]);
+		}
+	}
+
+	/**
+	 * @return true if the table was built from this function and it has not been
+	 *         modified since then
+	 */
+	boolean isValidFor(LinearPieceWiseFunction truthValue) {
+		if (truthValue != function) {
+			return false;
+		}
+		// Immutable functions only give copies of their datapoints
+		return function instanceof ImmutableLinearPiecewiseFunction || (points == function.getDatapoints()
+				&& modificationCount == points.getModificationCount());
+	}
+
+	/**
+	 * @return The number of datapoints of the truth value
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return The x of the datapoint i of the truth value
+	 */
+	double getX(int i) {
+		return xs[i];
+	}
+
+	/**
+	 * @return The y of the datapoint i of the truth value
+	 */
+	double getY(int i) {
+		return ys[i];
+	}
+
+	/**
+	 * Same as {@link LinearPieceWiseFunction#getValueAt(double)} of the truth
+	 * value
+	 */
+	double getValueAt(double x) throws FunctionOperationException {
+		if (size > 0 && DoubleMath.fuzzyEquals(x, xs[0], LinearPieceWiseFunction.TOLERANCE)) {
+			return ys[0];
+		}
+		int i = getSegmentIndexContaining(x);
+		if (Double.isNaN(slopes[i])) {
+			return ys[i + 1];
+		}
+		// Points found with tolerance slightly outside the segment are not
+		// extrapolated
+		return ys[i] + (Math.min(Math.max(x, xs[i]), xs[i + 1]) - xs[i]) * slopes[i];
+	}
+
+	/**
+	 * Same as
+	 * {@link LinearPieceWiseFunctionDataPoints#getIntervalIndexContaining(double)}
+	 */
+	private int getSegmentIndexContaining(double x) throws FunctionOperationException {
+		// First datapoint (from the second one) whose x is not lower than x
+		int low = 1, high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (DoubleMath.fuzzyCompare(xs[middle], x, LinearPieceWiseFunction.TOLERANCE) >= 0) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		if (low < size && DoubleMath.fuzzyCompare(xs[low - 1], x, LinearPieceWiseFunction.TOLERANCE) <= 0) {
+			return low - 1;
+		}
+		// Let the datapoints report the error
+		return points.getIntervalIndexContaining(x);
+	}
+
+}
@@ -0,0 +1,457 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.serialization;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.FuzzyNumber;
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.impl.FuzzyBooleanImpl;
+import se.lnu.eres.fuzzy.functions.impl.FuzzyNumberImpl;
+import se.lnu.eres.fuzzy.functions.impl.LinearPieceWiseFunctionDataPoints;
+import se.lnu.eres.fuzzy.functions.impl.LinearPiecewiseFunctionImpl;
+import se.lnu.eres.fuzzy.goals.ApproximationStrategy;
+import se.lnu.eres.fuzzy.goals.Goal;
+import se.lnu.eres.fuzzy.goals.GoalType;
+import se.lnu.eres.fuzzy.goals.LeafGoal;
+import se.lnu.eres.fuzzy.goals.LeafGoalType;
+import se.lnu.eres.fuzzy.goals.ReductionStrategy;
+import se.lnu.eres.fuzzy.goals.impl.AbstractGoal;
+import se.lnu.eres.fuzzy.goals.impl.GoalFactory;
+import se.lnu.eres.fuzzy.goals.impl.LeafGoalImpl;
+import se.lnu.eres.fuzzy.serialization.exceptions.ModelFormatException;
+
+/**
+ * Compact binary format of functions, fuzzy numbers, fuzzy booleans and goal
+ * trees, to exchange models and results between processes.
+ * 
+ * Each payload is the magic bytes "FZGM", the version, the kind of payload and
+ * its body. Doubles are little endian and counts and indexes are unsigned LEB128
+ * varints:
+ * 
+ * <pre>
+ * function      := count, (x, y) of each datapoint in order
+ * fuzzy number  := function
+ * fuzzy boolean := approximation error, function
+ * goal          := string table, node
+ * string table  := count, (byte length, UTF-8 bytes) of each string
+ * node          := 0, leaf type, name index + 1 (0 without name), truth value function
+ *                | 1, goal type, reduction strategy, approximation strategy,
+ *                  maximum breakpoints (0 for the default), child count, children
+ * </pre>
+ * 
+ * Enums are written as the byte of their ordinal, so new constants go at the
+ * end. The observations and the cached satisfactions of the goals are not
+ * written, and a goal with several parents is written once under each of them.
+ * 
+ * The payloads are read from the position of the buffer, which is left after
+ * the payload, so several payloads can be written one after the other. The
+ * datapoints are read into the arrays of the new functions without creating
+ * other objects.
+ */
+public final class BinaryModelFormat {
+
+	private static final Logger Logger = LogManager.getLogger(BinaryModelFormat.class.getSimpleName());
+
+	public static final int VERSION = 1;
+
+	private static final byte[] MAGIC = { 'F', 'Z', 'G', 'M' };
+
+	private static final byte FUNCTION = 1;
+	private static final byte FUZZY_NUMBER = 2;
+	private static final byte FUZZY_BOOLEAN = 3;
+	private static final byte GOAL = 4;
+
+	private static final byte LEAF_NODE = 0;
+	private static final byte INTERMEDIATE_NODE = 1;
+
+	// Bytes of the x and y of a datapoint
+	private static final int DATAPOINT_BYTES = 2 * Double.BYTES;
+
+	private BinaryModelFormat() {
+		super();
+	}
+
+	/**
+	 * @return The payload, little endian, from position 0 to its limit
+	 */
+	public static ByteBuffer WriteFunction(LinearPieceWiseFunction function) {
+		Output output = new Output(FUNCTION, DATAPOINT_BYTES * function.getDatapoints().size());
+		output.putFunction(function);
+		return output.toByteBuffer();
+	}
+
+	public static ByteBuffer WriteFuzzyNumber(FuzzyNumber number) {
+		Output output = new Output(FUZZY_NUMBER, DATAPOINT_BYTES * number.getFunction().getDatapoints().size());
+		output.putFunction(number.getFunction());
+		return output.toByteBuffer();
+	}
+
+	public static ByteBuffer WriteFuzzyBoolean(FuzzyBoolean fuzzyBoolean) {
+		Output output = new Output(FUZZY_BOOLEAN,
+				Double.BYTES + DATAPOINT_BYTES * fuzzyBoolean.getFunction().getDatapoints().size());
+		output.putDouble(fuzzyBoolean.getApproximationError());
+		output.putFunction(fuzzyBoolean.getFunction());
+		return output.toByteBuffer();
+	}
+
+	/**
+	 * Writes the goal and all the goals beneath it. A leaf goal is written as a
+	 * tree of a single node.
+	 * 
+	 * @throws FunctionOperationException If a leaf goal has no truth value
+	 */
+	public static ByteBuffer WriteGoal(Goal root) throws FunctionOperationException {
+		Map<String, Integer> names = new LinkedHashMap<String, Integer>();
+		CollectNames(root, names);
+		Output output = new Output(GOAL, 256);
+		output.putVarint(names.size());
+		for (String name : names.keySet()) {
+			byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+			output.putVarint(bytes.length);
+			output.putBytes(bytes);
+		}
+		output.putNode(root, names);
+		ByteBuffer payload = output.toByteBuffer();
+		Logger.debug("Goal tree with {} names written in {} bytes", names.size(), payload.limit());
+		return payload;
+	}
+
+	public static LinearPieceWiseFunction ReadFunction(ByteBuffer buffer) throws ModelFormatException {
+		ByteOrder order = Open(buffer, FUNCTION);
+		try {
+			return ReadFunctionBody(buffer);
+		} catch (BufferUnderflowException e) {
+			throw new ModelFormatException("The function is truncated", e);
+		} finally {
+			buffer.order(order);
+		}
+	}
+
+	public static FuzzyNumber ReadFuzzyNumber(ByteBuffer buffer) throws ModelFormatException {
+		ByteOrder order = Open(buffer, FUZZY_NUMBER);
+		try {
+			return new FuzzyNumberImpl(ReadFunctionBody(buffer));
+		} catch (BufferUnderflowException e) {
+			throw new ModelFormatException("The fuzzy number is truncated", e);
+		} finally {
+			buffer.order(order);
+		}
+	}
+
+	public static FuzzyBoolean ReadFuzzyBoolean(ByteBuffer buffer) throws ModelFormatException {
+		ByteOrder order = Open(buffer, FUZZY_BOOLEAN);
+		try {
+			double approximationError = buffer.getDouble();
+			return new FuzzyBooleanImpl(ReadFunctionBody(buffer), approximationError);
+		} catch (BufferUnderflowException e) {
+			throw new ModelFormatException("The fuzzy boolean is truncated", e);
+		} finally {
+			buffer.order(order);
+		}
+	}
+
+	/**
+	 * @return The root of a new goal tree, without observations
+	 */
+	public static Goal ReadGoal(ByteBuffer buffer) throws ModelFormatException {
+		ByteOrder order = Open(buffer, GOAL);
+		try {
+			int nameCount = ReadCount(buffer, 1);
+			String[] names = new String[nameCount];
+			for (int i = 0; i < nameCount; i++) {
+				names[i] = ReadString(buffer);
+			}
+			return ReadNode(buffer, names);
+		} catch (BufferUnderflowException e) {
+			throw new ModelFormatException("The goal tree is truncated", e);
+		} finally {
+			buffer.order(order);
+		}
+	}
+
+	/**
+	 * @throws ModelFormatException If the goal is not a leaf goal
+	 */
+	public static LeafGoal ReadLeafGoal(ByteBuffer buffer) throws ModelFormatException {
+		Goal goal = ReadGoal(buffer);
+		if (!(goal instanceof LeafGoal)) {
+			throw new ModelFormatException("The goal is a " + goal.getType() + " goal, not a leaf goal");
+		}
+		return (LeafGoal) goal;
+	}
+
+	private static void CollectNames(Goal goal, Map<String, Integer> names) {
+		if (goal instanceof LeafGoal) {
+			String name = ((LeafGoal) goal).getName();
+			if (name != null && !names.containsKey(name)) {
+				names.put(name, names.size());
+			}
+			return;
+		}
+		for (Goal child : goal.getChildren()) {
+			CollectNames(child, names);
+		}
+	}
+
+	/**
+	 * Checks the header and sets the buffer to little endian
+	 * 
+	 * @return The previous order of the buffer, to set it back
+	 */
+	private static ByteOrder Open(ByteBuffer buffer, byte kind) throws ModelFormatException {
+		if (buffer.remaining() < MAGIC.length + 2) {
+			throw new ModelFormatException("The payload is truncated: " + buffer.remaining() + " bytes");
+		}
+		for (int i = 0; i < MAGIC.length; i++) {
+			if (buffer.get() != MAGIC[i]) {
+				throw new ModelFormatException("The payload is not in the binary model format");
+			}
+		}
+		ByteOrder order = buffer.order();
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		boolean opened = false;
+		try {
+			int version = ReadVarint(buffer);
+			if (version < 1 || version > VERSION) {
+				throw new ModelFormatException("Unsupported version " + version + ", the last one is " + VERSION);
+			}
+			byte foundKind = buffer.get();
+			if (foundKind != kind) {
+				throw new ModelFormatException("Expected a payload of kind " + kind + " but found " + foundKind);
+			}
+			opened = true;
+			return order;
+		} catch (BufferUnderflowException e) {
+			throw new ModelFormatException("The payload is truncated", e);
+		} finally {
+			if (!opened) {
+				buffer.order(order);
+			}
+		}
+	}
+
+	private static LinearPieceWiseFunction ReadFunctionBody(ByteBuffer buffer) throws ModelFormatException {
+		int size = ReadCount(buffer, DATAPOINT_BYTES);
+		LinearPieceWiseFunctionDataPoints points = new LinearPieceWiseFunctionDataPoints(size);
+		for (int i = 0; i < size; i++) {
+			double x = buffer.getDouble();
+			points.add(x, buffer.getDouble());
+		}
+		return new LinearPiecewiseFunctionImpl(points);
+	}
+
+	private static Goal ReadNode(ByteBuffer buffer, String[] names) throws ModelFormatException {
+		byte node = buffer.get();
+		if (node == LEAF_NODE) {
+			LeafGoalType type = ReadEnum(buffer, LeafGoalType.values());
+			int nameIndex = ReadVarint(buffer);
+			if (nameIndex > names.length) {
+				throw new ModelFormatException(
+						"Name " + nameIndex + " out of the string table of " + names.length + " names");
+			}
+			String name = nameIndex == 0 ? null : names[nameIndex - 1];
+			return new LeafGoalImpl(type, new FuzzyNumberImpl(ReadFunctionBody(buffer)), name);
+		}
+		if (node != INTERMEDIATE_NODE) {
+			throw new ModelFormatException("Unknown goal node " + node);
+		}
+
+		GoalType type = ReadEnum(buffer, GoalType.values());
+		ReductionStrategy reductionStrategy = ReadEnum(buffer, ReductionStrategy.values());
+		ApproximationStrategy approximationStrategy = ReadEnum(buffer, ApproximationStrategy.values());
+		int maximumBreakpoints = ReadVarint(buffer);
+		int childCount = ReadCount(buffer, 1);
+		Goal goal;
+		try {
+			goal = GoalFactory.CreateGoal(type, reductionStrategy);
+		} catch (FunctionOperationException e) {
+			throw new ModelFormatException("The goal of type " + type + " cannot be created", e);
+		}
+		if (maximumBreakpoints != 0) {
+			try {
+				((AbstractGoal) goal).setApproximation(approximationStrategy, maximumBreakpoints);
+			} catch (IllegalArgumentException e) {
+				throw new ModelFormatException("Invalid approximation of a " + type + " goal", e);
+			}
+		}
+		for (int i = 0; i < childCount; i++) {
+			goal.addChild(ReadNode(buffer, names));
+		}
+		return goal;
+	}
+
+	private static <E extends Enum<E>> E ReadEnum(ByteBuffer buffer, E[] values) throws ModelFormatException {
+		int ordinal = buffer.get() & 0xFF;
+		if (ordinal >= values.length) {
+			throw new ModelFormatException("Unknown " + values[0].getDeclaringClass().getSimpleName() + " " + ordinal);
+		}
+		return values[ordinal];
+	}
+
+	private static String ReadString(ByteBuffer buffer) throws ModelFormatException {
+		int length = ReadCount(buffer, 1);
+		String value;
+		if (buffer.hasArray()) {
+			value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+					StandardCharsets.UTF_8);
+			buffer.position(buffer.position() + length);
+		} else {
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			value = new String(bytes, StandardCharsets.UTF_8);
+		}
+		return value;
+	}
+
+	/**
+	 * @param elementBytes The least bytes of each element, to reject counts larger
+	 *                     than the rest of the payload
+	 */
+	private static int ReadCount(ByteBuffer buffer, int elementBytes) throws ModelFormatException {
+		int count = ReadVarint(buffer);
+		if (count > buffer.remaining() / elementBytes) {
+			throw new ModelFormatException(
+					"Count " + count + " larger than the " + buffer.remaining() + " bytes left in the payload");
+		}
+		return count;
+	}
+
+	private static int ReadVarint(ByteBuffer buffer) throws ModelFormatException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			byte b = buffer.get();
+			if (shift == 28 && (b & 0xF8) != 0) {
+				throw new ModelFormatException("Varint larger than an int");
+			}
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new ModelFormatException("Varint larger than an int");
+	}
+
+	/**
+	 * A little endian buffer that grows as the payload is written
+	 */
+	private static final class Output {
+
+		private ByteBuffer buffer;
+
+		Output(byte kind, int bodyBytes) {
+			buffer = ByteBuffer.allocate(MAGIC.length + 6 + bodyBytes).order(ByteOrder.LITTLE_ENDIAN);
+			putBytes(MAGIC);
+			putVarint(VERSION);
+			putByte(kind);
+		}
+
+		void putByte(int value) {
+			ensureRemaining(1);
+			buffer.put((byte) value);
+		}
+
+		void putBytes(byte[] bytes) {
+			ensureRemaining(bytes.length);
+			buffer.put(bytes);
+		}
+
+		void putDouble(double value) {
+			ensureRemaining(Double.BYTES);
+			buffer.putDouble(value);
+		}
+
+		void putVarint(int value) {
+			ensureRemaining(5);
+			while ((value & ~0x7F) != 0) {
+				buffer.put((byte) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			buffer.put((byte) value);
+		}
+
+		void putFunction(LinearPieceWiseFunction function) {
+			LinearPieceWiseFunctionDataPoints points = function.getDatapoints();
+			int size = points.size();
+			putVarint(size);
+			ensureRemaining(DATAPOINT_BYTES * size);
+			for (int i = 0; i < size; i++) {
+				buffer.putDouble(points.getX(i));
+				buffer.putDouble(points.getY(i));
+			}
+		}
+
+		void putNode(Goal goal, Map<String, Integer> names) throws FunctionOperationException {
+			if (goal instanceof LeafGoal) {
+				LeafGoal leaf = (LeafGoal) goal;
+				putByte(LEAF_NODE);
+				putByte(leaf.getLeafType().ordinal());
+				putVarint(leaf.getName() == null ? 0 : names.get(leaf.getName()) + 1);
+				putFunction(leaf.getGoalTruthValue());
+				return;
+			}
+			putByte(INTERMEDIATE_NODE);
+			putByte(goal.getType().ordinal());
+			if (goal instanceof AbstractGoal) {
+				AbstractGoal abstractGoal = (AbstractGoal) goal;
+				putByte(abstractGoal.getReductionStrategy().ordinal());
+				putByte(abstractGoal.getApproximationStrategy().ordinal());
+				putVarint(abstractGoal.getMaximumBreakpoints());
+			} else {
+				putByte(ReductionStrategy.FOLD.ordinal());
+				putByte(ApproximationStrategy.EXACT.ordinal());
+				putVarint(0);
+			}
+			putVarint(goal.getChildren().size());
+			for (Goal child : goal.getChildren()) {
+				putNode(child, names);
+			}
+		}
+
+		ByteBuffer toByteBuffer() {
+			buffer.flip();
+			return buffer;
+		}
+
+		private void ensureRemaining(int bytes) {
+			if (buffer.remaining() < bytes) {
+				ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes))
+						.order(ByteOrder.LITTLE_ENDIAN);
+				buffer.flip();
+				larger.put(buffer);
+				buffer = larger;
+			}
+		}
+
+	}
+
+}
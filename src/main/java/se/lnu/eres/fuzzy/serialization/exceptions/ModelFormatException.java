@@ -0,0 +1,40 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.serialization.exceptions;
+
+/**
+ * The bytes are not a valid model in the binary format: they are truncated,
+ * corrupted or from an unsupported version
+ */
+public class ModelFormatException extends Exception {
+
+	private static final long serialVersionUID = -4216950118260340329L;
+
+	public ModelFormatException(String message) {
+		super(message);
+	}
+
+	public ModelFormatException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+}
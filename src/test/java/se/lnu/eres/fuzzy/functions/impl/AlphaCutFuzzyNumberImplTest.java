@@ -0,0 +1,141 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.functions.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import se.lnu.eres.fuzzy.functions.AlphaCutFuzzyNumber;
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.exceptions.FuzzyNumberConversionException;
+
+class AlphaCutFuzzyNumberImplTest {
+
+	private static LinearPieceWiseFunction createTriangle(double start, double top, double end) {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		function.addPoint(0.0, 0.0);
+		function.addPoint(start, 0.0);
+		function.addPoint(top, 1.0);
+		function.addPoint(end, 0.0);
+		function.addPoint(10.0, 0.0);
+		return function;
+	}
+
+	private static void assertAlphaCut(double lower, double upper, AlphaCutFuzzyNumber number, double level) {
+		Assertions.assertEquals(lower, number.getAlphaCut(level).getLeft(), LinearPieceWiseFunction.TOLERANCE,
+				"Lower bound at " + level + " of " + number);
+		Assertions.assertEquals(upper, number.getAlphaCut(level).getRight(), LinearPieceWiseFunction.TOLERANCE,
+				"Upper bound at " + level + " of " + number);
+	}
+
+	@Test
+	void testConversionFromFunctionIsLossless() throws FuzzyNumberConversionException, FunctionOperationException {
+		LinearPieceWiseFunction trapezoid = new LinearPiecewiseFunctionImpl();
+		trapezoid.addPoint(0.0, 0.0);
+		trapezoid.addPoint(1.0, 0.0);
+		trapezoid.addPoint(1.5, 0.3);
+		trapezoid.addPoint(2.0, 1.0);
+		trapezoid.addPoint(3.0, 1.0);
+		trapezoid.addPoint(4.0, 0.0);
+		trapezoid.addPoint(Double.MAX_VALUE, 0.0);
+		AlphaCutFuzzyNumber number = AlphaCutFuzzyNumberImpl.FromFunction(trapezoid);
+		Assertions.assertEquals(3, number.getLevelCount());
+		assertAlphaCut(1.0, 4.0, number, 0.0);
+		assertAlphaCut(1.5, 3.7, number, 0.3);
+		assertAlphaCut(2.0, 3.0, number, 1.0);
+		// Same function, with an additional datapoint in the decreasing side for the
+		// level 0.3
+		LinearPieceWiseFunction function = number.toFunction();
+		Assertions.assertEquals(trapezoid.getDatapoints().size() + 1, function.getDatapoints().size());
+		for (double x = 0.0; x <= 5.0; x += 0.125) {
+			Assertions.assertEquals(trapezoid.getValueAt(x), function.getValueAt(x), LinearPieceWiseFunction.TOLERANCE);
+		}
+
+		// Fuzzy boolean with a discontinuity that finishes in the full satisfaction
+		LinearPieceWiseFunction satisfaction = new LinearPiecewiseFunctionImpl();
+		satisfaction.addPoint(0.0, 0.0);
+		satisfaction.addPoint(0.5, 0.0);
+		satisfaction.addPoint(1.0, 0.5);
+		satisfaction.addPoint(1.0, 1.0);
+		Assertions.assertEquals(satisfaction.getDatapoints().getDatapoints(),
+				AlphaCutFuzzyNumberImpl.FromFunction(satisfaction).toFunction().getDatapoints().getDatapoints());
+	}
+
+	@Test
+	void testConversionOfFunctionsThatAreNotFuzzyNumbers() {
+		LinearPieceWiseFunction function = createTriangle(1.0, 2.0, 3.0);
+		function.addPoint(11.0, 0.5);
+		Assertions.assertThrows(FuzzyNumberConversionException.class,
+				() -> AlphaCutFuzzyNumberImpl.FromFunction(function));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> AlphaCutFuzzyNumberImpl.FromFunction(createTriangle(1.0, 2.0, 3.0), 1));
+	}
+
+	@Test
+	void testIntervalArithmetic() throws FuzzyNumberConversionException {
+		AlphaCutFuzzyNumber a = AlphaCutFuzzyNumberImpl.FromFunction(createTriangle(1.0, 2.0, 3.0), 5);
+		AlphaCutFuzzyNumber b = AlphaCutFuzzyNumberImpl.FromFunction(createTriangle(2.0, 3.0, 5.0));
+
+		AlphaCutFuzzyNumber sum = a.add(b);
+		Assertions.assertEquals(5, sum.getLevelCount());
+		assertAlphaCut(3.0, 8.0, sum, 0.0);
+		assertAlphaCut(4.0, 6.5, sum, 0.5);
+		assertAlphaCut(5.0, 5.0, sum, 1.0);
+
+		AlphaCutFuzzyNumber difference = b.subtract(a);
+		assertAlphaCut(-1.0, 4.0, difference, 0.0);
+		assertAlphaCut(1.0, 1.0, difference, 1.0);
+		Assertions.assertEquals(-10.0, difference.getDomain().getLeft());
+		Assertions.assertEquals(10.0, difference.getDomain().getRight());
+	}
+
+	@Test
+	void testMinimumAddsTheLevelsWhereTheBoundsCross() throws FuzzyNumberConversionException {
+		// Narrow and wide triangles, whose upper bounds cross at level 0.5
+		AlphaCutFuzzyNumber narrow = AlphaCutFuzzyNumberImpl.FromFunction(createTriangle(3.0, 4.0, 5.0));
+		AlphaCutFuzzyNumber wide = AlphaCutFuzzyNumberImpl.FromFunction(createTriangle(1.0, 3.0, 7.0));
+
+		AlphaCutFuzzyNumber minimum = narrow.min(wide);
+		Assertions.assertEquals(3, minimum.getLevelCount());
+		assertAlphaCut(1.0, 5.0, minimum, 0.0);
+		assertAlphaCut(2.0, 4.5, minimum, 0.5);
+		assertAlphaCut(3.0, 3.0, minimum, 1.0);
+
+		AlphaCutFuzzyNumber maximum = narrow.max(wide);
+		assertAlphaCut(3.0, 7.0, maximum, 0.0);
+		assertAlphaCut(3.5, 5.0, maximum, 0.5);
+		assertAlphaCut(4.0, 4.0, maximum, 1.0);
+	}
+
+	@Test
+	void testPossibilityOfNotGreaterThan() throws FuzzyNumberConversionException {
+		AlphaCutFuzzyNumber low = AlphaCutFuzzyNumberImpl.FromFunction(createTriangle(1.0, 2.0, 3.0));
+		AlphaCutFuzzyNumber high = AlphaCutFuzzyNumberImpl.FromFunction(createTriangle(2.0, 3.0, 4.0));
+		AlphaCutFuzzyNumber far = AlphaCutFuzzyNumberImpl.FromFunction(createTriangle(5.0, 6.0, 7.0));
+
+		Assertions.assertEquals(1.0, low.getPossibilityOfNotGreaterThan(high));
+		Assertions.assertEquals(0.5, high.getPossibilityOfNotGreaterThan(low), LinearPieceWiseFunction.TOLERANCE);
+		Assertions.assertEquals(0.0, far.getPossibilityOfNotGreaterThan(low));
+	}
+
+}
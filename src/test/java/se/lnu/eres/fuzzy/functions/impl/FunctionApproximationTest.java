@@ -0,0 +1,183 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.functions.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+
+class FunctionApproximationTest {
+
+	/**
+	 * A zig-zag on [0,1] that finishes in a discontinuity
+	 */
+	private static LinearPieceWiseFunction createZigZag(int teeth) {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		for (int i = 0; i <= 2 * teeth; i++) {
+			function.addPoint((double) i / (2 * teeth), i % 2 == 0 ? 0.2 : 0.3);
+		}
+		function.addPoint(1.0, 1.0);
+		return function;
+	}
+
+	private static void assertErrorIsTheLargestDistance(LinearPieceWiseFunction function,
+			FunctionApproximation.Approximation approximation) throws FunctionOperationException {
+		double largestDistance = 0.0;
+		for (double x = 0.0; x < 1.0; x += 0.001) {
+			largestDistance = Math.max(largestDistance,
+					Math.abs(function.getValueAt(x) - approximation.getFunction().getValueAt(x)));
+		}
+		Assertions.assertTrue(largestDistance <= approximation.getMaximumError() + LinearPieceWiseFunction.TOLERANCE,
+				"Distance " + largestDistance + " larger than the error of " + approximation);
+	}
+
+	@Test
+	void testResampleOnGrid() throws FunctionOperationException {
+		LinearPieceWiseFunction function = createZigZag(50);
+		FunctionApproximation.Approximation approximation = FunctionApproximation.ResampleOnGrid(function, 11);
+
+		Assertions.assertEquals(11, approximation.getFunction().getDatapoints().size());
+		Assertions.assertEquals(function.getDatapoints().size() - 11, approximation.getRemovedBreakpoints());
+		Assertions.assertEquals(0.0, approximation.getFunction().getDatapoints().getX(0));
+		Assertions.assertEquals(1.0, approximation.getFunction().getDatapoints().getX(10));
+		// The discontinuity at 1 is lost
+		Assertions.assertEquals(0.8, approximation.getMaximumError(), LinearPieceWiseFunction.TOLERANCE);
+		assertErrorIsTheLargestDistance(function, approximation);
+
+		Assertions.assertSame(function, FunctionApproximation.ResampleOnGrid(function, 500).getFunction());
+	}
+
+	@Test
+	void testSimplifyToBreakpointsKeepsTheLargestChanges() throws FunctionOperationException {
+		LinearPieceWiseFunction function = createZigZag(50);
+		FunctionApproximation.Approximation approximation = FunctionApproximation.SimplifyToBreakpoints(function,
+				4);
+
+		Assertions.assertEquals(4, approximation.getFunction().getDatapoints().size());
+		// The discontinuity is kept and the teeth are lost
+		Assertions.assertEquals(1.0, approximation.getFunction().getValuesAt(1.0).getLast());
+		Assertions.assertTrue(approximation.getMaximumError() <= 0.1 + LinearPieceWiseFunction.TOLERANCE);
+		assertErrorIsTheLargestDistance(function, approximation);
+
+		// Collinear points are removed without error
+		LinearPieceWiseFunction line = new LinearPiecewiseFunctionImpl();
+		for (int i = 0; i <= 10; i++) {
+			line.addPoint(i / 10.0, i / 10.0);
+		}
+		FunctionApproximation.Approximation simplifiedLine = FunctionApproximation.SimplifyToBreakpoints(line, 5);
+		Assertions.assertEquals(2, simplifiedLine.getFunction().getDatapoints().size());
+		Assertions.assertEquals(9, simplifiedLine.getRemovedBreakpoints());
+		Assertions.assertEquals(0.0, simplifiedLine.getMaximumError(), LinearPieceWiseFunction.TOLERANCE);
+	}
+
+	/**
+	 * A trapezoid on [0,1] with support [0.2,0.8], core [0.4,0.6] and small
+	 * oscillations in its sides
+	 */
+	private static LinearPieceWiseFunction createNoisyTrapezoid() {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		function.addPoint(0.0, 0.0);
+		function.addPoint(0.1, 0.0);
+		for (int i = 0; i <= 20; i++) {
+			double noise = i % 2 == 0 ? 0.0 : 0.005;
+			function.addPoint(0.2 + i * 0.01, Math.min(1.0, i / 20.0 + noise));
+		}
+		function.addPoint(0.5, 1.0);
+		for (int i = 20; i >= 0; i--) {
+			double noise = i % 2 == 0 ? 0.0 : 0.005;
+			function.addPoint(0.8 - i * 0.01, Math.min(1.0, i / 20.0 + noise));
+		}
+		function.addPoint(1.0, 0.0);
+		return function;
+	}
+
+	@Test
+	void testSimplifyWithinEpsilonKeepsCoreAndSupport() throws FunctionOperationException {
+		LinearPieceWiseFunction function = createNoisyTrapezoid();
+		FunctionApproximation.Approximation approximation = FunctionApproximation.Simplify(function, 0.01);
+		LinearPieceWiseFunctionDataPoints simplified = approximation.getFunction().getDatapoints();
+
+		// Only the ends, the support limits and the core limits are left
+		Assertions.assertEquals(6, simplified.size(), simplified.toString());
+		Assertions.assertEquals(function.getDatapoints().size() - 6, approximation.getRemovedBreakpoints());
+		Assertions.assertEquals(0.005, approximation.getMaximumError(), LinearPieceWiseFunction.TOLERANCE);
+		for (double x : new double[] { 0.2, 0.4, 0.6, 0.8 }) {
+			Assertions.assertEquals(function.getValueAt(x), approximation.getFunction().getValueAt(x),
+					LinearPieceWiseFunction.TOLERANCE);
+		}
+		assertErrorIsTheLargestDistance(function, approximation);
+
+		// A smaller epsilon keeps the oscillations
+		FunctionApproximation.Approximation precise = FunctionApproximation.Simplify(function, 0.001);
+		Assertions.assertTrue(precise.getFunction().getDatapoints().size() > 40);
+		assertErrorIsTheLargestDistance(function, precise);
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> FunctionApproximation.Simplify(function, -1.0));
+	}
+
+	@Test
+	void testSimplifyKeepsSupportAndCoreOfSeveralPeaks() throws FunctionOperationException {
+		// A low peak in (1,3) and a peak at 5, as the ones of an OR merge
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		double[][] xy = { { 0, 0 }, { 1, 0 }, { 1.5, 0.02 }, { 2, 0.05 }, { 3, 0 }, { 4, 0 }, { 5, 1 }, { 6, 0 } };
+		for (double[] point : xy) {
+			function.addPoint(point[0], point[1]);
+		}
+		FunctionApproximation.Approximation approximation = FunctionApproximation.Simplify(function, 0.1);
+		Assertions.assertEquals(1, approximation.getRemovedBreakpoints());
+		Assertions.assertEquals(0.05, approximation.getFunction().getValueAt(2.0), LinearPieceWiseFunction.TOLERANCE);
+		assertErrorIsTheLargestDistance(function, approximation);
+
+		// A dip between two parts of the core
+		function = new LinearPiecewiseFunctionImpl();
+		xy = new double[][] { { 0, 0 }, { 1, 1 }, { 2, 0.95 }, { 3, 1 }, { 4, 0 } };
+		for (double[] point : xy) {
+			function.addPoint(point[0], point[1]);
+		}
+		approximation = FunctionApproximation.Simplify(function, 0.1);
+		Assertions.assertEquals(0, approximation.getRemovedBreakpoints());
+		Assertions.assertEquals(0.95, approximation.getFunction().getValueAt(2.0), LinearPieceWiseFunction.TOLERANCE);
+	}
+
+	@Test
+	void testSimplifyWithoutErrorRemovesCollinearPoints() throws FunctionOperationException {
+		// A zig-zag with a point in the middle of each of its first three segments
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		for (int i = 0; i <= 10; i++) {
+			function.addPoint(i / 10.0, i % 2 == 0 ? 0.2 : 0.3);
+			if (i < 3) {
+				function.addPoint(i / 10.0 + 0.05, 0.25);
+			}
+		}
+		LinearPieceWiseFunction collinearRemoved = new LinearPiecewiseFunctionImpl(
+				new LinearPieceWiseFunctionDataPoints(function.getDatapoints().getDatapoints()));
+		collinearRemoved.simplifyPiecewiseFunction();
+
+		FunctionApproximation.Approximation approximation = FunctionApproximation.Simplify(function, 0.0);
+		Assertions.assertEquals(3, approximation.getRemovedBreakpoints());
+		Assertions.assertEquals(collinearRemoved.getDatapoints().getDatapoints(),
+				approximation.getFunction().getDatapoints().getDatapoints());
+	}
+
+}
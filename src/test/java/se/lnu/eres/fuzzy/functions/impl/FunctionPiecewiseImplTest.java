@@ -93,6 +93,27 @@ class FunctionPiecewiseImplTest {
 
 	}
 
+	@Test
+	void testGetValueAtDiscontinuity() throws FunctionOperationException {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		function.addPoint(0.0, 0.0);
+		function.addPoint(1.0, 0.5);
+		function.addPoint(1.0, 0.2);
+		function.addPoint(1.0, 0.8);
+		function.addPoint(2.0, 0.0);
+
+		// At the beginning of the function, its first value
+		Assertions.assertEquals(0.0, function.getValueAt(0.0));
+		// At the discontinuity, the value of the first interval containing x
+		Assertions.assertEquals(0.5, function.getValueAt(1.0));
+		Assertions.assertEquals(0.25, function.getValueAt(0.5), LinearPieceWiseFunction.TOLERANCE);
+		Assertions.assertEquals(0.4, function.getValueAt(1.5), LinearPieceWiseFunction.TOLERANCE);
+		Assertions.assertEquals(Arrays.asList(0.5, 0.2, 0.8), function.getValuesAt(1.0));
+		Assertions.assertEquals(0.0, function.getValueAt(2.0));
+		Assertions.assertThrows(FunctionOperationException.class, () -> function.getValueAt(2.5));
+		Assertions.assertThrows(FunctionOperationException.class, () -> function.getValueAt(-0.5));
+	}
+
 	@Test
 	void testGetIntersections() throws FunctionOperationException {
 		LinearPieceWiseFunction f1 = new LinearPiecewiseFunctionImpl();
@@ -124,4 +145,60 @@ class FunctionPiecewiseImplTest {
 		System.out.println("Intersections contents are: " + intersections.toString());
 	}
 
+	@Test
+	void testCursorAnswersAsTheFunction() throws FunctionOperationException {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		function.addPoint(0.0, 0.0);
+		function.addPoint(0.5, 0.7);
+		function.addPoint(1.0, 0.5);
+		function.addPoint(1.0, 0.2);
+		function.addPoint(1.0, 0.8);
+		function.addPoint(2.0, 0.8);
+		function.addPoint(3.0, 0.1);
+		function.addPoint(3.0, 0.6);
+		function.addPoint(4.0, 0.0);
+
+		LinearPieceWiseFunctionCursor cursor = new LinearPieceWiseFunctionCursor(function);
+		// Last two points go back to check that the cursor restarts
+		double[] xs = { 0.0, 0.25, 0.5, 1.0, 1.00001, 1.5, 2.0, 3.0, 3.5, 4.0, 0.5, 1.0 };
+		for (double x : xs) {
+			Assertions.assertEquals(function.getValueAt(x).doubleValue(), cursor.getValueAt(x), "value at " + x);
+			Assertions.assertEquals(function.getValuesAt(x), cursor.getValuesAt(x), "values at " + x);
+			for (boolean approachFromLeft : new boolean[] { true, false }) {
+				Assertions.assertEquals(function.getLargestValueAfterX(x, approachFromLeft),
+						cursor.getLargestValueAfterX(x, approachFromLeft), "largest after " + x);
+				Assertions.assertEquals(function.getLargestValueBeforeX(x, approachFromLeft),
+						cursor.getLargestValueBeforeX(x, approachFromLeft), "largest before " + x);
+			}
+		}
+		Assertions.assertThrows(FunctionOperationException.class, () -> cursor.getValueAt(5.0));
+	}
+
+	@Test
+	void testBulkEvaluationAnswersAsTheFunction() throws FunctionOperationException {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		function.addPoint(0.0, 0.0);
+		function.addPoint(0.0, 0.3);
+		function.addPoint(0.5, 0.7);
+		function.addPoint(1.0, 0.5);
+		function.addPoint(1.0, 0.2);
+		function.addPoint(2.0, 0.8);
+		function.addPoint(3.0, 0.1);
+		function.addPoint(4.0, 0.0);
+
+		double[] sorted = { 0.0, 0.00001, 0.25, 0.5, 0.99999, 1.0, 1.00001, 1.5, 2.0, 3.5, 4.0, 4.00001 };
+		double[] unsorted = { 3.5, 0.0, 1.0, 0.25, 4.0, 1.00001, 0.5, 2.0 };
+		for (double[] xs : new double[][] { sorted, unsorted }) {
+			double[] values = new double[xs.length];
+			function.getValuesAt(xs, values);
+			for (int i = 0; i < xs.length; i++) {
+				Assertions.assertEquals(function.getValueAt(xs[i]).doubleValue(), values[i], "value at " + xs[i]);
+			}
+		}
+		Assertions.assertThrows(FunctionOperationException.class,
+				() -> function.getValuesAt(new double[] { 1.0, 5.0 }, new double[2]));
+		Assertions.assertThrows(FunctionOperationException.class,
+				() -> function.getValuesAt(new double[] { 1.0, 2.0 }, new double[1]));
+	}
+
 }
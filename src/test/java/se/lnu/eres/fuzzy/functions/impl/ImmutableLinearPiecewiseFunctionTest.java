@@ -0,0 +1,129 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.functions.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+
+class ImmutableLinearPiecewiseFunctionTest {
+
+	private LinearPieceWiseFunction createMutableFunction() {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		function.addPoint(0.0, 0.0);
+		function.addPoint(0.2, 0.0);
+		function.addPoint(0.4, 1.0);
+		function.addPoint(0.4, 0.5);
+		function.addPoint(0.6, 0.5);
+		function.addPoint(0.7, 0.5);
+		function.addPoint(1.0, 0.0);
+		return function;
+	}
+
+	@Test
+	void testBuilderSortsAsAddPoint() throws FunctionOperationException {
+		ImmutableLinearPiecewiseFunction function = new ImmutableLinearPiecewiseFunction.Builder().addPoint(0.6, 0.5)
+				.addPoint(0.0, 0.0).addPoint(0.4, 1.0).addPoint(0.2, 0.0).addPoint(1.0, 0.0).addPoint(0.4, 0.5)
+				.addPoint(0.7, 0.5).build();
+		LinearPieceWiseFunction mutable = createMutableFunction();
+		Assertions.assertEquals(mutable.getDatapoints(), function.getDatapoints());
+		Assertions.assertEquals(function, ImmutableLinearPiecewiseFunction.CopyOf(function));
+
+		for (double x = 0.0; x <= 1.0; x += 0.05) {
+			Assertions.assertEquals(mutable.getValueAt(x), function.getValueAt(x));
+			Assertions.assertEquals(mutable.getValuesAt(x), function.getValuesAt(x));
+			Assertions.assertEquals(mutable.getLargestValueAfterX(x, false), function.getLargestValueAfterX(x, false));
+			Assertions.assertEquals(mutable.getLargestValueBeforeX(x, true), function.getLargestValueBeforeX(x, true));
+		}
+		Assertions.assertEquals(mutable.findIntersections(mutable), function.findIntersections(function));
+	}
+
+	@Test
+	void testCopyOfInOrderKeepsTheOrderOfThePoints() {
+		LinearPieceWiseFunctionDataPoints points = new LinearPieceWiseFunctionDataPoints();
+		points.add(0.0, 1.0);
+		points.add(-0.00001, 0.0);
+		points.add(1.0, 0.0);
+		ImmutableLinearPiecewiseFunction function = ImmutableLinearPiecewiseFunction.CopyOfInOrder(points);
+		points.clear();
+
+		Assertions.assertEquals(3, function.getDatapoints().size());
+		Assertions.assertEquals(0.0, function.getDatapoints().getX(0));
+		Assertions.assertEquals(-0.00001, function.getDatapoints().getX(1));
+	}
+
+	@Test
+	void testCannotBeModified() throws FunctionOperationException {
+		ImmutableLinearPiecewiseFunction function = ImmutableLinearPiecewiseFunction.CopyOf(createMutableFunction());
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> function.addPoint(2.0, 0.0));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> function.simplifyPiecewiseFunction());
+
+		function.getDatapoints().add(2.0, 1.0);
+		Assertions.assertEquals(7, function.getDatapoints().size());
+
+		// 0.6 is between 0.4 and 0.7 with the same y
+		ImmutableLinearPiecewiseFunction simplified = function.simplified();
+		Assertions.assertEquals(6, simplified.getDatapoints().size());
+		Assertions.assertEquals(7, function.getDatapoints().size());
+
+		Assertions.assertThrows(FunctionOperationException.class,
+				() -> new ImmutableLinearPiecewiseFunction.Builder().addPoint(0.0, Double.NaN).build());
+	}
+
+	@Test
+	void testSharedAmongThreads() throws Exception {
+		ImmutableLinearPiecewiseFunction function = ImmutableLinearPiecewiseFunction.CopyOf(createMutableFunction());
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Double>> results = new ArrayList<Future<Double>>();
+			for (int i = 0; i < 16; i++) {
+				results.add(executor.submit(new Callable<Double>() {
+					@Override
+					public Double call() throws FunctionOperationException {
+						double sum = 0;
+						LinearPieceWiseFunctionCursor cursor = new LinearPieceWiseFunctionCursor(function);
+						for (int j = 0; j <= 1000; j++) {
+							sum += cursor.getValueAt(j / 1000.0);
+						}
+						return sum;
+					}
+				}));
+			}
+			double expected = results.getFirst().get();
+			for (Future<Double> result : results) {
+				Assertions.assertEquals(expected, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
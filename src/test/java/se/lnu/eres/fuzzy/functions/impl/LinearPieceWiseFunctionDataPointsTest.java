@@ -28,6 +28,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
 import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
 
 class LinearPieceWiseFunctionDataPointsTest {
@@ -53,4 +54,146 @@ class LinearPieceWiseFunctionDataPointsTest {
 		Assertions.assertEquals(points.getIntervalContaining(0.3), new LinearPieceWiseFunctionDataPoints(new ImmutablePair<Double,Double>(0.0, 1.0),new ImmutablePair<Double,Double>(0.56, 1.0)));
 	}
 
+	@Test
+	void testPrimitiveAccessAndPairAdapter() {
+		LinearPieceWiseFunctionDataPoints points = new LinearPieceWiseFunctionDataPoints(1);
+		points.add(0.0, 0.0);
+		points.add(1.0, 1.0);
+		points.add(new ImmutablePair<Double,Double>(2.0, 0.0));
+		points.add(1, 0.5, 0.5);
+
+		Assertions.assertEquals(4, points.size());
+		Assertions.assertEquals(0.5, points.getX(1));
+		Assertions.assertEquals(new ImmutablePair<Double,Double>(1.0, 1.0), points.get(2));
+
+		double[] expectedX = { 0.0, 0.5, 1.0, 2.0 };
+		int i = 0;
+		for (ImmutablePair<Double, Double> point : points) {
+			Assertions.assertEquals(expectedX[i++], point.getLeft());
+		}
+		Assertions.assertEquals(points.getDatapoints().get(3), points.getLast());
+
+		Assertions.assertEquals(new ImmutablePair<Double,Double>(0.5, 0.5), points.remove(1));
+		Assertions.assertEquals(3, points.size());
+		Assertions.assertEquals(1.0, points.getX(1));
+	}
+
+	@Test
+	void testSortByXKeepsOrderOfEqualX() {
+		LinearPieceWiseFunctionDataPoints points = new LinearPieceWiseFunctionDataPoints();
+		points.add(1.0, 0.2);
+		points.add(0.0, 0.0);
+		points.add(1.0, 0.8);
+		points.add(0.5, 0.4);
+		points.add(1.0, 0.5);
+
+		points.sortByX();
+
+		Assertions.assertEquals(new LinearPieceWiseFunctionDataPoints(new ImmutablePair<Double,Double>(0.0, 0.0),
+				new ImmutablePair<Double,Double>(0.5, 0.4), new ImmutablePair<Double,Double>(1.0, 0.2),
+				new ImmutablePair<Double,Double>(1.0, 0.8), new ImmutablePair<Double,Double>(1.0, 0.5)), points);
+	}
+
+	@Test
+	void testValueSlightlyOutsideOfSteepIntervalIsNotExtrapolated() throws FunctionOperationException {
+		LinearPieceWiseFunctionDataPoints points = new LinearPieceWiseFunctionDataPoints();
+		points.add(0.0, 0.0);
+		points.add(0.1, 1.0);
+		points.add(1.0, 1.0);
+
+		// Found with tolerance, but outside of the interval [0,0.1]
+		double x = 0.1 + LinearPieceWiseFunction.TOLERANCE / 2;
+		int interval = points.getIntervalIndexContaining(x);
+		Assertions.assertEquals(1.0, points.getYInInterval(interval, x));
+		Assertions.assertEquals(0.0, points.getYInInterval(0, -LinearPieceWiseFunction.TOLERANCE / 2));
+	}
+
+	@Test
+	void testSortByXRespectingIntervalCouples() {
+		LinearPieceWiseFunctionDataPoints points = new LinearPieceWiseFunctionDataPoints();
+		points.add(0.5, 0.5);
+		points.add(0.7, 0.1);
+		points.add(0.0, 0.0);
+		points.add(0.5, 1.0);
+		points.add(0.5, 0.2);
+		points.add(0.6, 0.3);
+		points.add(0.2, 0.9);
+		points.add(0.2, 0.4);
+
+		points.sortByXRespectingIntervalCouples();
+
+		// Intervals starting at the same x keep their order
+		double[] expectedX = { 0.0, 0.5, 0.2, 0.2, 0.5, 0.7, 0.5, 0.6 };
+		double[] expectedY = { 0.0, 1.0, 0.9, 0.4, 0.5, 0.1, 0.2, 0.3 };
+		Assertions.assertEquals(expectedX.length, points.size());
+		for (int i = 0; i < expectedX.length; i++) {
+			Assertions.assertEquals(expectedX[i], points.getX(i));
+			Assertions.assertEquals(expectedY[i], points.getY(i));
+		}
+	}
+
+	private static LinearPieceWiseFunctionDataPoints createDatapoints(double... xys) {
+		LinearPieceWiseFunctionDataPoints points = new LinearPieceWiseFunctionDataPoints();
+		for (int i = 0; i < xys.length; i += 2) {
+			points.add(xys[i], xys[i + 1]);
+		}
+		return points;
+	}
+
+	@Test
+	void testRemoveDuplicatedPoints() {
+		LinearPieceWiseFunctionDataPoints points = createDatapoints(0.0, 0.0, 0.5, 0.2, 0.5, 0.8, 0.50001, 0.2, 0.5,
+				0.8, 1.0, 1.0, 1.0, 1.0);
+		points.removeDuplicatedPoints();
+		Assertions.assertEquals(createDatapoints(0.0, 0.0, 0.5, 0.2, 0.5, 0.8, 1.0, 1.0), points);
+
+		// Duplicates separated by other x in unsorted datapoints
+		points = createDatapoints(0.5, 0.2, 1.0, 1.0, 0.0, 0.0, 0.50001, 0.2, 1.0, 1.0);
+		points.removeDuplicatedPoints();
+		Assertions.assertEquals(createDatapoints(0.5, 0.2, 1.0, 1.0, 0.0, 0.0), points);
+
+		// Only equal neighbors are removed
+		points = createDatapoints(0.0, 0.0, 0.5, 0.2, 0.5, 0.8, 0.5, 0.2, 0.5, 0.2, 1.0, 1.0);
+		points.removeDuplicatedNeighborPoints();
+		Assertions.assertEquals(createDatapoints(0.0, 0.0, 0.5, 0.2, 0.5, 0.8, 0.5, 0.2, 1.0, 1.0), points);
+	}
+
+	@Test
+	void testRetainLargestYforReplicatedX() {
+		LinearPieceWiseFunctionDataPoints points = createDatapoints(0.0, 0.3, 0.0, 0.1, 0.5, 0.2, 0.5, 0.9, 0.5, 0.4,
+				1.0, 0.0);
+		points.retainLargestYforReplicatedX();
+		Assertions.assertEquals(createDatapoints(0.0, 0.3, 0.5, 0.9, 1.0, 0.0), points);
+	}
+
+	@Test
+	void testRemovePointsFoundInOtherDataset() {
+		// The intervals of the other dataset are not sorted by their last point
+		LinearPieceWiseFunctionDataPoints intervals = createDatapoints(0.0, 0.0, 0.6, 0.5, 0.2, 0.3, 0.4, 0.7, 0.6,
+				0.9, 1.0, 1.0);
+
+		LinearPieceWiseFunctionDataPoints points = createDatapoints(0.0, 0.0, 0.2, 0.5, 0.4, 0.7, 0.6, 0.8, 0.8, 0.1);
+		points.removeElementsExistingInDataset(intervals);
+		Assertions.assertEquals(createDatapoints(0.2, 0.5, 0.6, 0.8, 0.8, 0.1), points);
+
+		// Removed when all the points of the other dataset with the same x are larger
+		points = createDatapoints(0.2, 0.1, 0.2, 0.5, 0.6, 0.4, 0.6, 0.6, 0.8, 0.1);
+		points.removePointsWhoseYValueisTheSmallest(intervals);
+		Assertions.assertEquals(createDatapoints(0.2, 0.5, 0.6, 0.6, 0.8, 0.1), points);
+	}
+
+	@Test
+	void testAddAllSortedInEvenPositions() {
+		LinearPieceWiseFunctionDataPoints intervals = createDatapoints(0.0, 0.0, 0.2, 0.4, 0.4, 0.5, 0.6, 1.0);
+		LinearPieceWiseFunctionDataPoints singlePoints = createDatapoints(-0.1, 0.3, 0.1, 0.5, 0.3, 0.6, 0.5, 0.7,
+				0.8, 0.2);
+
+		intervals.addAllSortedInEvenPositions(singlePoints);
+
+		// Points inside an interval go before it, and points lower than all the
+		// intervals are not added
+		Assertions.assertEquals(createDatapoints(0.1, 0.5, 0.0, 0.0, 0.2, 0.4, 0.3, 0.6, 0.5, 0.7, 0.4, 0.5, 0.6, 1.0,
+				0.8, 0.2), intervals);
+	}
+
 }
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.functions.impl;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+
+class RangeMaximumIndexTest {
+
+	@Test
+	void testRangesMatchLinearScan() {
+		Random random = new Random(7);
+		LinearPieceWiseFunctionDataPoints points = new LinearPieceWiseFunctionDataPoints();
+		for (int i = 0; i < 37; i++) {
+			points.add(i, random.nextDouble());
+		}
+		RangeMaximumIndex index = new RangeMaximumIndex(points);
+		Assertions.assertTrue(index.isSorted());
+		for (int from = 0; from <= points.size(); from++) {
+			for (int to = from; to <= points.size(); to++) {
+				double expected = Double.NEGATIVE_INFINITY;
+				for (int i = from; i < to; i++) {
+					expected = Math.max(expected, points.getY(i));
+				}
+				Assertions.assertEquals(expected, index.getMax(from, to), "range [" + from + "," + to + ")");
+			}
+		}
+	}
+
+	@Test
+	void testIndexIsRebuiltAfterAddPoint() throws FunctionOperationException {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		function.addPoint(0.0, 0.0);
+		function.addPoint(1.0, 0.4);
+		function.addPoint(2.0, 0.2);
+		function.addPoint(3.0, 0.0);
+
+		RangeMaximumIndex index = function.getRangeMaximumIndex();
+		Assertions.assertSame(index, function.getRangeMaximumIndex());
+		Assertions.assertEquals(0.4, function.getLargestValueAfterX(0.5, true));
+		Assertions.assertEquals(0.2, function.getLargestValueAfterX(2.0, true));
+
+		function.addPoint(2.5, 0.9);
+		Assertions.assertFalse(index.isValidFor(function.getDatapoints()));
+		Assertions.assertEquals(0.9, function.getLargestValueAfterX(0.5, true));
+		Assertions.assertEquals(0.9, function.getLargestValueBeforeX(3.0, false));
+		Assertions.assertEquals(0.9, function.getLargestValueBetween(2.0, 3.0, false));
+		Assertions.assertEquals(0.4, function.getLargestValueBetween(0.5, 2.0, false));
+	}
+
+}
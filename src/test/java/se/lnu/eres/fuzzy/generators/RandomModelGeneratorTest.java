@@ -0,0 +1,102 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.generators;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.FuzzyNumber;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.exceptions.FuzzyOperationException;
+import se.lnu.eres.fuzzy.functions.impl.FuzzyNumberImpl;
+import se.lnu.eres.fuzzy.goals.GoalModel;
+import se.lnu.eres.fuzzy.goals.LeafGoal;
+import se.lnu.eres.fuzzy.goals.LeafGoalType;
+import se.lnu.eres.fuzzy.goals.ReductionStrategy;
+import se.lnu.eres.fuzzy.goals.impl.LeafGoalImpl;
+
+class RandomModelGeneratorTest {
+
+	@Test
+	void testGeneratedFunctionsAreValid() throws FunctionOperationException, FuzzyOperationException {
+		RandomModelGenerator generator = new RandomModelGenerator(42);
+		for (int slopeBreakpoints : new int[] { 0, 1, 8, 64 }) {
+			generator.setSlopeBreakpoints(slopeBreakpoints);
+			generator.setDomainUpperBound(slopeBreakpoints + 1);
+			for (int i = 0; i < 20; i++) {
+				FuzzyNumber number = generator.createFuzzyNumber();
+				Assertions.assertTrue(FuzzyNumberImpl.IsFuzzyNumber(number.getFunction()));
+				Assertions.assertTrue(number.getFunction().getDatapoints().size() >= 2 * slopeBreakpoints + 5);
+				Assertions.assertTrue(generator.createFuzzyBoolean().isFuzzyBoolean());
+				Assertions.assertTrue(generator.createTruthValue(LeafGoalType.LB).getFunction()
+						.isMonotonicallyIncreasing());
+				Assertions.assertTrue(generator.createTruthValue(LeafGoalType.UB).getFunction()
+						.isMonotonicallyDecreasing());
+				for (LeafGoalType type : LeafGoalType.values()) {
+					Assertions.assertTrue(new LeafGoalImpl(type, generator.createTruthValue(type)).isCorrectType());
+				}
+			}
+		}
+	}
+
+	@Test
+	void testSameSeedCreatesSameModel() throws FunctionOperationException {
+		GoalModel first = createGoalModel(7);
+		GoalModel second = createGoalModel(7);
+		Assertions.assertEquals(first.getLeafGoals().size(), second.getLeafGoals().size());
+		for (LeafGoal leaf : first.getLeafGoals()) {
+			Assertions.assertEquals(leaf.getObservation().getDatapoints(),
+					second.getLeafGoal(leaf.getName()).getObservation().getDatapoints());
+		}
+		Assertions.assertEquals(first.assessSatisfaction().getFunction().getDatapoints(),
+				second.assessSatisfaction().getFunction().getDatapoints());
+	}
+
+	@Test
+	void testGoalTreeHasConfiguredSize() throws FunctionOperationException, FuzzyOperationException {
+		RandomModelGenerator generator = new RandomModelGenerator(3);
+		generator.setDepth(3);
+		generator.setFanOut(5);
+		generator.setReductionStrategy(ReductionStrategy.TREE);
+		GoalModel model = generator.createGoalModel();
+		Assertions.assertEquals(125, generator.getLeavesPerTree());
+		Assertions.assertEquals(125, model.getLeafGoals().size());
+
+		FuzzyBoolean satisfaction = model.assessSatisfaction();
+		Assertions.assertTrue(satisfaction.isFuzzyBoolean());
+
+		// Leaf names are not repeated among trees of the same generator
+		Assertions.assertEquals(125, generator.createGoalModel().getLeafGoals().size());
+		Assertions.assertThrows(FunctionOperationException.class,
+				() -> model.getLeafGoal("leaf125"));
+	}
+
+	private GoalModel createGoalModel(long seed) throws FunctionOperationException {
+		RandomModelGenerator generator = new RandomModelGenerator(seed);
+		generator.setDepth(2);
+		generator.setFanOut(4);
+		generator.setSlopeBreakpoints(4);
+		return generator.createGoalModel();
+	}
+
+}
@@ -148,6 +148,38 @@ abstract class AbstractGoalImplTest {
 		return goal;
 	}
 
+	protected FuzzyNumber createTriangularObservation(double topValueAt, double width) {
+		LinearPieceWiseFunction observationFunction = new LinearPiecewiseFunctionImpl();
+		observationFunction.addPoint(0.0, 0.0);
+		observationFunction.addPoint(topValueAt - (width / 2.0), 0.0);
+		observationFunction.addPoint(topValueAt, 1.0);
+		observationFunction.addPoint(topValueAt + (width / 2.0), 0.0);
+		observationFunction.addPoint(Double.MAX_VALUE, 0.0);
+		return new FuzzyNumberImpl(observationFunction);
+	}
+
+	/**
+	 * @return Leaf goal with an upper bound truth value from 1 in 0.0 to 0 in 1.0
+	 *         and no observation
+	 */
+	protected LeafGoal createLeafGoal(String name) {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		function.addPoint(0.0, 1.0);
+		function.addPoint(1.0, 0);
+		function.addPoint(Double.MAX_VALUE, 0.0);
+		return new LeafGoalImpl(LeafGoalType.UB, new FuzzyNumberImpl(function), name);
+	}
+
+	/**
+	 * @return Leaf goal as {@link #createLeafGoal(String)} observed with a triangle
+	 *         of width 0.2 and the top value at topValueAt
+	 */
+	protected LeafGoal createLeafGoal(String name, double topValueAt) {
+		LeafGoal goal = createLeafGoal(name);
+		goal.setObservation(createTriangularObservation(topValueAt, 0.2));
+		return goal;
+	}
+
 	protected void checkFuzzyEquals(double[][] resultXY, FuzzyBoolean result) {
 		Assertions.assertEquals(resultXY.length, result.getFunction().getDatapoints().size());
 		for (int i = 0; i < resultXY.length; i++) {
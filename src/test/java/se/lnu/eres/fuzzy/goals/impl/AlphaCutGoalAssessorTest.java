@@ -0,0 +1,89 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.goals.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.exceptions.FuzzyNumberConversionException;
+import se.lnu.eres.fuzzy.functions.impl.FuzzyNumberImpl;
+import se.lnu.eres.fuzzy.functions.impl.LinearPiecewiseFunctionImpl;
+import se.lnu.eres.fuzzy.goals.Goal;
+import se.lnu.eres.fuzzy.goals.GoalType;
+import se.lnu.eres.fuzzy.goals.LeafGoal;
+import se.lnu.eres.fuzzy.goals.LeafGoalType;
+
+class AlphaCutGoalAssessorTest extends AbstractGoalImplTest {
+
+	private void assertSimilarSatisfaction(FuzzyBoolean expected, FuzzyBoolean result)
+			throws FunctionOperationException {
+		for (double y = 0.05; y < 1.0; y += 0.05) {
+			Assertions.assertEquals(expected.getFunction().getValueAt(y), result.getFunction().getValueAt(y), 0.01,
+					"Different satisfaction at " + y + ". Expected " + expected + " but was " + result);
+		}
+	}
+
+	@Test
+	void testLeafAssessedOnAlphaCuts() throws FunctionOperationException, FuzzyNumberConversionException {
+		Goal leaf = createLeafGoalFuelConsumption();
+		assertSimilarSatisfaction(leaf.assessSatisfaction(), new AlphaCutGoalAssessor(65).assessSatisfaction(leaf));
+	}
+
+	@Test
+	void testAndOrAssessedOnAlphaCuts() throws FunctionOperationException, FuzzyNumberConversionException {
+		for (GoalType type : GoalType.values()) {
+			Goal goal = GoalFactory.CreateGoal(type);
+			goal.addChild(createLeafGoalRideSatisfaction());
+			goal.addChild(createLeafGoalFuelConsumption());
+			assertSimilarSatisfaction(goal.assessSatisfaction(),
+					new AlphaCutGoalAssessor(65).assessSatisfaction(goal));
+		}
+	}
+
+	@Test
+	void testIntervalLeafDoesNotUseTheCache() throws FunctionOperationException, FuzzyNumberConversionException {
+		LinearPieceWiseFunction truthValue = new LinearPiecewiseFunctionImpl();
+		truthValue.addPoint(0.0, 0.0);
+		truthValue.addPoint(1.0, 0.0);
+		truthValue.addPoint(2.0, 1.0);
+		truthValue.addPoint(3.0, 1.0);
+		truthValue.addPoint(4.0, 0.0);
+		truthValue.addPoint(6.0, 0.0);
+		LeafGoal leaf = new LeafGoalImpl(LeafGoalType.INT, new FuzzyNumberImpl(truthValue));
+
+		LinearPieceWiseFunction observation = new LinearPiecewiseFunctionImpl();
+		observation.addPoint(0.0, 0.0);
+		observation.addPoint(1.0, 0.0);
+		observation.addPoint(1.5, 1.0);
+		observation.addPoint(2.0, 0.0);
+		observation.addPoint(6.0, 0.0);
+		leaf.setObservation(new FuzzyNumberImpl(observation));
+
+		FuzzyBoolean result = new AlphaCutGoalAssessor(65).assessSatisfaction(leaf);
+		Assertions.assertFalse(leaf.isSatisfactionCached());
+		assertSimilarSatisfaction(leaf.assessSatisfaction(), result);
+	}
+
+}
@@ -29,10 +29,13 @@ import org.junit.jupiter.api.Test;
 import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
 
 import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.impl.FuzzyNumberImpl;
 
+import se.lnu.eres.fuzzy.goals.ApproximationStrategy;
 import se.lnu.eres.fuzzy.goals.Goal;
 import se.lnu.eres.fuzzy.goals.GoalType;
 import se.lnu.eres.fuzzy.goals.LeafGoal;
+import se.lnu.eres.fuzzy.goals.ReductionStrategy;
 
 class GoalImplANDTest extends AbstractGoalImplTest {
 
@@ -165,4 +168,80 @@ class GoalImplANDTest extends AbstractGoalImplTest {
 
 	}
 
+	@Test
+	void testSatisfactionCachedUntilSubtreeChanges() throws FunctionOperationException {
+		LeafGoal lg1 = createLeafGoalRideSatisfaction();
+		LeafGoal lg2 = createLeafGoalFuelConsumption();
+		LeafGoal lg3 = createLeafGoalFuelConsumptionTriangularGivenTopValueAndWidth(0.3, 0.2);
+
+		Goal inner = GoalFactory.CreateGoal(GoalType.AND);
+		inner.addChild(lg1);
+		inner.addChild(lg2);
+		Goal root = GoalFactory.CreateGoal(GoalType.OR);
+		root.addChild(inner);
+		root.addChild(lg3);
+
+		FuzzyBoolean rootResult = root.assessSatisfaction();
+		FuzzyBoolean innerResult = inner.assessSatisfaction();
+		Assertions.assertSame(rootResult, root.assessSatisfaction());
+		FuzzyBoolean lg3Result = lg3.assessSatisfaction();
+
+		// A new observation in a leaf invalidates its ancestors only
+		lg1.setObservation(new FuzzyNumberImpl(createLeafDiscontinuousResult(0.9, 1.1, 4.0).getObservation()));
+		Assertions.assertSame(lg3Result, lg3.assessSatisfaction());
+		Assertions.assertNotSame(innerResult, inner.assessSatisfaction());
+		FuzzyBoolean newRootResult = root.assessSatisfaction();
+		Assertions.assertNotSame(rootResult, newRootResult);
+
+		// Same for a new child
+		inner.addChild(createLeafGoalFuelConsumption());
+		Assertions.assertNotSame(newRootResult, root.assessSatisfaction());
+	}
+
+	@Test
+	void testApproximatedAndSatisfaction() throws FunctionOperationException {
+		Goal exact = GoalFactory.CreateGoal(GoalType.AND);
+		AbstractGoal approximated = (AbstractGoal) GoalFactory.CreateGoal(GoalType.AND);
+		approximated.setApproximation(ApproximationStrategy.ADAPTIVE, 3);
+		for (Goal goal : new Goal[] { exact, approximated }) {
+			goal.addChild(createLeafGoalRideSatisfaction());
+			goal.addChild(createLeafGoalFuelConsumption());
+		}
+
+		FuzzyBoolean exactResult = exact.assessSatisfaction();
+		FuzzyBoolean result = approximated.assessSatisfaction();
+		Assertions.assertEquals(0.0, exactResult.getApproximationError());
+		Assertions.assertEquals(3, result.getFunction().getDatapoints().size());
+		Assertions.assertTrue(result.getApproximationError() > 0.0);
+		for (double x = 0.0; x <= 1.0; x += 0.01) {
+			Assertions.assertTrue(
+					Math.abs(exactResult.getFunction().getValueAt(x) - result.getFunction().getValueAt(x)) <= result
+							.getApproximationError() + 0.0001,
+					"Approximation farther than its error at " + x);
+		}
+	}
+
+	@Test
+	void testReductionStrategyChangeInvalidatesApproximatedSatisfaction() throws FunctionOperationException {
+		AbstractGoal goal = (AbstractGoal) GoalFactory.CreateGoal(GoalType.AND);
+		AbstractGoal treeGoal = (AbstractGoal) GoalFactory.CreateGoal(GoalType.AND);
+		treeGoal.setReductionStrategy(ReductionStrategy.TREE);
+		for (AbstractGoal g : new AbstractGoal[] { goal, treeGoal }) {
+			g.setApproximation(ApproximationStrategy.ADAPTIVE, 3);
+			g.addChild(createLeafGoalRideSatisfaction());
+			g.addChild(createLeafGoalFuelConsumption());
+			g.addChild(createLeafGoalFuelConsumptionTriangularGivenTopValueAndWidth(0.3, 0.2));
+		}
+
+		FuzzyBoolean foldResult = goal.assessSatisfaction();
+		Assertions.assertTrue(goal.isSatisfactionCached());
+
+		goal.setReductionStrategy(ReductionStrategy.TREE);
+		Assertions.assertFalse(goal.isSatisfactionCached());
+		FuzzyBoolean result = goal.assessSatisfaction();
+		Assertions.assertNotSame(foldResult, result);
+		Assertions.assertEquals(treeGoal.assessSatisfaction().getFunction().getDatapoints(),
+				result.getFunction().getDatapoints());
+	}
+
 }
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.goals.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.goals.Goal;
+import se.lnu.eres.fuzzy.goals.GoalModel;
+import se.lnu.eres.fuzzy.goals.GoalType;
+
+class GoalModelBatchEvaluatorTest extends AbstractGoalImplTest {
+
+	private static final List<String> LEAVES = Arrays.asList("a", "b", "c");
+
+	private GoalModel createGoalModel() throws FunctionOperationException {
+		// root=OR(AND(a,b), c)
+		Goal and = GoalFactory.CreateGoal(GoalType.AND);
+		and.addChild(createLeafGoal("a"));
+		and.addChild(createLeafGoal("b"));
+		Goal root = GoalFactory.CreateGoal(GoalType.OR);
+		root.addChild(and);
+		root.addChild(createLeafGoal("c"));
+		return GoalFactory.CreateGoalModel(root);
+	}
+
+	@Test
+	void testSameResultAsAssessingEachScenario() throws FunctionOperationException {
+		int scenarios = 6;
+		ObservationBatch batch = new ObservationBatch(LEAVES, scenarios);
+		for (int s = 0; s < scenarios; s++) {
+			for (int l = 0; l < LEAVES.size(); l++) {
+				batch.setObservation(LEAVES.get(l), s, createTriangularObservation(0.2 + 0.1 * l + 0.05 * s, 0.2));
+			}
+		}
+
+		GoalModel model = createGoalModel();
+		List<FuzzyBoolean> results = new GoalModelBatchEvaluator(model).assessSatisfaction(batch);
+		Assertions.assertEquals(scenarios, results.size());
+		// Same results whether the scenarios are assessed in a task each or all in one
+		for (int sequentialScenarios : new int[] { 1, scenarios }) {
+			List<FuzzyBoolean> otherResults = new GoalModelBatchEvaluator(model, ForkJoinPool.commonPool(),
+					sequentialScenarios).assessSatisfaction(batch);
+			for (int s = 0; s < scenarios; s++) {
+				Assertions.assertEquals(results.get(s).getFunction().getDatapoints(),
+						otherResults.get(s).getFunction().getDatapoints());
+			}
+		}
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> new GoalModelBatchEvaluator(model, ForkJoinPool.commonPool(), 0));
+
+		for (int s = 0; s < scenarios; s++) {
+			for (int l = 0; l < LEAVES.size(); l++) {
+				model.getLeafGoal(LEAVES.get(l)).setObservation(batch.getObservation(l, s));
+			}
+			Assertions.assertEquals(model.assessSatisfaction().getFunction().getDatapoints(),
+					results.get(s).getFunction().getDatapoints(), "Different result in scenario " + s);
+		}
+	}
+
+	@Test
+	void testMissingObservations() throws FunctionOperationException {
+		GoalModelBatchEvaluator evaluator = new GoalModelBatchEvaluator(createGoalModel());
+
+		ObservationBatch withoutLeaf = new ObservationBatch(Arrays.asList("a", "b"), 1);
+		Assertions.assertThrows(FunctionOperationException.class, () -> evaluator.assessSatisfaction(withoutLeaf));
+
+		ObservationBatch withoutObservation = new ObservationBatch(LEAVES, 1);
+		Assertions.assertThrows(FunctionOperationException.class,
+				() -> evaluator.assessSatisfaction(withoutObservation));
+	}
+
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.goals.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.FuzzyNumber;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.goals.Goal;
+import se.lnu.eres.fuzzy.goals.GoalModel;
+import se.lnu.eres.fuzzy.goals.GoalType;
+
+class GoalModelImplTest extends AbstractGoalImplTest {
+
+	private Goal createGoalTree() throws FunctionOperationException {
+		// root=OR(AND(a,b), AND(c,d), e)
+		Goal left = GoalFactory.CreateGoal(GoalType.AND);
+		left.addChild(createLeafGoal("a", 0.3));
+		left.addChild(createLeafGoal("b", 0.5));
+		Goal right = GoalFactory.CreateGoal(GoalType.AND);
+		right.addChild(createLeafGoal("c", 0.4));
+		right.addChild(createLeafGoal("d", 0.6));
+		Goal root = GoalFactory.CreateGoal(GoalType.OR);
+		root.addChild(left);
+		root.addChild(right);
+		root.addChild(createLeafGoal("e", 0.7));
+		return root;
+	}
+
+	@Test
+	void testUpdateAssessesOnlyThePathToRoot() throws FunctionOperationException {
+		GoalModel model = GoalFactory.CreateGoalModel(createGoalTree());
+		Assertions.assertEquals(5, model.getLeafGoals().size());
+		model.assessSatisfaction();
+
+		FuzzyNumber newObservation = createTriangularObservation(0.2, 0.1);
+		FuzzyBoolean updated = model.updateObservation("c", newObservation);
+		// c, its AND parent and the root
+		Assertions.assertEquals(3, model.getLastUpdateAssessedGoals());
+		Assertions.assertTrue(model.getLastUpdateNanos() > 0);
+
+		model.updateObservation("e", createTriangularObservation(0.7, 0.2));
+		Assertions.assertEquals(2, model.getLastUpdateAssessedGoals());
+
+		// A parent out of the model is not assessed by the update
+		Goal outside = GoalFactory.CreateGoal(GoalType.AND);
+		outside.addChild(model.getLeafGoal("e"));
+		model.updateObservation("e", createTriangularObservation(0.7, 0.2));
+		Assertions.assertEquals(2, model.getLastUpdateAssessedGoals());
+		Assertions.assertFalse(outside.isSatisfactionCached());
+
+		// Same result as assessing a new model from scratch
+		Goal fresh = createGoalTree();
+		GoalModel freshModel = GoalFactory.CreateGoalModel(fresh);
+		freshModel.getLeafGoal("c").setObservation(newObservation);
+		Assertions.assertEquals(freshModel.assessSatisfaction().getFunction().getDatapoints(),
+				updated.getFunction().getDatapoints());
+	}
+
+	@Test
+	void testUnknownAndDuplicatedLeafNames() throws FunctionOperationException {
+		GoalModel model = GoalFactory.CreateGoalModel(createGoalTree());
+		Assertions.assertThrows(FunctionOperationException.class,
+				() -> model.updateObservation("unknown", createTriangularObservation(0.3, 0.2)));
+
+		Goal root = GoalFactory.CreateGoal(GoalType.AND);
+		root.addChild(createLeafGoal("a", 0.3));
+		root.addChild(createLeafGoal("a", 0.5));
+		Assertions.assertThrows(FunctionOperationException.class, () -> GoalFactory.CreateGoalModel(root));
+	}
+
+}
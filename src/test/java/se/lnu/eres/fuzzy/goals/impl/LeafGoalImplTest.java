@@ -371,5 +371,161 @@ class LeafGoalImplTest {
 
 
 	}
-	
+
+	@Test
+	void testTruthValueTableIsReusedUntilTheTruthValueIsModified() throws FunctionOperationException {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		function.addPoint(0.0, 0.0);
+		function.addPoint(1.0, 1.0);
+		function.addPoint(3.0, 1.0);
+		LeafGoalImpl goal = new LeafGoalImpl(LeafGoalType.LB, new FuzzyNumberImpl(function));
+
+		LinearPieceWiseFunction observationFunction = new LinearPiecewiseFunctionImpl();
+		observationFunction.addPoint(0.0, 0.0);
+		observationFunction.addPoint(0.5, 1.0);
+		observationFunction.addPoint(1.0, 0.0);
+		observationFunction.addPoint(3.0, 0.0);
+		FuzzyNumber observation = new FuzzyNumberImpl(observationFunction);
+
+		goal.assessSatisfactionFromObservation(observation);
+		TruthValueTable table = goal.getTruthValueTable();
+		goal.assessSatisfactionFromObservation(observation);
+		Assertions.assertSame(table, goal.getTruthValueTable());
+
+		// Once modified, the satisfaction is the one of a goal created with the
+		// modified truth value
+		function.addPoint(3.0, 1.0);
+		Assertions.assertNotSame(table, goal.getTruthValueTable());
+		FuzzyBoolean result = goal.assessSatisfactionFromObservation(observation);
+		FuzzyBoolean expected = new LeafGoalImpl(LeafGoalType.LB, new FuzzyNumberImpl(function))
+				.assessSatisfactionFromObservation(observation);
+		Assertions.assertEquals(expected.getFunction().getDatapoints().getDatapoints(),
+				result.getFunction().getDatapoints().getDatapoints());
+	}
+
+	@Test
+	void testKernelReusedWithObservationsOfDifferentSizes() throws FunctionOperationException {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		function.addPoint(0.0, 1.0);
+		function.addPoint(0.5, 1.0);
+		function.addPoint(0.5, 0.4);
+		function.addPoint(1.0, 0.0);
+		function.addPoint(4.0, 0.0);
+		LeafGoalImpl goal = new LeafGoalImpl(LeafGoalType.UB, new FuzzyNumberImpl(function));
+
+		LinearPieceWiseFunction largeObservation = new LinearPiecewiseFunctionImpl();
+		largeObservation.addPoint(0.0, 0.0);
+		for (int i = 1; i < 40; i++) {
+			largeObservation.addPoint(i * 0.1, (i % 2 == 0) ? 0.2 : 1.0);
+		}
+		largeObservation.addPoint(4.0, 0.0);
+		LinearPieceWiseFunction smallObservation = new LinearPiecewiseFunctionImpl();
+		smallObservation.addPoint(0.0, 0.0);
+		smallObservation.addPoint(0.7, 1.0);
+		smallObservation.addPoint(4.0, 0.0);
+
+		// The buffers of the kernel of this thread grow with the large observation,
+		// and the small one must not see its points
+		LeafSatisfactionKernel.ForCurrentThread().assess(LeafGoalType.UB, goal.getTruthValueTable(),
+				new FuzzyNumberImpl(largeObservation), "large");
+		FuzzyBoolean reused = LeafSatisfactionKernel.ForCurrentThread().assess(LeafGoalType.UB,
+				goal.getTruthValueTable(), new FuzzyNumberImpl(smallObservation), "small");
+		FuzzyBoolean fresh = new LeafSatisfactionKernel().assess(LeafGoalType.UB, goal.getTruthValueTable(),
+				new FuzzyNumberImpl(smallObservation), "small");
+
+		Assertions.assertEquals(fresh.getFunction().getDatapoints(), reused.getFunction().getDatapoints());
+	}
+
+	private static LinearPieceWiseFunction createTrapezoid() {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		function.addPoint(0.0, 0.0);
+		function.addPoint(1.0, 0.0);
+		function.addPoint(2.0, 1.0);
+		function.addPoint(3.0, 1.0);
+		function.addPoint(4.0, 0.0);
+		function.addPoint(6.0, 0.0);
+		return function;
+	}
+
+	private static void assertDatapoints(double[] x, double[] y, FuzzyBoolean result) {
+		Assertions.assertEquals(x.length, result.getFunction().getDatapoints().size(), result.toString());
+		for (int i = 0; i < x.length; i++) {
+			Assertions.assertTrue(DoubleMath.fuzzyEquals(x[i], result.getFunction().getDatapoints().getX(i),
+					LinearPieceWiseFunction.TOLERANCE), "Unexpected x in " + i + " of " + result);
+			Assertions.assertTrue(DoubleMath.fuzzyEquals(y[i], result.getFunction().getDatapoints().getY(i),
+					LinearPieceWiseFunction.TOLERANCE), "Unexpected y in " + i + " of " + result);
+		}
+	}
+
+	@Test
+	void testAssessIntervalGoalObservedInTheRisingSide() throws FunctionOperationException {
+		LeafGoal goal = new LeafGoalImpl(LeafGoalType.INT, new FuzzyNumberImpl(createTrapezoid()));
+		Assertions.assertTrue(goal.isCorrectType());
+
+		LinearPieceWiseFunction observationFunction = new LinearPiecewiseFunctionImpl();
+		observationFunction.addPoint(0.0, 0.0);
+		observationFunction.addPoint(1.0, 0.0);
+		observationFunction.addPoint(1.5, 1.0);
+		observationFunction.addPoint(2.0, 0.0);
+		observationFunction.addPoint(6.0, 0.0);
+
+		// y=0.5 is reached in x=1.5, where the observation is 1, and in x=3.5, where it
+		// is 0
+		FuzzyBoolean result = goal.assessSatisfactionFromObservation(new FuzzyNumberImpl(observationFunction));
+		assertDatapoints(new double[] { 0.0, 0.5, 1.0 }, new double[] { 0.0, 1.0, 0.0 }, result);
+	}
+
+	@Test
+	void testAssessIntervalGoalWhereBothSidesCross() throws FunctionOperationException {
+		LeafGoal goal = new LeafGoalImpl(LeafGoalType.INT, new FuzzyNumberImpl(createTrapezoid()));
+
+		LinearPieceWiseFunction observationFunction = new LinearPiecewiseFunctionImpl();
+		observationFunction.addPoint(0.0, 0.6);
+		observationFunction.addPoint(1.0, 0.6);
+		observationFunction.addPoint(2.0, 0.2);
+		observationFunction.addPoint(3.0, 0.5);
+		observationFunction.addPoint(4.0, 0.1);
+		observationFunction.addPoint(6.0, 0.1);
+
+		// The rising side decreases from 0.6 to 0.2 and the falling side increases from
+		// 0.1 to 0.5, so the largest changes from one side to the other at y=0.625
+		FuzzyBoolean result = goal.assessSatisfactionFromObservation(new FuzzyNumberImpl(observationFunction));
+		assertDatapoints(new double[] { 0.0, 0.625, 1.0 }, new double[] { 0.6, 0.35, 0.5 }, result);
+	}
+
+	@Test
+	void testAssessMaxGoalAsLowerBound() throws FunctionOperationException {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		function.addPoint(0.0, 0.0);
+		function.addPoint(1.0, 0.0);
+		function.addPoint(2.0, 0.6);
+		function.addPoint(3.0, 1.0);
+		function.addPoint(5.0, 1.0);
+		LinearPieceWiseFunction observationFunction = new LinearPiecewiseFunctionImpl();
+		observationFunction.addPoint(0.0, 0.0);
+		observationFunction.addPoint(1.5, 0.0);
+		observationFunction.addPoint(2.5, 1.0);
+		observationFunction.addPoint(4.0, 0.0);
+		observationFunction.addPoint(5.0, 0.0);
+		FuzzyNumber observation = new FuzzyNumberImpl(observationFunction);
+
+		FuzzyBoolean max = new LeafGoalImpl(LeafGoalType.MAX, new FuzzyNumberImpl(function))
+				.assessSatisfactionFromObservation(observation);
+		FuzzyBoolean lowerBound = new LeafGoalImpl(LeafGoalType.LB, new FuzzyNumberImpl(function))
+				.assessSatisfactionFromObservation(observation);
+		for (double y = 0.05; y < 1.0; y += 0.05) {
+			Assertions.assertTrue(DoubleMath.fuzzyEquals(lowerBound.getFunction().getValueAt(y),
+					max.getFunction().getValueAt(y), LinearPieceWiseFunction.TOLERANCE), "Different values at " + y);
+		}
+	}
+
+	@Test
+	void testIsCorrectTypeOfIntervalGoal() {
+		LinearPieceWiseFunction function = createTrapezoid();
+		function.addPoint(7.0, 1.0);
+		function.addPoint(8.0, 0.0);
+		Assertions.assertFalse(new LeafGoalImpl(LeafGoalType.INT, new FuzzyNumberImpl(function)).isCorrectType());
+		Assertions.assertFalse(new LeafGoalImpl(LeafGoalType.MIN, new FuzzyNumberImpl(createTrapezoid())).isCorrectType());
+	}
+
 }
@@ -0,0 +1,137 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.goals.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.goals.Goal;
+import se.lnu.eres.fuzzy.goals.GoalModel;
+import se.lnu.eres.fuzzy.goals.GoalType;
+import se.lnu.eres.fuzzy.serialization.exceptions.ModelFormatException;
+
+class ObservationArchiveTest extends AbstractGoalImplTest {
+
+	private static final List<String> LEAVES = Arrays.asList("speed", "comfort");
+	private static final int SCENARIOS = 7;
+
+	@TempDir
+	Path directory;
+
+	private ObservationBatch createBatch() throws FunctionOperationException {
+		ObservationBatch batch = new ObservationBatch(LEAVES, SCENARIOS);
+		for (int s = 0; s < SCENARIOS; s++) {
+			for (int l = 0; l < LEAVES.size(); l++) {
+				batch.setObservation(LEAVES.get(l), s, createTriangularObservation(0.2 + 0.1 * l + 0.05 * s, 0.2));
+			}
+		}
+		return batch;
+	}
+
+	private static long[] createScenarioIds() {
+		long[] ids = new long[SCENARIOS];
+		for (int s = 0; s < SCENARIOS; s++) {
+			ids[s] = 1000L - 7L * s;
+		}
+		return ids;
+	}
+
+	@Test
+	void testArchivedObservationsAreTheSame() throws IOException, ModelFormatException, FunctionOperationException {
+		ObservationBatch batch = createBatch();
+		Path file = directory.resolve("rides.fzoa");
+		// Chunks of 3 observations of 5 datapoints, so some observations go to the next
+		// chunk
+		ObservationArchive.Write(file, batch, createScenarioIds(), 256);
+		ObservationArchive archive = ObservationArchive.Open(file);
+
+		Assertions.assertEquals(LEAVES, archive.getLeafNames());
+		Assertions.assertEquals(SCENARIOS, archive.getScenarioCount());
+		Assertions.assertEquals(1, archive.getLeafIndex("comfort"));
+		Assertions.assertEquals(-1, archive.getLeafIndex("noise"));
+		for (int s = 0; s < SCENARIOS; s++) {
+			Assertions.assertEquals(1000L - 7L * s, archive.getScenarioId(s));
+			Assertions.assertEquals(s, archive.getScenario(1000L - 7L * s));
+			for (int l = 0; l < LEAVES.size(); l++) {
+				Assertions.assertEquals(batch.getObservation(l, s).getFunction().getDatapoints(),
+						archive.getObservation(l, s).getFunction().getDatapoints());
+			}
+		}
+		Assertions.assertEquals(-1, archive.getScenario(999L));
+	}
+
+	@Test
+	void testEvaluationFromTheArchive() throws IOException, ModelFormatException, FunctionOperationException {
+		// root=AND(speed, comfort)
+		Goal root = GoalFactory.CreateGoal(GoalType.AND);
+		for (String leaf : LEAVES) {
+			root.addChild(createLeafGoal(leaf));
+		}
+		GoalModel model = GoalFactory.CreateGoalModel(root);
+		GoalModelBatchEvaluator evaluator = new GoalModelBatchEvaluator(model);
+
+		ObservationBatch batch = createBatch();
+		Path file = directory.resolve("rides.fzoa");
+		ObservationArchive.Write(file, batch, createScenarioIds());
+		ObservationArchive archive = ObservationArchive.Open(file);
+
+		List<FuzzyBoolean> expected = evaluator.assessSatisfaction(batch);
+		List<FuzzyBoolean> results = evaluator.assessSatisfaction(archive);
+		for (int s = 0; s < SCENARIOS; s++) {
+			Assertions.assertEquals(expected.get(s).getFunction().getDatapoints(),
+					results.get(s).getFunction().getDatapoints(), "Different result in scenario " + s);
+		}
+		List<FuzzyBoolean> range = evaluator.assessSatisfaction(archive, 2, 5);
+		Assertions.assertEquals(3, range.size());
+		Assertions.assertEquals(expected.get(2).getFunction().getDatapoints(),
+				range.get(0).getFunction().getDatapoints());
+
+		// A scenario without an observation
+		ObservationBatch incomplete = new ObservationBatch(LEAVES, 1);
+		incomplete.setObservation("speed", 0, createTriangularObservation(0.5, 0.2));
+		ObservationArchive.Write(file, incomplete, new long[] { 1L });
+		ObservationArchive incompleteArchive = ObservationArchive.Open(file);
+		Assertions.assertNull(incompleteArchive.getObservation(1, 0));
+		Assertions.assertThrows(FunctionOperationException.class,
+				() -> evaluator.assessSatisfaction(incompleteArchive));
+	}
+
+	@Test
+	void testInvalidArchives() throws IOException, FunctionOperationException {
+		Path file = directory.resolve("other.bin");
+		Files.write(file, "Not an archive of observations".getBytes("UTF-8"));
+		Assertions.assertThrows(ModelFormatException.class, () -> ObservationArchive.Open(file));
+
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> ObservationArchive.Write(file, createBatch(), new long[SCENARIOS]));
+	}
+
+}
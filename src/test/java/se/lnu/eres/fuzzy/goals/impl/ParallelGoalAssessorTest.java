@@ -0,0 +1,134 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.goals.impl;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.goals.Goal;
+import se.lnu.eres.fuzzy.goals.GoalType;
+import se.lnu.eres.fuzzy.goals.LeafGoal;
+import se.lnu.eres.fuzzy.goals.ReductionStrategy;
+
+class ParallelGoalAssessorTest extends AbstractGoalImplTest {
+
+	private Goal createWideGoalModel(ReductionStrategy reductionStrategy) throws FunctionOperationException {
+		Goal root = GoalFactory.CreateGoal(GoalType.AND, reductionStrategy);
+		for (int i = 0; i < 4; i++) {
+			Goal or = GoalFactory.CreateGoal(GoalType.OR, reductionStrategy);
+			or.addChild(createLeafGoalRideSatisfaction());
+			or.addChild(createLeafGoalFuelConsumptionTriangularGivenTopValueAndWidth(0.2 + 0.1 * i, 0.2));
+			or.addChild(createLeafDiscontinuousResult(0.9, 1.1 + 0.2 * i, 4.0));
+			root.addChild(or);
+			root.addChild(createLeafGoalFuelConsumption());
+		}
+		return root;
+	}
+
+	@Test
+	void testSameResultAsSequentialAssessment() throws FunctionOperationException {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (ReductionStrategy reductionStrategy : ReductionStrategy.values()) {
+				FuzzyBoolean sequential = createWideGoalModel(reductionStrategy).assessSatisfaction();
+				for (int cutoff : new int[] { 1, 4, 100 }) {
+					// A new model each time, so that the cached satisfaction is not reused
+					AbstractGoal root = (AbstractGoal) createWideGoalModel(reductionStrategy);
+					FuzzyBoolean parallel = new ParallelGoalAssessor(pool, cutoff).assessSatisfaction(root);
+					Assertions.assertEquals(1, root.getAssessmentCount());
+					Assertions.assertEquals(sequential.getFunction().getDatapoints(),
+							parallel.getFunction().getDatapoints(),
+							"Different result with cutoff " + cutoff + " and " + reductionStrategy);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * root=AND(OR(shared, a), OR(shared, b), sharedLeaf) where
+	 * shared=AND(sharedLeaf, c)
+	 */
+	private Goal createGoalModelWithSharedGoals(LeafGoal sharedLeaf) throws FunctionOperationException {
+		Goal shared = GoalFactory.CreateGoal(GoalType.AND);
+		shared.addChild(sharedLeaf);
+		shared.addChild(createLeafGoalFuelConsumption());
+		Goal root = GoalFactory.CreateGoal(GoalType.AND);
+		for (int i = 0; i < 2; i++) {
+			Goal or = GoalFactory.CreateGoal(GoalType.OR);
+			or.addChild(shared);
+			or.addChild(createLeafGoalFuelConsumptionTriangularGivenTopValueAndWidth(0.2 + 0.3 * i, 0.2));
+			root.addChild(or);
+		}
+		root.addChild(sharedLeaf);
+		return root;
+	}
+
+	@Test
+	void testSharedGoalsAssessedOnce() throws FunctionOperationException {
+		FuzzyBoolean sequential = createGoalModelWithSharedGoals(createLeafGoalRideSatisfaction())
+				.assessSatisfaction();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int cutoff : new int[] { 1, 3, 100 }) {
+				LeafGoalImpl sharedLeaf = (LeafGoalImpl) createLeafGoalRideSatisfaction();
+				AbstractGoal root = (AbstractGoal) createGoalModelWithSharedGoals(sharedLeaf);
+				FuzzyBoolean parallel = new ParallelGoalAssessor(pool, cutoff).assessSatisfaction(root);
+				Assertions.assertEquals(sequential.getFunction().getDatapoints(),
+						parallel.getFunction().getDatapoints(), "Different result with cutoff " + cutoff);
+				Assertions.assertEquals(1, root.getAssessmentCount());
+				Assertions.assertEquals(1, sharedLeaf.getAssessmentCount());
+				Assertions.assertEquals(1, ((AbstractGoal) sharedLeaf.getParents().get(0)).getAssessmentCount());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void testTreeReductionSameAsFold() throws FunctionOperationException {
+		FuzzyBoolean fold = createWideGoalModel(ReductionStrategy.FOLD).assessSatisfaction();
+		FuzzyBoolean tree = createWideGoalModel(ReductionStrategy.TREE).assessSatisfaction();
+		double[][] foldXY = new double[fold.getFunction().getDatapoints().size()][];
+		for (int i = 0; i < foldXY.length; i++) {
+			foldXY[i] = new double[] { fold.getFunction().getDatapoints().getX(i),
+					fold.getFunction().getDatapoints().getY(i) };
+		}
+		checkFuzzyEquals(foldXY, tree);
+	}
+
+	@Test
+	void testExceptionFromSubtreeIsPropagated() throws FunctionOperationException {
+		Goal root = GoalFactory.CreateGoal(GoalType.AND);
+		root.addChild(createLeafGoalFuelConsumption());
+		root.addChild(GoalFactory.CreateGoal(GoalType.OR)); // no children
+
+		Assertions.assertThrows(FunctionOperationException.class,
+				() -> new ParallelGoalAssessor(ForkJoinPool.commonPool(), 1).assessSatisfaction(root));
+	}
+
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright 2024 EReS research Lab - Linnaeus University
+ * Contact: https://lnu.se/en/research/research-groups/engineering-resilient-systems-eres/
+ * 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ * Contributors: 
+ * 		Diego Perez
+ */
+package se.lnu.eres.fuzzy.serialization;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import se.lnu.eres.fuzzy.functions.FuzzyBoolean;
+import se.lnu.eres.fuzzy.functions.LinearPieceWiseFunction;
+import se.lnu.eres.fuzzy.functions.exceptions.FunctionOperationException;
+import se.lnu.eres.fuzzy.functions.impl.FuzzyBooleanImpl;
+import se.lnu.eres.fuzzy.functions.impl.FuzzyNumberImpl;
+import se.lnu.eres.fuzzy.functions.impl.LinearPiecewiseFunctionImpl;
+import se.lnu.eres.fuzzy.generators.RandomModelGenerator;
+import se.lnu.eres.fuzzy.goals.ApproximationStrategy;
+import se.lnu.eres.fuzzy.goals.Goal;
+import se.lnu.eres.fuzzy.goals.GoalModel;
+import se.lnu.eres.fuzzy.goals.LeafGoal;
+import se.lnu.eres.fuzzy.goals.LeafGoalType;
+import se.lnu.eres.fuzzy.goals.ReductionStrategy;
+import se.lnu.eres.fuzzy.goals.impl.AbstractGoal;
+import se.lnu.eres.fuzzy.goals.impl.GoalFactory;
+import se.lnu.eres.fuzzy.goals.impl.LeafGoalImpl;
+import se.lnu.eres.fuzzy.serialization.exceptions.ModelFormatException;
+
+class BinaryModelFormatTest {
+
+	private static LinearPieceWiseFunction createDiscontinuousFunction() {
+		LinearPieceWiseFunction function = new LinearPiecewiseFunctionImpl();
+		function.addPoint(0.0, 0.0);
+		function.addPoint(0.5, 0.25);
+		function.addPoint(0.5, 1.0);
+		function.addPoint(2.0, 1.0);
+		return function;
+	}
+
+	@Test
+	void testFunctionLayout() throws ModelFormatException {
+		LinearPieceWiseFunction function = createDiscontinuousFunction();
+		ByteBuffer payload = BinaryModelFormat.WriteFunction(function);
+
+		// Magic, version, kind, count and the datapoints
+		Assertions.assertEquals(4 + 1 + 1 + 1 + 4 * 16, payload.remaining());
+		Assertions.assertEquals('F', payload.get(0));
+		Assertions.assertEquals(BinaryModelFormat.VERSION, payload.get(4));
+		Assertions.assertEquals(4, payload.get(6));
+		Assertions.assertEquals(0.25, payload.order(ByteOrder.LITTLE_ENDIAN).getDouble(7 + 16 + 8));
+
+		Assertions.assertEquals(function.getDatapoints(), BinaryModelFormat.ReadFunction(payload).getDatapoints());
+		Assertions.assertFalse(payload.hasRemaining());
+	}
+
+	@Test
+	void testPayloadsOneAfterTheOther() throws ModelFormatException, FunctionOperationException {
+		LinearPieceWiseFunction function = createDiscontinuousFunction();
+		FuzzyBoolean fuzzyBoolean = new FuzzyBooleanImpl(new RandomModelGenerator(5).createFuzzyBoolean().getFunction(),
+				0.125);
+		ByteBuffer first = BinaryModelFormat.WriteFunction(function);
+		ByteBuffer second = BinaryModelFormat.WriteFuzzyBoolean(fuzzyBoolean);
+		ByteBuffer buffer = ByteBuffer.allocate(first.remaining() + second.remaining()).put(first).put(second).flip();
+
+		Assertions.assertEquals(function.getDatapoints(), BinaryModelFormat.ReadFunction(buffer).getDatapoints());
+		FuzzyBoolean read = BinaryModelFormat.ReadFuzzyBoolean(buffer);
+		Assertions.assertEquals(fuzzyBoolean.getFunction().getDatapoints(), read.getFunction().getDatapoints());
+		Assertions.assertEquals(0.125, read.getApproximationError());
+		Assertions.assertFalse(buffer.hasRemaining());
+		// The order of the buffer is not changed
+		Assertions.assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+	}
+
+	@Test
+	void testGoalTreeAssessesTheSameSatisfaction() throws ModelFormatException, FunctionOperationException {
+		RandomModelGenerator generator = new RandomModelGenerator(11);
+		generator.setDepth(3);
+		generator.setFanOut(3);
+		generator.setSlopeBreakpoints(4);
+		generator.setReductionStrategy(ReductionStrategy.TREE);
+		GoalModel model = generator.createGoalModel();
+		((AbstractGoal) model.getRoot()).setApproximation(ApproximationStrategy.ADAPTIVE, 8);
+
+		Goal root = BinaryModelFormat.ReadGoal(BinaryModelFormat.WriteGoal(model.getRoot()));
+		GoalModel readModel = GoalFactory.CreateGoalModel(root);
+		Assertions.assertEquals(27, readModel.getLeafGoals().size());
+		for (LeafGoal leaf : model.getLeafGoals()) {
+			LeafGoal readLeaf = readModel.getLeafGoal(leaf.getName());
+			Assertions.assertEquals(leaf.getLeafType(), readLeaf.getLeafType());
+			Assertions.assertEquals(leaf.getGoalTruthValue().getDatapoints(),
+					readLeaf.getGoalTruthValue().getDatapoints());
+			readLeaf.setObservation(new FuzzyNumberImpl(leaf.getObservation()));
+		}
+		AbstractGoal readRoot = (AbstractGoal) root;
+		Assertions.assertEquals(model.getRoot().getType(), readRoot.getType());
+		Assertions.assertEquals(ReductionStrategy.TREE, readRoot.getReductionStrategy());
+		Assertions.assertEquals(ApproximationStrategy.ADAPTIVE, readRoot.getApproximationStrategy());
+		Assertions.assertEquals(8, readRoot.getMaximumBreakpoints());
+		Assertions.assertEquals(model.assessSatisfaction().getFunction().getDatapoints(),
+				readModel.assessSatisfaction().getFunction().getDatapoints());
+	}
+
+	@Test
+	void testLeafGoal() throws ModelFormatException, FunctionOperationException {
+		LeafGoal leaf = new LeafGoalImpl(LeafGoalType.INT,
+				new RandomModelGenerator(2).createTruthValue(LeafGoalType.INT), "förbrukning");
+		LeafGoal read = BinaryModelFormat.ReadLeafGoal(BinaryModelFormat.WriteGoal(leaf));
+		Assertions.assertEquals("förbrukning", read.getName());
+		Assertions.assertEquals(LeafGoalType.INT, read.getLeafType());
+		Assertions.assertEquals(leaf.getGoalTruthValue().getDatapoints(), read.getGoalTruthValue().getDatapoints());
+
+		ByteBuffer tree = BinaryModelFormat.WriteGoal(new RandomModelGenerator(2).createGoalTree());
+		Assertions.assertThrows(ModelFormatException.class, () -> BinaryModelFormat.ReadLeafGoal(tree));
+	}
+
+	@Test
+	void testInvalidPayloads() {
+		ByteBuffer payload = BinaryModelFormat.WriteFunction(createDiscontinuousFunction());
+
+		// Another kind of payload
+		Assertions.assertThrows(ModelFormatException.class,
+				() -> BinaryModelFormat.ReadFuzzyNumber(payload.duplicate()));
+		// Truncated
+		ByteBuffer truncated = payload.duplicate();
+		truncated.limit(truncated.limit() - 1);
+		Assertions.assertThrows(ModelFormatException.class, () -> BinaryModelFormat.ReadFunction(truncated));
+		// Not the magic bytes
+		ByteBuffer corrupted = ByteBuffer.allocate(payload.remaining()).put(payload.duplicate()).flip();
+		corrupted.put(0, (byte) 'X');
+		Assertions.assertThrows(ModelFormatException.class, () -> BinaryModelFormat.ReadFunction(corrupted));
+		// A later version
+		corrupted.put(0, (byte) 'F');
+		corrupted.put(4, (byte) (BinaryModelFormat.VERSION + 1));
+		Assertions.assertThrows(ModelFormatException.class, () -> BinaryModelFormat.ReadFunction(corrupted));
+	}
+
+}